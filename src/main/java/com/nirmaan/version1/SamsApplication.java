@@ -2,8 +2,14 @@ package com.nirmaan.version1;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import com.nirmaan.version1.config.SamsRuntimeHints;
 
 @SpringBootApplication
+@EnableScheduling
+@ImportRuntimeHints(SamsRuntimeHints.class)
 public class SamsApplication {
 
 	public static void main(String[] args) {
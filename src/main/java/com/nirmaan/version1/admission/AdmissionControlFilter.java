@@ -0,0 +1,179 @@
+package com.nirmaan.version1.admission;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nirmaan.version1.dto.ApiResponse;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Admission control by priority lane: each lane (see PriorityLane) has its own
+ * adaptive concurrency limit, and a request over its lane's limit is rejected
+ * straight away with 503 and Retry-After, before any service or database
+ * work. Heavy reads therefore back off when they get slow instead of
+ * queueing for the 10 pooled connections, and the BULK maximum keeps them
+ * from ever holding most of the pool, which leaves headroom for check-ins
+ * and checkouts.
+ *
+ * Runs after the security filters, so requests that fail authentication are
+ * turned away there and never take a permit. Unauthenticated requests to the
+ * open endpoints (login, registration) share the small ANONYMOUS lane, so a
+ * flood of them cannot crowd out signed-in users.
+ *
+ * Actuator endpoints and the SSE stream are not limited. An async request
+ * (streamed lists) holds its permit until the response completes.
+ */
+@Slf4j
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 5)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Value("${sams.admission.enabled:true}")
+	private boolean enabled;
+
+	@Value("${sams.admission.retry-after:1}")
+	private int retryAfterSeconds;
+
+	@Value("${sams.admission.lanes.critical:min=10,max=100,latency=250ms}")
+	private String criticalSpec;
+
+	@Value("${sams.admission.lanes.standard:min=4,max=50,latency=500ms}")
+	private String standardSpec;
+
+	@Value("${sams.admission.lanes.bulk:min=1,max=3,latency=2s}")
+	private String bulkSpec;
+
+	@Value("${sams.admission.lanes.polled:min=50,max=400,latency=500ms}")
+	private String polledSpec;
+
+	@Value("${sams.admission.lanes.anonymous:min=2,max=10,latency=1s}")
+	private String anonymousSpec;
+
+	private final Map<PriorityLane, AimdLimiter> limiters = new EnumMap<>(PriorityLane.class);
+	private final Map<PriorityLane, Counter> rejected = new EnumMap<>(PriorityLane.class);
+
+	@PostConstruct
+	void createLimiters() {
+		limiters.put(PriorityLane.CRITICAL, AimdLimiter.parse(criticalSpec));
+		limiters.put(PriorityLane.STANDARD, AimdLimiter.parse(standardSpec));
+		limiters.put(PriorityLane.BULK, AimdLimiter.parse(bulkSpec));
+		limiters.put(PriorityLane.POLLED, AimdLimiter.parse(polledSpec));
+		limiters.put(PriorityLane.ANONYMOUS, AimdLimiter.parse(anonymousSpec));
+		limiters.forEach((lane, limiter) -> {
+			String tag = lane.name().toLowerCase();
+			Gauge.builder("sams.admission.limit", limiter, AimdLimiter::getLimit).tag("lane", tag)
+					.description("Current concurrency limit of the lane").register(meterRegistry);
+			Gauge.builder("sams.admission.in_flight", limiter, AimdLimiter::getInFlight).tag("lane", tag)
+					.description("Requests of the lane being processed").register(meterRegistry);
+			rejected.put(lane, Counter.builder("sams.admission.rejected").tag("lane", tag)
+					.description("Requests shed with 503 because the lane was at its limit")
+					.register(meterRegistry));
+		});
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		String path = path(request);
+		return !enabled || path.startsWith("/actuator/") || path.equals("/api/v1/attendance/stream");
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		PriorityLane lane = isAuthenticated() ? PriorityLane.of(request.getMethod(), path(request))
+				: PriorityLane.ANONYMOUS;
+		AimdLimiter limiter = limiters.get(lane);
+		if (!limiter.tryAcquire()) {
+			reject(request, response, lane, limiter);
+			return;
+		}
+		long started = System.nanoTime();
+		boolean async = false;
+		try {
+			filterChain.doFilter(request, response);
+			if (request.isAsyncStarted()) {
+				request.getAsyncContext().addListener(new Release(limiter, started));
+				async = true;
+			}
+		} finally {
+			if (!async) {
+				limiter.release(started, System.nanoTime());
+			}
+		}
+	}
+
+	private void reject(HttpServletRequest request, HttpServletResponse response, PriorityLane lane,
+			AimdLimiter limiter) throws IOException {
+		rejected.get(lane).increment();
+		log.debug("Shed {} {} ({} lane at its limit of {})", request.getMethod(), request.getRequestURI(), lane,
+				limiter.getLimit());
+		response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+		response.setHeader(HttpHeaders.RETRY_AFTER, Integer.toString(retryAfterSeconds));
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		objectMapper.writeValue(response.getOutputStream(),
+				ApiResponse.error("Server is busy, please retry in " + retryAfterSeconds + "s"));
+	}
+
+	private static boolean isAuthenticated() {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		return authentication != null && authentication.isAuthenticated()
+				&& !(authentication instanceof AnonymousAuthenticationToken);
+	}
+
+	private static String path(HttpServletRequest request) {
+		return request.getRequestURI().substring(request.getContextPath().length());
+	}
+
+	private record Release(AimdLimiter limiter, long started) implements AsyncListener {
+
+		// Called after timeouts and errors as well
+		@Override
+		public void onComplete(AsyncEvent event) {
+			limiter.release(started, System.nanoTime());
+		}
+
+		@Override
+		public void onTimeout(AsyncEvent event) {
+		}
+
+		@Override
+		public void onError(AsyncEvent event) {
+		}
+
+		@Override
+		public void onStartAsync(AsyncEvent event) {
+		}
+	}
+}
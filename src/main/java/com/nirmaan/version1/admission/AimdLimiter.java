@@ -0,0 +1,96 @@
+package com.nirmaan.version1.admission;
+
+import java.time.Duration;
+
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * Concurrency limit that adapts to observed latency (AIMD): each request
+ * completed within the latency target raises the limit by 1/limit (about
+ * one per limit's worth of requests) while the lane is busy, one slower than
+ * the target cuts it by the backoff ratio. Like TCP, only one cut is taken
+ * per round: requests that started before the last cut do not cut again.
+ * The limit stays between min and max and starts at max.
+ *
+ * Configured from a spec such as "min=10,max=100,latency=250ms,backoff=0.9"
+ * (backoff is optional).
+ */
+class AimdLimiter {
+
+	private final int minLimit;
+	private final int maxLimit;
+	private final long latencyNanos;
+	private final double backoff;
+
+	private double limit;
+	private int inFlight;
+	private long lastDecrease = System.nanoTime();
+
+	AimdLimiter(int minLimit, int maxLimit, Duration latency, double backoff) {
+		if (minLimit < 1 || maxLimit < minLimit || backoff <= 0 || backoff >= 1) {
+			throw new IllegalArgumentException("Invalid limiter bounds: min=" + minLimit + ", max=" + maxLimit
+					+ ", backoff=" + backoff);
+		}
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.latencyNanos = latency.toNanos();
+		this.backoff = backoff;
+		this.limit = maxLimit;
+	}
+
+	static AimdLimiter parse(String spec) {
+		Integer min = null;
+		Integer max = null;
+		Duration latency = null;
+		double backoff = 0.9;
+		for (String option : spec.split(",")) {
+			String[] pair = option.trim().split("=", 2);
+			if (pair.length != 2) {
+				throw new IllegalArgumentException("Invalid limiter option '" + option + "' in: " + spec);
+			}
+			switch (pair[0].trim()) {
+			case "min" -> min = Integer.valueOf(pair[1].trim());
+			case "max" -> max = Integer.valueOf(pair[1].trim());
+			case "latency" -> latency = DurationStyle.detectAndParse(pair[1].trim());
+			case "backoff" -> backoff = Double.parseDouble(pair[1].trim());
+			default -> throw new IllegalArgumentException("Unknown limiter option '" + pair[0] + "' in: " + spec);
+			}
+		}
+		if (min == null || max == null || latency == null) {
+			throw new IllegalArgumentException("Limiter spec needs min, max and latency: " + spec);
+		}
+		return new AimdLimiter(min, max, latency, backoff);
+	}
+
+	/**
+	 * @return whether the request is admitted; if so it must be released
+	 */
+	synchronized boolean tryAcquire() {
+		if (inFlight >= (int) limit) {
+			return false;
+		}
+		inFlight++;
+		return true;
+	}
+
+	synchronized void release(long startNanos, long endNanos) {
+		inFlight--;
+		if (endNanos - startNanos > latencyNanos) {
+			if (startNanos - lastDecrease > 0) {
+				limit = Math.max(minLimit, limit * backoff);
+				lastDecrease = endNanos;
+			}
+		} else if (inFlight + 1 >= limit / 2) {
+			// Only grow while the limit is actually in use
+			limit = Math.min(maxLimit, limit + 1 / limit);
+		}
+	}
+
+	synchronized int getLimit() {
+		return (int) limit;
+	}
+
+	synchronized int getInFlight() {
+		return inFlight;
+	}
+}
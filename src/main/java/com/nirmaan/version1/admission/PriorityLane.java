@@ -0,0 +1,56 @@
+package com.nirmaan.version1.admission;
+
+import java.util.List;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+/**
+ * Admission lanes, each with its own concurrency limit (AdmissionControlFilter).
+ * Check-ins and checkouts are CRITICAL; list, report and backup endpoints
+ * that read many rows are BULK; everything else is STANDARD. The reads that
+ * classroom screens poll all at once (batch summary, checked-in,
+ * present-today) are POLLED: they are @SingleFlight and cached or served from
+ * the occupancy board, so a burst costs one computation and its waiters hold
+ * no connection. They get a wide lane of their own, so a burst reaches the
+ * service to be coalesced instead of being shed.
+ * Unauthenticated requests are ANONYMOUS whatever the endpoint.
+ */
+public enum PriorityLane {
+
+	CRITICAL, STANDARD, BULK, POLLED, ANONYMOUS;
+
+	private static final List<Rule> RULES = List.of(
+			rule(HttpMethod.PATCH, "/api/v1/students/{id}/checkin", CRITICAL),
+			rule(HttpMethod.PATCH, "/api/v1/students/{id}/checkout", CRITICAL),
+			rule(HttpMethod.GET, "/api/v1/batches/{id}/summary", POLLED),
+			rule(HttpMethod.GET, "/api/v1/students/checked-in", POLLED),
+			rule(HttpMethod.GET, "/api/v1/students/present-today", POLLED),
+			rule(HttpMethod.GET, "/api/v1/students", BULK),
+			rule(HttpMethod.GET, "/api/v1/students/query", BULK),
+			rule(HttpMethod.GET, "/api/v1/students/batch/{batchId}", BULK),
+			rule(HttpMethod.GET, "/api/v1/attendance/batches/{batchId}/**", BULK),
+			rule(HttpMethod.POST, "/api/v1/admin/backups", BULK));
+
+	/**
+	 * @param path Request path within the application (without the context path)
+	 */
+	public static PriorityLane of(String method, String path) {
+		PathContainer container = PathContainer.parsePath(path);
+		for (Rule rule : RULES) {
+			if (rule.method().matches(method) && rule.pattern().matches(container)) {
+				return rule.lane();
+			}
+		}
+		return STANDARD;
+	}
+
+	private static Rule rule(HttpMethod method, String pattern, PriorityLane lane) {
+		return new Rule(method, PathPatternParser.defaultInstance.parse(pattern), lane);
+	}
+
+	private record Rule(HttpMethod method, PathPattern pattern, PriorityLane lane) {
+	}
+}
@@ -0,0 +1,87 @@
+package com.nirmaan.version1.cache;
+
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.nirmaan.version1.config.CacheConfig;
+import com.nirmaan.version1.event.AttendanceChangedEvent;
+import com.nirmaan.version1.event.AttendanceRolloverEvent;
+import com.nirmaan.version1.event.BatchChangedEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Evicts cached batch reads after the change that affects them has committed
+ * (evicting earlier would let a concurrent read cache the old row again). A
+ * read that loaded the old row before the commit and finishes after the
+ * eviction is not cached either: the batch caches are VersionedCaches.
+ * <ul>
+ * <li>batch created/edited/removed: that batch, its summary and the lists</li>
+ * <li>enrollment, removal or transfer: the same for the old and new batch,
+ * since counts and free slots change</li>
+ * <li>check-in/checkout: only the summary of that batch</li>
+ * <li>end-of-day rollover: every summary (statuses are reset)</li>
+ * </ul>
+ */
+@Component
+@Slf4j
+public class BatchCacheInvalidator {
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	// After the occupancy board applies the change, before ResourceVersions hands out new ETags
+	@Order(0)
+	@TransactionalEventListener
+	public void onBatchChanged(BatchChangedEvent event) {
+		evictBatch(event.getBatchId());
+	}
+
+	@Order(0)
+	@TransactionalEventListener
+	public void onAttendanceChanged(AttendanceChangedEvent event) {
+		switch (event.getType()) {
+		case CHECKED_IN, CHECKED_OUT -> evictSummary(event.getBatchId());
+		case ENROLLED, UPDATED, REMOVED -> {
+			evictBatch(event.getBatchId());
+			if (!Objects.equals(event.getBatchId(), event.getPreviousBatchId())) {
+				evictBatch(event.getPreviousBatchId());
+			}
+		}
+		}
+	}
+
+	// Published after the rollover's chunk transactions have committed
+	@Order(0)
+	@EventListener
+	public void onRollover(AttendanceRolloverEvent event) {
+		cache(CacheConfig.BATCH_SUMMARIES).clear();
+	}
+
+	private void evictBatch(Integer batchId) {
+		if (batchId == null) {
+			return;
+		}
+		log.debug("Evicting cached reads for batch {}", batchId);
+		cache(CacheConfig.BATCHES).evict(batchId);
+		cache(CacheConfig.BATCH_SUMMARIES).evict(batchId);
+		cache(CacheConfig.BATCH_LISTS).clear();
+	}
+
+	private void evictSummary(Integer batchId) {
+		if (batchId != null) {
+			cache(CacheConfig.BATCH_SUMMARIES).evict(batchId);
+		}
+	}
+
+	private Cache cache(String name) {
+		return Objects.requireNonNull(cacheManager.getCache(name), name);
+	}
+}
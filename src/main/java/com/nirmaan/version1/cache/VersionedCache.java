@@ -0,0 +1,146 @@
+package com.nirmaan.version1.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.NullValue;
+
+/**
+ * A Caffeine cache that drops puts made stale by an eviction. An @Cacheable
+ * read looks the key up, loads the value, then puts it. If the key was
+ * evicted (or the cache cleared) between the lookup and the put, the value
+ * may have been loaded before the change committed. It is returned to the
+ * caller but not cached, so the old row is never cached for the whole TTL.
+ *
+ * A put is compared with the time of the same thread's last lookup of that
+ * key. Each thread remembers only its latest few missed keys, which covers
+ * nested loads; a load that threw (and so never put) is forgotten once newer
+ * misses push it out. Evictions and puts for a key are serialized on the key.
+ * Loads taking longer than the staleness horizon are not cached either.
+ */
+public class VersionedCache implements Cache {
+
+	// How long evictions are remembered; a slower load is never cached
+	private static final long HORIZON_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+	// Missed keys remembered per thread
+	private static final int MAX_LOOKUPS = 16;
+
+	private final CaffeineCache delegate;
+	private final ConcurrentMap<Object, Object> entries;
+	private final Map<Object, Long> evictedAt = new ConcurrentHashMap<>();
+	private volatile long clearedAt = System.nanoTime() - HORIZON_NANOS;
+
+	// Time of this thread's last missed lookup per key, oldest dropped first
+	private final ThreadLocal<Map<Object, Long>> lookups = ThreadLocal.withInitial(() -> new LinkedHashMap<>() {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Object, Long> eldest) {
+			return size() > MAX_LOOKUPS;
+		}
+	});
+
+	public VersionedCache(CaffeineCache delegate) {
+		this.delegate = delegate;
+		this.entries = delegate.getNativeCache().asMap();
+	}
+
+	@Override
+	public String getName() {
+		return delegate.getName();
+	}
+
+	// The Caffeine cache, so Boot's cache metrics bind to it as to any CaffeineCache
+	@Override
+	public com.github.benmanes.caffeine.cache.Cache<Object, Object> getNativeCache() {
+		return delegate.getNativeCache();
+	}
+
+	@Override
+	public ValueWrapper get(Object key) {
+		long now = System.nanoTime();
+		ValueWrapper value = delegate.get(key);
+		if (value == null) {
+			lookups.get().put(key, now);
+		} else {
+			lookups.get().remove(key);
+		}
+		return value;
+	}
+
+	@Override
+	public <T> T get(Object key, Class<T> type) {
+		ValueWrapper value = get(key);
+		Object stored = value != null ? value.get() : null;
+		if (stored != null && type != null && !type.isInstance(stored)) {
+			throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + stored);
+		}
+		return type != null ? type.cast(stored) : null;
+	}
+
+	@Override
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		long start = System.nanoTime();
+		ValueWrapper cached = delegate.get(key);
+		if (cached != null) {
+			@SuppressWarnings("unchecked")
+			T value = (T) cached.get();
+			return value;
+		}
+		T value;
+		try {
+			value = valueLoader.call();
+		} catch (Exception e) {
+			throw new ValueRetrievalException(key, valueLoader, e);
+		}
+		putIfCurrent(key, value, start);
+		return value;
+	}
+
+	@Override
+	public void put(Object key, Object value) {
+		Long lookup = lookups.get().remove(key);
+		putIfCurrent(key, value, lookup != null ? lookup : System.nanoTime());
+	}
+
+	@Override
+	public ValueWrapper putIfAbsent(Object key, Object value) {
+		ValueWrapper existing = delegate.get(key);
+		if (existing == null) {
+			put(key, value);
+		}
+		return existing;
+	}
+
+	@Override
+	public void evict(Object key) {
+		long now = System.nanoTime();
+		entries.compute(key, (k, stored) -> {
+			evictedAt.put(k, now);
+			return null;
+		});
+		evictedAt.values().removeIf(at -> now - at > HORIZON_NANOS);
+	}
+
+	@Override
+	public void clear() {
+		clearedAt = System.nanoTime();
+		delegate.clear();
+	}
+
+	private void putIfCurrent(Object key, Object value, long lookup) {
+		Object stored = value != null ? value : NullValue.INSTANCE;
+		entries.compute(key, (k, current) -> isStale(k, lookup) ? current : stored);
+	}
+
+	private boolean isStale(Object key, long lookup) {
+		Long evicted = evictedAt.get(key);
+		return System.nanoTime() - lookup > HORIZON_NANOS || clearedAt - lookup >= 0
+				|| (evicted != null && evicted - lookup >= 0);
+	}
+}
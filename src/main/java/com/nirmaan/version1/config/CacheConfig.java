@@ -0,0 +1,98 @@
+package com.nirmaan.version1.config;
+
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nirmaan.version1.cache.VersionedCache;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Local Caffeine caches in front of the BatchService reads and the stored
+ * Idempotency-Key responses (IdempotencyStore). Each cache has its
+ * own size and TTL bound (sams.cache.*); batch entries are evicted precisely by
+ * BatchCacheInvalidator, and the batch caches are VersionedCaches, so a read
+ * that raced an eviction cannot put the old value back. The TTL only bounds
+ * staleness for changes that publish no event, such as the day rolling over.
+ * Caches record stats, which Boot's cache metrics registrar exports per cache
+ * as cache.gets{result=hit|miss}, cache.puts and cache.evictions.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+	// BatchResponse by batch ID
+	public static final String BATCHES = "batches";
+	// List<BatchResponse> under the keys "all" and "active"
+	public static final String BATCH_LISTS = "batchLists";
+	// BatchSummary by batch ID
+	public static final String BATCH_SUMMARIES = "batchSummaries";
+	// Completed IdempotencyRecord by key, in front of the idempotency_keys table
+	public static final String IDEMPOTENT_RESPONSES = "idempotentResponses";
+
+	// Caches evicted by BatchCacheInvalidator
+	private static final Set<String> VERSIONED = Set.of(BATCHES, BATCH_LISTS, BATCH_SUMMARIES);
+
+	@Value("${sams.cache.batches.spec:maximumSize=1000,expireAfterWrite=10m}")
+	private String batchesSpec;
+
+	@Value("${sams.cache.batch-lists.spec:maximumSize=10,expireAfterWrite=10m}")
+	private String batchListsSpec;
+
+	@Value("${sams.cache.batch-summaries.spec:maximumSize=1000,expireAfterWrite=1m}")
+	private String batchSummariesSpec;
+
+	@Value("${sams.cache.idempotent-responses.spec:maximumSize=10000,expireAfterWrite=24h}")
+	private String idempotentResponsesSpec;
+
+	@Bean
+	public CacheManager cacheManager() {
+		CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+
+			@Override
+			protected org.springframework.cache.Cache adaptCaffeineCache(String name, Cache<Object, Object> cache) {
+				CaffeineCache adapted = (CaffeineCache) super.adaptCaffeineCache(name, cache);
+				return VERSIONED.contains(name) ? new VersionedCache(adapted) : adapted;
+			}
+		};
+		// Only the caches below; a misspelt cache name fails instead of creating an unbounded cache
+		cacheManager.setCacheNames(List.of());
+		register(cacheManager, BATCHES, batchesSpec);
+		register(cacheManager, BATCH_LISTS, batchListsSpec);
+		register(cacheManager, BATCH_SUMMARIES, batchSummariesSpec);
+		register(cacheManager, IDEMPOTENT_RESPONSES, idempotentResponsesSpec);
+		return cacheManager;
+	}
+
+	// Boot binds CaffeineCache stats itself; a VersionedCache exposes the same native cache
+	@Bean
+	public CacheMeterBinderProvider<VersionedCache> versionedCacheMeterBinderProvider() {
+		return new VersionedCacheMeterBinderProvider();
+	}
+
+	private static void register(CaffeineCacheManager cacheManager, String name, String spec) {
+		Cache<Object, Object> cache = Caffeine.from(spec).recordStats().build();
+		cacheManager.registerCustomCache(name, cache);
+	}
+
+	private static class VersionedCacheMeterBinderProvider implements CacheMeterBinderProvider<VersionedCache> {
+
+		@Override
+		public MeterBinder getMeterBinder(VersionedCache cache, Iterable<Tag> tags) {
+			return new CaffeineCacheMetrics<>(cache.getNativeCache(), cache.getName(), tags);
+		}
+	}
+}
@@ -0,0 +1,34 @@
+package com.nirmaan.version1.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.nirmaan.version1.metrics.SqlStatementListener;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Wraps the application DataSource in a datasource-proxy so every JDBC
+ * execution is seen by SqlStatementListener, whichever component issued it.
+ */
+@Configuration
+public class DataSourceProxyConfig {
+
+	@Bean
+	public static BeanPostProcessor dataSourceProxyPostProcessor() {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+					return ProxyDataSourceBuilder.create(dataSource).name(beanName)
+							.listener(new SqlStatementListener()).build();
+				}
+				return bean;
+			}
+		};
+	}
+}
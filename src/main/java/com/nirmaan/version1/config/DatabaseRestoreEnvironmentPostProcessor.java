@@ -0,0 +1,81 @@
+package com.nirmaan.version1.config;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.apache.commons.logging.Log;
+import org.h2.tools.Restore;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.boot.logging.DeferredLogFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+/**
+ * Restores the database from a snapshot taken by DatabaseBackupService before
+ * anything opens it. Runs when sams.backup.restore-on-boot names a zip (or
+ * "latest" for the newest one in sams.backup.dir) and the database file does
+ * not exist yet, so an existing database is never overwritten and restarting a
+ * restored node is a no-op.
+ */
+public class DatabaseRestoreEnvironmentPostProcessor implements EnvironmentPostProcessor, Ordered {
+
+	private final Log log;
+
+	public DatabaseRestoreEnvironmentPostProcessor(DeferredLogFactory logFactory) {
+		this.log = logFactory.getLog(DatabaseRestoreEnvironmentPostProcessor.class);
+	}
+
+	// After the config data (application-*.properties) has been loaded
+	@Override
+	public int getOrder() {
+		return Ordered.LOWEST_PRECEDENCE;
+	}
+
+	@Override
+	public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+		String source = environment.getProperty("sams.backup.restore-on-boot", "").trim();
+		if (source.isEmpty()) {
+			return;
+		}
+		String dir = environment.getProperty("sams.database.dir");
+		String name = environment.getProperty("sams.database.name", "sams");
+		if (dir == null) {
+			log.warn("sams.backup.restore-on-boot is set but sams.database.dir is not; nothing restored");
+			return;
+		}
+
+		Path database = Path.of(dir, name + ".mv.db");
+		if (Files.exists(database)) {
+			log.info("Database " + database + " exists; skipping restore from " + source);
+			return;
+		}
+		Path snapshot = "latest".equals(source)
+				? latest(Path.of(environment.getProperty("sams.backup.dir", "data/backups")))
+				: Path.of(source);
+		if (snapshot == null || !Files.isRegularFile(snapshot)) {
+			throw new IllegalStateException("Database snapshot to restore not found: " + source);
+		}
+
+		long started = System.nanoTime();
+		Restore.execute(snapshot.toString(), dir, name);
+		log.info("Restored database " + database + " from " + snapshot + " in "
+				+ (System.nanoTime() - started) / 1_000_000 + " ms");
+	}
+
+	private static Path latest(Path backupDir) {
+		if (!Files.isDirectory(backupDir)) {
+			return null;
+		}
+		try (Stream<Path> files = Files.list(backupDir)) {
+			return files.filter(f -> f.getFileName().toString().matches("sams-\\d{8}-\\d{6}\\.zip"))
+					.max(Comparator.comparing(Path::getFileName)).orElse(null);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package com.nirmaan.version1.config;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.io.ClassPathResource;
+
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Optionally starts a continuous flight recording with the bundled
+ * jfr/sams.jfc settings, for environments where JVM flags are hard to change.
+ * The recording is written to the destination file when the application stops.
+ */
+@Configuration
+@ConditionalOnProperty(name = "sams.jfr.recording.enabled", havingValue = "true")
+@Slf4j
+public class JfrRecordingConfig {
+
+	@Value("${sams.jfr.recording.file:logs/sams.jfr}")
+	private String file;
+
+	@Value("${sams.jfr.recording.max-age:6h}")
+	private Duration maxAge;
+
+	// Nothing injects the recording, so it must not wait for lazy initialization
+	@Bean(destroyMethod = "stop")
+	@Lazy(false)
+	public Recording samsRecording() throws IOException, ParseException {
+		try (Reader settings = new InputStreamReader(new ClassPathResource("jfr/sams.jfc").getInputStream(),
+				StandardCharsets.UTF_8)) {
+			Recording recording = new Recording(jdk.jfr.Configuration.create(settings));
+			recording.setName("SAMS");
+			recording.setToDisk(true);
+			recording.setMaxAge(maxAge);
+			recording.setDestination(Path.of(file));
+			recording.start();
+			log.info("Started JFR recording with SAMS settings, dumping to {} on shutdown", file);
+			return recording;
+		}
+	}
+}
@@ -0,0 +1,44 @@
+package com.nirmaan.version1.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils.MethodFilter;
+
+import com.nirmaan.version1.controller.AuthController;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Lazy initialization is off by default: it measured no faster here and moves
+ * bean-creation failures from boot to the first request. When it is switched
+ * on (spring.main.lazy-initialization=true) most beans are created on first
+ * use. These stay eager: beans with @Scheduled methods (a lazy bean is never
+ * scheduled), @EventListener/@TransactionalEventListener methods (startup
+ * warm-ups such as the occupancy board) or @PostConstruct meter registration,
+ * and the login path, which is the first thing clients and readiness checks
+ * hit.
+ */
+@Configuration
+public class LazyInitializationConfig {
+
+	private static final MethodFilter STARTUP_WORK = method -> AnnotatedElementUtils.hasAnnotation(method,
+			Scheduled.class) || AnnotatedElementUtils.hasAnnotation(method, EventListener.class)
+			|| method.isAnnotationPresent(PostConstruct.class);
+
+	@Bean
+	public static LazyInitializationExcludeFilter eagerStartupBeans() {
+		return (beanName, beanDefinition, beanType) -> {
+			if (beanType == null || !beanType.getName().startsWith("com.nirmaan.")) {
+				return false;
+			}
+			Class<?> userType = ClassUtils.getUserClass(beanType);
+			return userType == AuthController.class || !MethodIntrospector.selectMethods(userType, STARTUP_WORK).isEmpty();
+		};
+	}
+}
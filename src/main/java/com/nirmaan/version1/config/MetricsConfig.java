@@ -0,0 +1,21 @@
+package com.nirmaan.version1.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Enables @Timed on Spring beans. The service classes are annotated at class
+ * level, so every public service method gets a "sams.service" timer tagged
+ * with its class and method name.
+ */
+@Configuration
+public class MetricsConfig {
+
+	@Bean
+	public TimedAspect timedAspect(MeterRegistry registry) {
+		return new TimedAspect(registry);
+	}
+}
@@ -0,0 +1,115 @@
+package com.nirmaan.version1.config;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+
+/**
+ * Reflection, resource and proxy hints for the native image (mvn -Pnative
+ * package). Spring AOT covers the bean wiring; this adds what is only reached
+ * reflectively at runtime:
+ * <ul>
+ * <li>entities and DTOs (including the Lombok builders and ApiResponse), read
+ * and written by Hibernate and Jackson</li>
+ * <li>the JJWT implementation classes the API loads by name, and its Jackson
+ * serializer found through META-INF/services</li>
+ * <li>the JDK proxies datasource-proxy wraps around JDBC objects</li>
+ * <li>migrations, seed data, the JFR settings and the cache regions</li>
+ * </ul>
+ */
+public class SamsRuntimeHints implements RuntimeHintsRegistrar {
+
+	static final List<String> JJWT_IMPLEMENTATIONS = List.of(
+			"io.jsonwebtoken.impl.DefaultClaimsBuilder$Supplier",
+			"io.jsonwebtoken.impl.DefaultJwtBuilder$Supplier",
+			"io.jsonwebtoken.impl.DefaultJwtHeaderBuilder$Supplier",
+			"io.jsonwebtoken.impl.DefaultJwtParserBuilder$Supplier",
+			"io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+			"io.jsonwebtoken.impl.security.DefaultDynamicJwkBuilder$Supplier",
+			"io.jsonwebtoken.impl.security.DefaultJwkParserBuilder$Supplier",
+			"io.jsonwebtoken.impl.security.DefaultJwkSetBuilder$Supplier",
+			"io.jsonwebtoken.impl.security.DefaultJwkSetParserBuilder$Supplier",
+			"io.jsonwebtoken.impl.security.DefaultKeyOperationBuilder$Supplier",
+			"io.jsonwebtoken.impl.security.DefaultKeyOperationPolicyBuilder$Supplier",
+			"io.jsonwebtoken.impl.security.JwksBridge",
+			"io.jsonwebtoken.impl.security.KeysBridge",
+			"io.jsonwebtoken.impl.security.StandardCurves",
+			"io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+			"io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+			"io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+			"io.jsonwebtoken.impl.security.StandardKeyOperations",
+			"io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+			"io.jsonwebtoken.impl.compression.DeflateCompressionAlgorithm",
+			"io.jsonwebtoken.impl.compression.GzipCompressionAlgorithm",
+			"io.jsonwebtoken.jackson.io.JacksonSerializer",
+			"io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+	private static final String BASE_PACKAGE = "com.nirmaan.version1";
+
+	@Override
+	public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+		// Entities and DTOs: every class in the package, nested builders and enums included
+		for (String pkg : List.of("entity", "dto")) {
+			for (String className : classesIn(BASE_PACKAGE + "." + pkg, classLoader)) {
+				hints.reflection().registerType(TypeReference.of(className), MemberCategory.values());
+			}
+		}
+
+		// LazyInitializationConfig inspects component methods for @Scheduled/@EventListener
+		ClassPathScanningCandidateComponentProvider components = new ClassPathScanningCandidateComponentProvider(false);
+		components.addIncludeFilter(new AnnotationTypeFilter(Component.class));
+		for (BeanDefinition component : components.findCandidateComponents(BASE_PACKAGE)) {
+			hints.reflection().registerType(TypeReference.of(component.getBeanClassName()),
+					MemberCategory.INTROSPECT_DECLARED_METHODS);
+		}
+		hints.reflection().registerType(DatabaseRestoreEnvironmentPostProcessor.class,
+				MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+
+		for (String className : JJWT_IMPLEMENTATIONS) {
+			hints.reflection().registerTypeIfPresent(classLoader, className, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+					MemberCategory.INVOKE_PUBLIC_METHODS);
+		}
+		hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+
+		for (Class<?> jdbcType : List.of(Connection.class, Statement.class, PreparedStatement.class,
+				CallableStatement.class, ResultSet.class)) {
+			hints.proxies().registerJdkProxy(ProxyJdbcObject.class, jdbcType);
+		}
+
+		hints.resources().registerPattern("db/migration/*.sql");
+		hints.resources().registerPattern("db/seed/*.sql");
+		hints.resources().registerPattern("jfr/sams.jfc");
+		hints.resources().registerPattern("hibernate-ehcache.xml");
+	}
+
+	// Every top-level and static nested class in the package (a plain scan would skip non-components)
+	private static List<String> classesIn(String pkg, ClassLoader classLoader) {
+		ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+			@Override
+			protected boolean isCandidateComponent(AnnotatedBeanDefinition beanDefinition) {
+				return beanDefinition.getMetadata().isIndependent();
+			}
+		};
+		scanner.setResourceLoader(new DefaultResourceLoader(classLoader));
+		scanner.addIncludeFilter((reader, factory) -> true);
+		return scanner.findCandidateComponents(pkg).stream().map(BeanDefinition::getBeanClassName)
+				.filter(name -> ClassUtils.isPresent(name, classLoader)).sorted().toList();
+	}
+}
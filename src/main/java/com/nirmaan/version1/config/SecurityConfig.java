@@ -3,6 +3,7 @@ package com.nirmaan.version1.config;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -17,8 +18,11 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import com.nirmaan.version1.idempotency.IdempotencyFilter;
 import com.nirmaan.version1.security.JwtAuthenticationFilter;
 
+import jakarta.servlet.DispatcherType;
+
 import java.util.Arrays;
 
 @Configuration
@@ -46,8 +50,14 @@ public class SecurityConfig {
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(authz -> authz
+                // Async dispatches (SSE) were already authorized on the original request
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/api/v1/auth/**").permitAll()
+                .requestMatchers("/actuator/health/**", "/actuator/info", "/actuator/prometheus").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
+                .requestMatchers("/api/v1/admin/**").hasRole("ADMIN")
                 .requestMatchers("/api/v1/batches/**").hasAnyRole("ADMIN", "TEACHER")
+                .requestMatchers("/api/v1/attendance/**").hasAnyRole("ADMIN", "TEACHER")
                 .requestMatchers("/api/v1/students/**").hasAnyRole("ADMIN", "TEACHER", "STUDENT")
                 .anyRequest().authenticated()
             )
@@ -62,6 +72,10 @@ public class SecurityConfig {
         configuration.setAllowedOrigins(Arrays.asList("http://localhost:3000"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        // Readable by the frontend: ETag for If-None-Match on polled endpoints, Retry-After on a shed
+        // request, Idempotent-Replayed on a replayed response
+        configuration.setExposedHeaders(Arrays.asList(HttpHeaders.ETAG, HttpHeaders.RETRY_AFTER,
+                IdempotencyFilter.REPLAYED));
         configuration.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -0,0 +1,56 @@
+package com.nirmaan.version1.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.nirmaan.version1.etag.ConditionalGetInterceptor;
+
+/**
+ * Conditional GET (ETag / If-None-Match) on the endpoints dashboards poll, and
+ * the binary encodings clients can negotiate with Accept: application/cbor or
+ * application/x-jackson-smile. JSON stays the default.
+ * Sparse fieldsets (?fields=) are applied by SparseFieldsAdvice.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+	@Autowired
+	private ConditionalGetInterceptor conditionalGetInterceptor;
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(conditionalGetInterceptor).addPathPatterns(ConditionalGetInterceptor.BATCHES,
+				ConditionalGetInterceptor.BATCH_SUMMARY, ConditionalGetInterceptor.BATCH_STUDENTS);
+	}
+
+	// Responses are unfiltered unless SparseFieldsAdvice supplies the filter for ?fields=
+	@Bean
+	public Jackson2ObjectMapperBuilderCustomizer sparseFieldsDefaultFilter() {
+		return builder -> builder.filters(new SimpleFilterProvider().setFailOnUnknownId(false));
+	}
+
+	// Built from Boot's builder (a new one per injection) so the binary formats get the spring.jackson settings
+	@Bean
+	public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+	}
+
+	// Back-references for repeated strings: batch names and codes recur on every student of a roster
+	@Bean
+	public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		SmileFactory factory = SmileFactory.builder().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+				.build();
+		return new MappingJackson2SmileHttpMessageConverter(builder.factory(factory).build());
+	}
+}
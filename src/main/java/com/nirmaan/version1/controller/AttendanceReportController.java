@@ -0,0 +1,84 @@
+package com.nirmaan.version1.controller;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.nirmaan.version1.dto.AbsenteeResponse;
+import com.nirmaan.version1.dto.ApiResponse;
+import com.nirmaan.version1.dto.BatchAttendanceDay;
+import com.nirmaan.version1.dto.StudentResponse;
+import com.nirmaan.version1.exception.InvalidOperationException;
+import com.nirmaan.version1.service.AttendanceBitmapService;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/v1/attendance/batches/{batchId}")
+@Validated
+@Slf4j
+public class AttendanceReportController {
+
+	@Autowired
+	private AttendanceBitmapService attendanceBitmapService;
+
+	/**
+	 * Daily attendance percentage GET /api/v1/attendance/batches/{batchId}/trend?days=90
+	 */
+	@GetMapping("/trend")
+	public ResponseEntity<ApiResponse<List<BatchAttendanceDay>>> getTrend(@PathVariable @Min(1) Integer batchId,
+			@RequestParam(defaultValue = "90") @Min(1) @Max(366) int days) {
+		log.info("REST request to get {}-day attendance trend for batch: {}", days, batchId);
+
+		List<BatchAttendanceDay> trend = attendanceBitmapService.getBatchTrend(batchId, days);
+		return ResponseEntity.ok(ApiResponse.success("Attendance trend for " + days + " days", trend));
+	}
+
+	/**
+	 * Students with repeated absences GET
+	 * /api/v1/attendance/batches/{batchId}/absentees?from=&to=&minMisses=3
+	 * (defaults to this week so far)
+	 */
+	@GetMapping("/absentees")
+	public ResponseEntity<ApiResponse<List<AbsenteeResponse>>> getAbsentees(@PathVariable @Min(1) Integer batchId,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+			@RequestParam(defaultValue = "3") @Min(1) int minMisses) {
+		LocalDate end = to != null ? to : LocalDate.now();
+		LocalDate start = from != null ? from : end.with(DayOfWeek.MONDAY);
+		log.info("REST request to get absentees of batch {} from {} to {}", batchId, start, end);
+
+		if (start.isAfter(end)) {
+			throw new InvalidOperationException("'from' must not be after 'to'");
+		}
+		List<AbsenteeResponse> absentees = attendanceBitmapService.getAbsentees(batchId, start, end, minMisses);
+		return ResponseEntity.ok(ApiResponse.success("Found " + absentees.size() + " students", absentees));
+	}
+
+	/**
+	 * Students present on some days and absent on others GET
+	 * /api/v1/attendance/batches/{batchId}/compare?presentOn=2024-03-04&absentOn=2024-03-05
+	 */
+	@GetMapping("/compare")
+	public ResponseEntity<ApiResponse<List<StudentResponse>>> compareDays(@PathVariable @Min(1) Integer batchId,
+			@RequestParam(defaultValue = "") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) List<LocalDate> presentOn,
+			@RequestParam(defaultValue = "") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) List<LocalDate> absentOn) {
+		log.info("REST request to compare attendance of batch {}: present on {}, absent on {}", batchId, presentOn,
+				absentOn);
+
+		List<StudentResponse> students = attendanceBitmapService.compareDays(batchId, presentOn, absentOn);
+		return ResponseEntity.ok(ApiResponse.success("Found " + students.size() + " students", students));
+	}
+}
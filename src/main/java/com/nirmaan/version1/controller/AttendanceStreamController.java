@@ -0,0 +1,43 @@
+package com.nirmaan.version1.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.nirmaan.version1.metrics.SqlStatementFilter;
+import com.nirmaan.version1.service.AttendanceStreamService;
+
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.constraints.Min;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/v1/attendance")
+@Validated
+@Slf4j
+public class AttendanceStreamController {
+
+	@Autowired
+	private AttendanceStreamService attendanceStreamService;
+
+	/**
+	 * Live check-in/check-out feed GET /api/v1/attendance/stream?batchId=
+	 *
+	 * Sends a "snapshot" event with the students checked in right now, then one
+	 * event per committed change (checked-in, checked-out, updated, enrolled,
+	 * removed) carrying the student. Reconnecting clients get a fresh snapshot.
+	 */
+	@GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter stream(@RequestParam(required = false) @Min(1) Integer batchId, HttpServletResponse response) {
+		log.info("REST request to open attendance stream for batch: {}", batchId);
+		SseEmitter emitter = attendanceStreamService.subscribe(batchId);
+		// The snapshot commits the response before SqlStatementFilter could add the header
+		SqlStatementFilter.writeServerTiming(response);
+		return emitter;
+	}
+}
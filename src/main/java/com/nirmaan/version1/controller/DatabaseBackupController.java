@@ -0,0 +1,49 @@
+package com.nirmaan.version1.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.nirmaan.version1.dto.ApiResponse;
+import com.nirmaan.version1.dto.DatabaseBackupResponse;
+import com.nirmaan.version1.service.DatabaseBackupService;
+
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/v1/admin/backups")
+@Slf4j
+public class DatabaseBackupController {
+
+	@Autowired
+	private DatabaseBackupService databaseBackupService;
+
+	/**
+	 * Take an online snapshot of the database POST /api/v1/admin/backups
+	 */
+	@PostMapping
+	public ResponseEntity<ApiResponse<DatabaseBackupResponse>> createBackup() {
+		log.info("REST request to back up the database");
+
+		DatabaseBackupResponse response = databaseBackupService.backup();
+		return ResponseEntity.status(HttpStatus.CREATED)
+				.body(ApiResponse.success("Backup created successfully", response));
+	}
+
+	/**
+	 * Snapshots available for restore, newest first GET /api/v1/admin/backups
+	 */
+	@GetMapping
+	public ResponseEntity<ApiResponse<List<DatabaseBackupResponse>>> listBackups() {
+		log.info("REST request to list database backups");
+
+		List<DatabaseBackupResponse> backups = databaseBackupService.listBackups();
+		return ResponseEntity.ok(ApiResponse.success("Found " + backups.size() + " backups", backups));
+	}
+}
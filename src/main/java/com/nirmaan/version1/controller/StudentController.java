@@ -1,11 +1,17 @@
 package com.nirmaan.version1.controller;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -17,14 +23,23 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.nirmaan.version1.dto.ApiResponse;
 import com.nirmaan.version1.dto.AttendanceSummary;
+import com.nirmaan.version1.dto.CursorPage;
 import com.nirmaan.version1.dto.StudentCreateRequest;
+import com.nirmaan.version1.dto.StudentQuery;
 import com.nirmaan.version1.dto.StudentResponse;
+import com.nirmaan.version1.entity.Student.AttendanceStatus;
+import com.nirmaan.version1.fields.StudentField;
 import com.nirmaan.version1.service.StudentService;
+import com.nirmaan.version1.streaming.ApiResponseStreamer;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import lombok.extern.slf4j.Slf4j;
 
@@ -37,6 +52,9 @@ public class StudentController {
 	@Autowired
 	private StudentService studentService;
 
+	@Autowired
+	private ApiResponseStreamer apiResponseStreamer;
+
 	/**
 	 * Create a new student POST /api/v1/students
 	 */
@@ -62,14 +80,19 @@ public class StudentController {
 	}
 
 	/**
-	 * Get all students GET /api/v1/students
+	 * Get all students GET /api/v1/students?fields=sid,sname,status (fields
+	 * optional; only those columns are read). Streamed while the rows are read
 	 */
 	@GetMapping
-	public ResponseEntity<ApiResponse<List<StudentResponse>>> getAllStudents() {
+	public ResponseEntity<StreamingResponseBody> getAllStudents(@RequestParam(required = false) String fields,
+			HttpServletRequest request, HttpServletResponse response) throws HttpMediaTypeNotAcceptableException {
 		log.info("REST request to get all students");
 
-		List<StudentResponse> students = studentService.getAllStudents();
-		return ResponseEntity.ok(ApiResponse.success("Retrieved " + students.size() + " students", students));
+		Set<StudentField> selected = StudentField.parse(fields);
+		return apiResponseStreamer.ok(request, response,
+				(Consumer<StudentResponse> sink) -> studentService.streamAllStudents(selected, sink),
+				count -> "Retrieved " + count + " students",
+				selected.stream().map(StudentField::getProperty).collect(Collectors.toSet()));
 	}
 
 	/**
@@ -128,6 +151,31 @@ public class StudentController {
 		return ResponseEntity.ok(ApiResponse.success("Found " + students.size() + " students", students));
 	}
 
+	/**
+	 * Query students by any combination of criteria GET
+	 * /api/v1/students/query?status=LATE&batchId=3&checkedInFrom=2025-01-06T09:00&checkedInTo=2025-01-06T09:30
+	 * (also checkedIn, namePrefix, fields); keyset pages of size students, the
+	 * next one with after={nextAfter}
+	 */
+	@GetMapping("/query")
+	public ResponseEntity<ApiResponse<CursorPage<StudentResponse>>> queryStudents(
+			@RequestParam(required = false) AttendanceStatus status,
+			@RequestParam(name = "batchId", required = false) List<@Min(1) Integer> batchIds,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime checkedInFrom,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime checkedInTo,
+			@RequestParam(required = false) Boolean checkedIn, @RequestParam(required = false) String namePrefix,
+			@RequestParam(required = false) @Min(0) Integer after,
+			@RequestParam(defaultValue = "50") @Min(1) @Max(500) int size,
+			@RequestParam(required = false) String fields) {
+		StudentQuery query = StudentQuery.builder().status(status).batchIds(batchIds).checkedInFrom(checkedInFrom)
+				.checkedInTo(checkedInTo).checkedIn(checkedIn).namePrefix(namePrefix).build();
+		log.info("REST request to query students: {}", query);
+
+		CursorPage<StudentResponse> page = studentService.queryStudents(query, after, size,
+				StudentField.parse(fields));
+		return ResponseEntity.ok(ApiResponse.success("Found " + page.getSize() + " students", page));
+	}
+
 	/**
 	 * Get currently checked-in students GET /api/v1/students/checked-in
 	 */
@@ -151,14 +199,16 @@ public class StudentController {
 	}
 
 	/**
-	 * Get students by batch ID GET /api/v1/students/batch/{batchId}
+	 * Get students by batch ID GET
+	 * /api/v1/students/batch/{batchId}?fields=sid,sname,status (fields optional;
+	 * only those columns are read)
 	 */
 	@GetMapping("/batch/{batchId}")
 	public ResponseEntity<ApiResponse<List<StudentResponse>>> getStudentsByBatch(
-			@PathVariable @Min(1) Integer batchId) {
+			@PathVariable @Min(1) Integer batchId, @RequestParam(required = false) String fields) {
 		log.info("REST request to get students for batch: {}", batchId);
 
-		List<StudentResponse> students = studentService.getStudentsByBatchId(batchId);
+		List<StudentResponse> students = studentService.getStudentsByBatchId(batchId, StudentField.parse(fields));
 		return ResponseEntity.ok(ApiResponse.success("Found " + students.size() + " students in batch", students));
 	}
 
@@ -0,0 +1,21 @@
+package com.nirmaan.version1.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+//Student who missed sessions in a date range
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AbsenteeResponse {
+	private Integer sid;
+	private String sname;
+	private String rollNumber;
+	private int sessionsHeld;
+	private int daysMissed;
+	// Longest run of consecutive missed sessions
+	private int longestAbsenceStreak;
+}
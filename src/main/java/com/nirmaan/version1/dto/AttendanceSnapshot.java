@@ -0,0 +1,26 @@
+package com.nirmaan.version1.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+//First event on an attendance stream: who is checked in when the client connects
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceSnapshot {
+	// Null when the stream covers every batch
+	private Integer batchId;
+	private List<StudentResponse> checkedIn;
+	private int presentToday;
+
+	@JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+	private LocalDateTime timestamp;
+}
@@ -0,0 +1,21 @@
+package com.nirmaan.version1.dto;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+//Attendance of one batch on one day
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchAttendanceDay {
+	private LocalDate date;
+	private int present;
+	// Current roster size; the roster is not versioned by day
+	private int enrolled;
+	private double attendancePercentage;
+}
@@ -3,14 +3,17 @@ package com.nirmaan.version1.dto;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.nirmaan.version1.fields.SparseFieldsAdvice;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-//Response DTO for batch
+//Response DTO for batch; clients can narrow it with ?fields=
+@JsonFilter(SparseFieldsAdvice.FILTER)
 @Data
 @Builder
 @NoArgsConstructor
@@ -19,5 +19,6 @@ public class BatchSummary {
 	private Integer availableSlots;
 	private long totalPresentToday;
 	private long totalAbsentToday;
+	private long currentlyCheckedIn;
 	private double attendancePercentage;
 }
@@ -0,0 +1,22 @@
+package com.nirmaan.version1.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One page of a keyset-paginated list. Pass nextAfter back as ?after= for the
+ * following page; it is null on the last one.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+	private List<T> content;
+	private int size;
+	private Integer nextAfter;
+}
@@ -0,0 +1,26 @@
+package com.nirmaan.version1.dto;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A database snapshot zip in sams.backup.dir
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DatabaseBackupResponse {
+	private String fileName;
+	private long sizeBytes;
+
+	@JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+	private LocalDateTime createdAt;
+
+	// Only set for a backup taken by this request
+	private Long durationMs;
+}
@@ -0,0 +1,34 @@
+package com.nirmaan.version1.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.nirmaan.version1.entity.Student.AttendanceStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Criteria for GET /api/v1/students/query; null (or empty) criteria are not
+ * applied, the others are combined with AND
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentQuery {
+	private AttendanceStatus status;
+	private List<Integer> batchIds;
+
+	// Check-in time range, from inclusive, to exclusive
+	private LocalDateTime checkedInFrom;
+	private LocalDateTime checkedInTo;
+
+	// Checked in and not yet checked out
+	private Boolean checkedIn;
+
+	// Case-sensitive, so idx_student_name serves it
+	private String namePrefix;
+}
@@ -2,7 +2,9 @@ package com.nirmaan.version1.dto;
 
 import java.time.LocalDateTime;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.nirmaan.version1.fields.SparseFieldsAdvice;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -11,10 +13,11 @@ import lombok.NoArgsConstructor;
 
 /**
  * Response DTO for Student Includes batch information for students assigned to
- * batches
+ * batches. Clients can narrow it with ?fields= (StudentField)
  */
+@JsonFilter(SparseFieldsAdvice.FILTER)
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class StudentResponse {
@@ -0,0 +1,48 @@
+package com.nirmaan.version1.entity;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Students of one batch who checked in on one day, stored as a serialized
+ * RoaringBitmap of sids. Kept up to date by AttendanceBitmapService.
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "attendance_bitmaps", uniqueConstraints = @UniqueConstraint(name = "uk_bitmap_batch_day",
+		columnNames = { "batch_id", "attendance_date" }))
+public class AttendanceBitmap {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long bitmapId;
+
+	@Column(name = "batch_id", nullable = false)
+	private Integer batchId;
+
+	@Column(name = "attendance_date", nullable = false)
+	private LocalDate attendanceDate;
+
+	@Lob
+	@Column(nullable = false)
+	private byte[] presentSids;
+
+	private int presentCount;
+
+	private LocalDateTime updatedAt;
+
+	@PrePersist
+	@PreUpdate
+	protected void onSave() {
+		updatedAt = LocalDateTime.now();
+	}
+}
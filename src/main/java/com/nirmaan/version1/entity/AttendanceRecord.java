@@ -0,0 +1,55 @@
+package com.nirmaan.version1.entity;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.nirmaan.version1.entity.Student.AttendanceStatus;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One student's attendance on one day, archived by the end-of-day rollover
+ * before the live columns on Student are reset.
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "attendance_records", uniqueConstraints = @UniqueConstraint(name = "uk_record_student_day",
+		columnNames = { "sid", "attendance_date" }), indexes = {
+				@Index(name = "idx_record_batch_day", columnList = "batch_id, attendance_date") })
+public class AttendanceRecord {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long recordId;
+
+	@Column(name = "sid", nullable = false)
+	private Integer sid;
+
+	// Batch at the time of the rollover (null when unassigned)
+	@Column(name = "batch_id")
+	private Integer batchId;
+
+	@Column(name = "attendance_date", nullable = false)
+	private LocalDate attendanceDate;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, length = 20)
+	private AttendanceStatus status;
+
+	@JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+	private LocalDateTime intime;
+
+	@JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+	private LocalDateTime outtime;
+
+	// True when the student never checked out and the rollover closed the session
+	private boolean autoClosed;
+}
@@ -5,6 +5,11 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
@@ -26,6 +31,9 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Table(name = "batches", indexes = { @Index(name = "idx_batch_code", columnList = "batchCode"),
 		@Index(name = "idx_batch_name", columnList = "batchName") })
+// Second-level cached: read on batch and student operations, rarely written (regions in hibernate-ehcache.xml)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
 public class Batch {
 
 	@Id
@@ -39,6 +47,7 @@ public class Batch {
 
 	@NotBlank(message = "Batch code is required")
 	@Size(min = 2, max = 20, message = "Batch code must be between 2 and 20 characters")
+	@NaturalId(mutable = true)
 	@Column(nullable = false, unique = true, length = 20)
 	private String batchCode;
 
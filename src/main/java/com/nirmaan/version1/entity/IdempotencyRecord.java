@@ -0,0 +1,50 @@
+package com.nirmaan.version1.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response of a request sent with an Idempotency-Key, replayed when the
+ * client retries with the same key. Written by IdempotencyStore.
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "idempotency_keys")
+public class IdempotencyRecord {
+
+	// "<username>:<Idempotency-Key>"
+	@Id
+	@Column(name = "idempotency_key", length = 320)
+	private String key;
+
+	// SHA-256 of method, path and body, to reject a key reused for another request
+	@Column(nullable = false, length = 64)
+	private String fingerprint;
+
+	// Null while the first request is being processed
+	private Integer status;
+
+	@Column(length = 100)
+	private String contentType;
+
+	@Lob
+	private byte[] body;
+
+	@Column(nullable = false)
+	private LocalDateTime createdAt;
+
+	@Column(nullable = false)
+	private LocalDateTime expiresAt;
+
+	public boolean isCompleted() {
+		return status != null;
+	}
+}
@@ -19,7 +19,13 @@ import com.fasterxml.jackson.annotation.JsonFormat;
 @AllArgsConstructor
 @Table(name = "students", indexes = { 
     @Index(name = "idx_student_name", columnList = "sname"),
-    @Index(name = "idx_check_in_time", columnList = "intime") 
+    @Index(name = "idx_check_in_time", columnList = "intime"),
+    @Index(name = "idx_student_roll_number", columnList = "roll_number"),
+    // Status filter of GET /students/query (StudentSpecifications.hasStatus); the findByStatus and
+    // countByStatus named by the V4 migration's comment no longer exist
+    @Index(name = "idx_student_status", columnList = "status"),
+    @Index(name = "idx_student_batch_status", columnList = "batch_id, status"),
+    @Index(name = "idx_student_open_session", columnList = "outtime, intime")
 })
 public class Student {
 
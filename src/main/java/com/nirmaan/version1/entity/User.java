@@ -3,6 +3,11 @@ package com.nirmaan.version1.entity;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -21,6 +26,9 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "users", uniqueConstraints = { @UniqueConstraint(columnNames = "email") })
+// Second-level cached: loaded by username on every authenticated request (regions in hibernate-ehcache.xml)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
 public class User implements UserDetails {
 
 	@Id
@@ -28,6 +36,7 @@ public class User implements UserDetails {
 	private Integer userId;
 
 	@NotBlank(message = "Username is required")
+	@NaturalId
 	@Column(nullable = false, unique = true, length = 50)
 	private String username;
 
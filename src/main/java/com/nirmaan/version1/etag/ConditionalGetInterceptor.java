@@ -0,0 +1,108 @@
+package com.nirmaan.version1.etag;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.HeaderContentNegotiationStrategy;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Answers If-None-Match on the versioned GET endpoints (registered in
+ * WebConfig) with 304 Not Modified before the controller runs. Otherwise the
+ * tag is kept as a request attribute and ETagAdvice puts it on the response,
+ * so only successful bodies carry it.
+ *
+ * Each encoding (JSON, CBOR, Smile) is a separate representation with its own
+ * tag, chosen from the Accept header the same way the message converters
+ * choose.
+ *
+ * The tag is taken before the service reads anything: a change committing
+ * meanwhile can only pair a newer body with an older tag, which the next poll
+ * corrects, never the reverse.
+ */
+@Slf4j
+@Component
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+	static final String ETAG_ATTRIBUTE = ConditionalGetInterceptor.class.getName() + ".etag";
+
+	public static final String BATCHES = "/api/v1/batches";
+	public static final String BATCH_SUMMARY = "/api/v1/batches/{id}/summary";
+	public static final String BATCH_STUDENTS = "/api/v1/students/batch/{batchId}";
+
+	private static final List<MediaType> REPRESENTATIONS = List.of(MediaType.APPLICATION_JSON,
+			MediaType.APPLICATION_CBOR, new MediaType("application", "x-jackson-smile"));
+
+	// What the MVC content negotiation manager does with its default (header-only) configuration
+	private static final HeaderContentNegotiationStrategy ACCEPT_HEADER = new HeaderContentNegotiationStrategy();
+
+	@Autowired
+	private ResourceVersions resourceVersions;
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+			return true;
+		}
+		String version = versionFor(request);
+		if (version == null) {
+			return true;
+		}
+		String etag = "\"" + version + "-" + representation(request) + "\"";
+		// Evaluated without the response, which would otherwise get the header even if the request then fails
+		if (new ServletWebRequest(request).checkNotModified(etag)) {
+			log.debug("304 for {} ({})", request.getRequestURI(), etag);
+			response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+			response.setHeader(HttpHeaders.ETAG, etag);
+			response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+			return false;
+		}
+		request.setAttribute(ETAG_ATTRIBUTE, etag);
+		return true;
+	}
+
+	private String versionFor(HttpServletRequest request) {
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		@SuppressWarnings("unchecked")
+		Map<String, String> variables = (Map<String, String>) request
+				.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+		try {
+			if (BATCHES.equals(pattern)) {
+				return resourceVersions.batchListTag();
+			} else if (BATCH_SUMMARY.equals(pattern)) {
+				return resourceVersions.batchSummaryTag(Integer.valueOf(variables.get("id")));
+			} else if (BATCH_STUDENTS.equals(pattern)) {
+				return resourceVersions.batchStudentsTag(Integer.valueOf(variables.get("batchId")));
+			}
+		} catch (NumberFormatException invalidId) {
+			// Left to the controller's validation
+		}
+		return null;
+	}
+
+	// First converter-supported type in the client's preference order; JSON for */* as with the converters
+	private String representation(HttpServletRequest request) {
+		try {
+			for (MediaType accepted : ACCEPT_HEADER.resolveMediaTypes(new ServletWebRequest(request))) {
+				for (MediaType representation : REPRESENTATIONS) {
+					if (accepted.isCompatibleWith(representation)) {
+						return representation.getSubtype().replace("x-jackson-", "");
+					}
+				}
+			}
+		} catch (HttpMediaTypeNotAcceptableException invalidAccept) {
+			// The controller answers 406
+		}
+		return MediaType.APPLICATION_JSON.getSubtype();
+	}
+}
@@ -0,0 +1,47 @@
+package com.nirmaan.version1.etag;
+
+import java.util.List;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import com.nirmaan.version1.dto.ApiResponse;
+
+/**
+ * Adds the ETag chosen by ConditionalGetInterceptor to successful responses,
+ * just before the body is written, with Vary: Accept since the tag depends on
+ * the negotiated encoding.
+ */
+@ControllerAdvice
+public class ETagAdvice implements ResponseBodyAdvice<Object> {
+
+	@Override
+	public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+		return true;
+	}
+
+	@Override
+	public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+			Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+			ServerHttpResponse response) {
+		// SparseFieldsAdvice runs first and wraps the body
+		Object value = body instanceof MappingJacksonValue container ? container.getValue() : body;
+		if (value instanceof ApiResponse<?> apiResponse && apiResponse.isSuccess()
+				&& request instanceof ServletServerHttpRequest servletRequest) {
+			Object etag = servletRequest.getServletRequest().getAttribute(ConditionalGetInterceptor.ETAG_ATTRIBUTE);
+			if (etag != null) {
+				response.getHeaders().setETag((String) etag);
+				response.getHeaders().setVary(List.of(HttpHeaders.ACCEPT));
+			}
+		}
+		return body;
+	}
+}
@@ -0,0 +1,104 @@
+package com.nirmaan.version1.etag;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.nirmaan.version1.event.AttendanceChangedEvent;
+import com.nirmaan.version1.event.AttendanceRolloverEvent;
+import com.nirmaan.version1.event.BatchChangedEvent;
+
+/**
+ * Version counters for the polled read endpoints, turned into strong ETags
+ * (by ConditionalGetInterceptor, which adds the representation) without
+ * touching the service layer or serializing anything.
+ * <ul>
+ * <li>batch list: bumped when a batch changes or a student joins, leaves or
+ * moves between batches (counts and free slots)</li>
+ * <li>per batch (its students and its summary): bumped by any attendance or
+ * enrollment change in the batch and by edits to the batch itself</li>
+ * <li>generation: bumped by the end-of-day rollover, which rewrites statuses
+ * in bulk</li>
+ * </ul>
+ * Counters move after commit and after the occupancy board and the batch
+ * caches have caught up, so a body served under a new tag is never older than
+ * the change that produced it. Tags embed the process start time, so counters
+ * restarting at zero never reproduce a tag from a previous run.
+ */
+@Component
+public class ResourceVersions {
+
+	private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+	private final AtomicLong generation = new AtomicLong();
+	private final AtomicLong batchList = new AtomicLong();
+	private final Map<Integer, AtomicLong> batches = new ConcurrentHashMap<>();
+
+	public String batchListTag() {
+		return tag("batches", batchList.get());
+	}
+
+	public String batchStudentsTag(Integer batchId) {
+		return tag("batch-" + batchId + "-students", versionOf(batchId));
+	}
+
+	// Present-today restarts at midnight without an event, so the day is part of the tag
+	public String batchSummaryTag(Integer batchId) {
+		return tag("batch-" + batchId + "-summary-" + LocalDate.now(), versionOf(batchId));
+	}
+
+	// Last among the commit listeners: after the occupancy board and BatchCacheInvalidator
+	@Order(Ordered.LOWEST_PRECEDENCE)
+	@TransactionalEventListener
+	public void onBatchChanged(BatchChangedEvent event) {
+		batchVersion(event.getBatchId()).incrementAndGet();
+		batchList.incrementAndGet();
+	}
+
+	@Order(Ordered.LOWEST_PRECEDENCE)
+	@TransactionalEventListener
+	public void onAttendanceChanged(AttendanceChangedEvent event) {
+		bump(event.getBatchId());
+		boolean transferred = !Objects.equals(event.getBatchId(), event.getPreviousBatchId());
+		if (transferred) {
+			bump(event.getPreviousBatchId());
+		}
+		if (transferred || event.getType() == AttendanceChangedEvent.Type.ENROLLED
+				|| event.getType() == AttendanceChangedEvent.Type.REMOVED) {
+			batchList.incrementAndGet();
+		}
+	}
+
+	@EventListener
+	public void onRollover(AttendanceRolloverEvent event) {
+		generation.incrementAndGet();
+	}
+
+	private void bump(Integer batchId) {
+		if (batchId != null) {
+			batchVersion(batchId).incrementAndGet();
+		}
+	}
+
+	// Reads do not create counters, so probing unknown IDs cannot grow the map
+	private long versionOf(Integer batchId) {
+		AtomicLong version = batches.get(batchId);
+		return version == null ? 0 : version.get();
+	}
+
+	// Never removed, so a deleted batch's counter cannot restart at a version already handed out
+	private AtomicLong batchVersion(Integer batchId) {
+		return batches.computeIfAbsent(batchId, id -> new AtomicLong());
+	}
+
+	private String tag(String resource, long version) {
+		return resource + "-" + epoch + "." + generation.get() + "." + version;
+	}
+}
@@ -0,0 +1,46 @@
+package com.nirmaan.version1.event;
+
+import java.time.LocalDateTime;
+
+import com.nirmaan.version1.dto.StudentResponse;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published by StudentService whenever a student's attendance or enrollment
+ * changes. Listeners that keep derived state should use
+ * {@code @TransactionalEventListener} so they only see committed changes.
+ */
+@Getter
+@ToString
+public class AttendanceChangedEvent {
+
+	public enum Type {
+		ENROLLED, UPDATED, CHECKED_IN, CHECKED_OUT, REMOVED
+	}
+
+	private final Type type;
+	private final Integer sid;
+
+	// Batch after the change, and before it (differs only on a transfer); null when unassigned
+	private final Integer batchId;
+	private final Integer previousBatchId;
+
+	// Student as committed (as it was just before deletion for REMOVED)
+	private final StudentResponse student;
+
+	private final LocalDateTime occurredAt = LocalDateTime.now();
+
+	public AttendanceChangedEvent(Type type, StudentResponse student, Integer previousBatchId) {
+		this.type = type;
+		this.sid = student.getSid();
+		this.batchId = student.getBatchId();
+		this.previousBatchId = previousBatchId;
+		this.student = student;
+	}
+
+	public AttendanceChangedEvent(Type type, StudentResponse student) {
+		this(type, student, student.getBatchId());
+	}
+}
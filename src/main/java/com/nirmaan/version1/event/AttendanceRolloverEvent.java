@@ -0,0 +1,22 @@
+package com.nirmaan.version1.event;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published after the end-of-day rollover has committed every chunk and the
+ * occupancy board has been rebuilt.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class AttendanceRolloverEvent {
+
+	private final LocalDate day;
+	private final int archived;
+	private final int sessionsClosed;
+	private final int statusesReset;
+}
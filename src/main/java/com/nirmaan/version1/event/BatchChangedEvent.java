@@ -0,0 +1,25 @@
+package com.nirmaan.version1.event;
+
+import com.nirmaan.version1.dto.BatchResponse;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published by BatchService when a batch is created, edited or removed.
+ * {@code batch} is null for DELETED.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class BatchChangedEvent {
+
+	public enum Type {
+		CREATED, UPDATED, DELETED
+	}
+
+	private final Type type;
+	private final Integer batchId;
+	private final BatchResponse batch;
+}
@@ -0,0 +1,96 @@
+package com.nirmaan.version1.fields;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.Ordered;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.nirmaan.version1.exception.InvalidOperationException;
+
+/**
+ * Serializes only the properties named in ?fields= for responses whose
+ * payload type carries {@code @JsonFilter(SparseFieldsAdvice.FILTER)}
+ * (StudentResponse, BatchResponse), whether the payload is a single object or
+ * a list. Applies to every Jackson encoding (JSON, CBOR, Smile).
+ *
+ * Only the serialized shape changes here; the wide student list endpoints
+ * additionally narrow the SQL (see StudentField). Streamed lists
+ * (ApiResponseStreamer) bypass response body advice and apply only() themselves.
+ */
+@ControllerAdvice
+// Ahead of ETagAdvice, so an unknown field is rejected before any header is set
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SparseFieldsAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+	public static final String FILTER = "sparseFields";
+	public static final String PARAMETER = "fields";
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private final Map<Class<?>, Set<String>> properties = new ConcurrentHashMap<>();
+
+	@Override
+	protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+			MethodParameter returnType, ServerHttpRequest request, ServerHttpResponse response) {
+		String fields = request instanceof ServletServerHttpRequest servletRequest
+				? servletRequest.getServletRequest().getParameter(PARAMETER)
+				: null;
+		Class<?> payload = payloadType(returnType);
+		if (fields == null || fields.isBlank() || payload == null
+				|| !AnnotatedElementUtils.hasAnnotation(payload, JsonFilter.class)) {
+			return;
+		}
+		Set<String> selected = Arrays.stream(fields.split(",")).map(String::trim).filter(name -> !name.isEmpty())
+				.collect(Collectors.toCollection(LinkedHashSet::new));
+		Set<String> known = properties.computeIfAbsent(payload, this::propertiesOf);
+		for (String name : selected) {
+			if (!known.contains(name)) {
+				throw new InvalidOperationException("Unknown field for " + payload.getSimpleName() + ": " + name);
+			}
+		}
+		bodyContainer.setFilters(only(selected));
+	}
+
+	// Filters that keep just these properties on the annotated types
+	public static FilterProvider only(Set<String> properties) {
+		return new SimpleFilterProvider().addFilter(FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(properties));
+	}
+
+	// Innermost generic of the declared return type, e.g. StudentResponse in ResponseEntity<ApiResponse<List<StudentResponse>>>
+	private static Class<?> payloadType(MethodParameter returnType) {
+		ResolvableType type = ResolvableType.forMethodParameter(returnType);
+		while (type.hasGenerics()) {
+			type = type.getGeneric(type.getGenerics().length - 1);
+		}
+		return type.resolve();
+	}
+
+	// Serialized property names as Jackson sees them (BatchResponse.isFull is "full")
+	private Set<String> propertiesOf(Class<?> type) {
+		return objectMapper.getSerializationConfig().introspect(objectMapper.constructType(type)).findProperties()
+				.stream().map(BeanPropertyDefinition::getName).collect(Collectors.toSet());
+	}
+}
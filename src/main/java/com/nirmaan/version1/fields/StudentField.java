@@ -0,0 +1,74 @@
+package com.nirmaan.version1.fields;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import com.nirmaan.version1.exception.InvalidOperationException;
+
+/**
+ * StudentResponse properties a client can select with ?fields=, and the
+ * Student attributes each one is read from. Derived properties need the
+ * columns they are computed from; batch name and code need the batch join,
+ * batch ID does not (it is the foreign key column). Session fields read the
+ * whole session with sid and updatedAt, so a journaled check-in not yet
+ * written behind can be applied over the row (WriteBehindIngestion).
+ */
+public enum StudentField {
+
+	SID("sid", "sid"),
+	SNAME("sname", "sname"),
+	EMAIL("email", "email"),
+	PHONE("phone", "phone"),
+	ROLL_NUMBER("rollNumber", "rollNumber"),
+	INTIME("intime", "sid", "intime", "outtime", "status", "updatedAt"),
+	OUTTIME("outtime", "sid", "intime", "outtime", "status", "updatedAt"),
+	STATUS("status", "sid", "intime", "outtime", "status", "updatedAt"),
+	HOURS_PRESENT("hoursPresent", "sid", "intime", "outtime", "status", "updatedAt"),
+	CHECKED_IN("checkedIn", "sid", "intime", "outtime", "status", "updatedAt"),
+	CREATED_AT("createdAt", "createdAt"),
+	BATCH_ID("batchId", "batch.batchId"),
+	BATCH_NAME("batchName", "batch.batchName"),
+	BATCH_CODE("batchCode", "batch.batchCode");
+
+	// Fields read from the student's attendance session
+	public static final Set<StudentField> SESSION = Set.copyOf(EnumSet.of(INTIME, OUTTIME, STATUS, HOURS_PRESENT,
+			CHECKED_IN));
+
+	private final String property;
+	private final List<String> attributes;
+
+	StudentField(String property, String... attributes) {
+		this.property = property;
+		this.attributes = List.of(attributes);
+	}
+
+	public String getProperty() {
+		return property;
+	}
+
+	public List<String> getAttributes() {
+		return attributes;
+	}
+
+	/**
+	 * Parse a comma-separated ?fields= value, e.g. "sid,sname,status"
+	 * @return the selected fields, empty when the parameter is absent or blank
+	 * @throws InvalidOperationException for a name that is not a StudentResponse property
+	 */
+	public static Set<StudentField> parse(String fields) {
+		Set<StudentField> selected = EnumSet.noneOf(StudentField.class);
+		if (fields == null || fields.isBlank()) {
+			return selected;
+		}
+		for (String name : fields.split(",")) {
+			String property = name.trim();
+			if (!property.isEmpty()) {
+				selected.add(Arrays.stream(values()).filter(field -> field.property.equals(property)).findFirst()
+						.orElseThrow(() -> new InvalidOperationException("Unknown student field: " + property)));
+			}
+		}
+		return selected;
+	}
+}
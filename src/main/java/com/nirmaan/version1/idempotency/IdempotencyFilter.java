@@ -0,0 +1,246 @@
+package com.nirmaan.version1.idempotency;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nirmaan.version1.dto.ApiResponse;
+import com.nirmaan.version1.entity.IdempotencyRecord;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Idempotency-Key support for enrollment, check-in, checkout and batch
+ * creation, so clients can retry after a timeout. The first request with a key
+ * runs and its response (status, content type, body) is stored; a retry with
+ * the same key, by the same user, gets that response replayed with an
+ * Idempotent-Replayed header and nothing is run again.
+ * <ul>
+ * <li>409 while the first request with the key is still being processed</li>
+ * <li>422 when the key was used for a different request (method, path or body)</li>
+ * <li>server errors are not stored, so the request can be retried; client
+ * errors are, like successes</li>
+ * </ul>
+ * Runs after the security filters, so keys are scoped to the user and
+ * unauthenticated requests never claim one. Requests without the header are
+ * untouched.
+ */
+@Slf4j
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 10)
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+	public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+	public static final String REPLAYED = "Idempotent-Replayed";
+
+	private static final int MAX_KEY_LENGTH = 255;
+
+	private static final List<Endpoint> ENDPOINTS = List.of(
+			endpoint(HttpMethod.POST, "/api/v1/students"),
+			endpoint(HttpMethod.PATCH, "/api/v1/students/{id}/checkin"),
+			endpoint(HttpMethod.PATCH, "/api/v1/students/{id}/checkout"),
+			endpoint(HttpMethod.POST, "/api/v1/batches"));
+
+	@Autowired
+	private IdempotencyStore idempotencyStore;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		if (request.getHeader(IDEMPOTENCY_KEY) == null) {
+			return true;
+		}
+		PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+		return ENDPOINTS.stream().noneMatch(endpoint -> endpoint.method().matches(request.getMethod())
+				&& endpoint.pattern().matches(path));
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		if (authentication == null || !authentication.isAuthenticated()) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+		String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY).trim();
+		if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+			reject(response, HttpStatus.BAD_REQUEST,
+					IDEMPOTENCY_KEY + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+			return;
+		}
+
+		// Read the body up front: it is part of the fingerprint and a replay never reaches the controller
+		byte[] body = request.getInputStream().readAllBytes();
+		String key = authentication.getName() + ":" + idempotencyKey;
+		String fingerprint = fingerprint(request, body);
+
+		IdempotencyStore.Claim claim = idempotencyStore.claim(key, fingerprint);
+		if (!claim.isOwned()) {
+			IdempotencyRecord existing = claim.existing();
+			if (!existing.isCompleted()) {
+				count("conflict");
+				reject(response, HttpStatus.CONFLICT,
+						"A request with this " + IDEMPOTENCY_KEY + " is still being processed");
+			} else if (!existing.getFingerprint().equals(fingerprint)) {
+				count("mismatch");
+				reject(response, HttpStatus.UNPROCESSABLE_ENTITY,
+						IDEMPOTENCY_KEY + " was already used for a different request");
+			} else {
+				count("replayed");
+				replay(response, existing);
+			}
+			return;
+		}
+
+		ContentCachingResponseWrapper captured = new ContentCachingResponseWrapper(response);
+		boolean stored = false;
+		try {
+			filterChain.doFilter(new CachedBodyRequest(request, body), captured);
+			if (captured.getStatus() < HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+				idempotencyStore.complete(claim, captured.getStatus(), captured.getContentType(),
+						captured.getContentAsByteArray());
+				stored = true;
+				count("stored");
+			}
+		} finally {
+			if (!stored) {
+				idempotencyStore.abandon(claim);
+			}
+			captured.copyBodyToResponse();
+		}
+	}
+
+	private void replay(HttpServletResponse response, IdempotencyRecord record) throws IOException {
+		log.debug("Replaying stored response for idempotency key {}", record.getKey());
+		response.setStatus(record.getStatus());
+		response.setHeader(REPLAYED, "true");
+		if (record.getContentType() != null) {
+			response.setContentType(record.getContentType());
+		}
+		if (record.getBody() != null) {
+			response.setContentLength(record.getBody().length);
+			response.getOutputStream().write(record.getBody());
+		}
+	}
+
+	private void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+		response.setStatus(status.value());
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		objectMapper.writeValue(response.getOutputStream(), ApiResponse.error(message));
+	}
+
+	private void count(String outcome) {
+		meterRegistry.counter("sams.idempotency.requests", "outcome", outcome).increment();
+	}
+
+	// SHA-256 of "METHOD uri" and the body
+	private static String fingerprint(HttpServletRequest request, byte[] body) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update((request.getMethod() + " " + request.getRequestURI() + "\n").getBytes(StandardCharsets.UTF_8));
+			return HexFormat.of().formatHex(digest.digest(body));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static Endpoint endpoint(HttpMethod method, String pattern) {
+		return new Endpoint(method, PathPatternParser.defaultInstance.parse(pattern));
+	}
+
+	private record Endpoint(HttpMethod method, PathPattern pattern) {
+	}
+
+	// The request with its already-read body
+	private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+		private final byte[] body;
+
+		CachedBodyRequest(HttpServletRequest request, byte[] body) {
+			super(request);
+			this.body = body;
+		}
+
+		@Override
+		public ServletInputStream getInputStream() {
+			ByteArrayInputStream in = new ByteArrayInputStream(body);
+			return new ServletInputStream() {
+
+				@Override
+				public int read() {
+					return in.read();
+				}
+
+				@Override
+				public int read(byte[] b, int off, int len) {
+					return in.read(b, off, len);
+				}
+
+				@Override
+				public boolean isFinished() {
+					return in.available() == 0;
+				}
+
+				@Override
+				public boolean isReady() {
+					return true;
+				}
+
+				// The body is already in memory: all of it is available, and then read
+				@Override
+				public void setReadListener(ReadListener listener) {
+					try {
+						listener.onDataAvailable();
+						listener.onAllDataRead();
+					} catch (IOException e) {
+						listener.onError(e);
+					}
+				}
+			};
+		}
+
+		@Override
+		public BufferedReader getReader() {
+			String encoding = getCharacterEncoding();
+			Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+			return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+		}
+	}
+}
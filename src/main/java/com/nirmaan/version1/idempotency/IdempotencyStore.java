@@ -0,0 +1,139 @@
+package com.nirmaan.version1.idempotency;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.nirmaan.version1.config.CacheConfig;
+import com.nirmaan.version1.entity.IdempotencyRecord;
+import com.nirmaan.version1.repository.IdempotencyRecordRepo;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Stored responses for Idempotency-Key requests: the idempotency_keys table,
+ * shared by every node, with completed responses also kept in a local
+ * Caffeine cache so a retry usually costs no query at all.
+ *
+ * A request claims its key with an INSERT before it runs, so only one request
+ * per key is ever processed; it then completes the row with its response, or
+ * abandons it (server error) so the client can retry. A claim that is never
+ * completed (node crash) can be taken over after sams.idempotency.lock-timeout;
+ * completing and abandoning only touch the row of the request's own Claim, so
+ * a request slower than the timeout cannot overwrite or free its successor's.
+ * Rows live for sams.idempotency.ttl and are purged on a schedule; a cached
+ * record past its expiry is not replayed.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+	// Claim attempts before giving up to a concurrent claimer
+	private static final int CLAIM_ATTEMPTS = 3;
+
+	@Autowired
+	private IdempotencyRecordRepo idempotencyRecordRepo;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Value("${sams.idempotency.ttl:24h}")
+	private Duration ttl;
+
+	@Value("${sams.idempotency.lock-timeout:1m}")
+	private Duration lockTimeout;
+
+	/**
+	 * Claim the key for a new request
+	 * @return an owned claim, so the request must run and then be completed or
+	 *         abandoned; otherwise a claim holding the existing record,
+	 *         completed or still in progress
+	 */
+	public Claim claim(String key, String fingerprint) {
+		IdempotencyRecord cached = cache().get(key, IdempotencyRecord.class);
+		if (cached != null && isLive(cached)) {
+			return new Claim(key, fingerprint, null, cached);
+		}
+		if (cached != null) {
+			// The row is expired, so other nodes already treat the key as free
+			cache().evict(key);
+		}
+		IdempotencyRecord existing = null;
+		for (int attempt = 0; attempt < CLAIM_ATTEMPTS; attempt++) {
+			// The column keeps microseconds; the claim is matched on it later
+			LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+			try {
+				idempotencyRecordRepo.insertInProgress(key, fingerprint, now, now.plus(ttl));
+				return new Claim(key, fingerprint, now, null);
+			} catch (DataIntegrityViolationException e) {
+				if (idempotencyRecordRepo.deleteReusable(key, now, now.minus(lockTimeout)) > 0) {
+					log.info("Reclaiming expired or abandoned idempotency key {}", key);
+					continue;
+				}
+				existing = idempotencyRecordRepo.findById(key).orElse(null);
+				if (existing != null) {
+					break;
+				}
+			}
+		}
+		if (existing != null && existing.isCompleted() && isLive(existing)) {
+			cache().put(key, existing);
+		}
+		return new Claim(key, fingerprint, null, existing != null ? existing
+				: IdempotencyRecord.builder().key(key).fingerprint(fingerprint).build());
+	}
+
+	public void complete(Claim claim, int status, String contentType, byte[] body) {
+		if (idempotencyRecordRepo.complete(claim.key(), claim.fingerprint(), claim.claimedAt(), status, contentType,
+				body) == 0) {
+			log.warn("Idempotency key {} was taken over before its request completed; response not stored",
+					claim.key());
+			return;
+		}
+		cache().put(claim.key(), IdempotencyRecord.builder().key(claim.key()).fingerprint(claim.fingerprint())
+				.status(status).contentType(contentType).body(body).createdAt(claim.claimedAt())
+				.expiresAt(claim.claimedAt().plus(ttl)).build());
+	}
+
+	public void abandon(Claim claim) {
+		idempotencyRecordRepo.abandon(claim.key(), claim.fingerprint(), claim.claimedAt());
+	}
+
+	@Scheduled(cron = "${sams.idempotency.purge-cron:0 */15 * * * *}")
+	public void purgeExpired() {
+		int purged = idempotencyRecordRepo.deleteExpired(LocalDateTime.now());
+		if (purged > 0) {
+			log.info("Purged {} expired idempotency keys", purged);
+		}
+	}
+
+	// Cached entries can outlive the record's ttl, so expiry is checked on every hit
+	private static boolean isLive(IdempotencyRecord record) {
+		return record.getExpiresAt() == null || !record.getExpiresAt().isBefore(LocalDateTime.now());
+	}
+
+	private Cache cache() {
+		return Objects.requireNonNull(cacheManager.getCache(CacheConfig.IDEMPOTENT_RESPONSES),
+				CacheConfig.IDEMPOTENT_RESPONSES);
+	}
+
+	/**
+	 * Outcome of claim(): owned by this request (claimedAt set, existing null),
+	 * or held by the existing record
+	 */
+	public record Claim(String key, String fingerprint, LocalDateTime claimedAt, IdempotencyRecord existing) {
+
+		public boolean isOwned() {
+			return existing == null;
+		}
+	}
+}
@@ -0,0 +1,206 @@
+package com.nirmaan.version1.ingestion;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only journal of JournalEntry records in memory-mapped segment files
+ * (journal-&lt;first sequence&gt;.log) of a fixed size, plus a checkpoint file
+ * holding the last sequence written to the database.
+ *
+ * Appends copy the record into the mapped segment; sync() then forces it to
+ * disk. Concurrent syncs are batched: one force covers every record appended
+ * before it started, so callers waiting behind it return without forcing
+ * again. Segments wholly at or below the checkpoint are deleted.
+ *
+ * Opening the journal reads every segment up to the first empty or torn
+ * record and keeps the entries after the checkpoint (recovered()); appends
+ * then go to a new segment. Not thread-safe for checkpoint(), which only the
+ * writer thread calls.
+ */
+@Slf4j
+class AttendanceJournal implements Closeable {
+
+	private static final String SEGMENT_PREFIX = "journal-";
+	private static final String SEGMENT_SUFFIX = ".log";
+	private static final String CHECKPOINT = "checkpoint";
+
+	private final Path dir;
+	private final int segmentSize;
+	private final boolean fsync;
+	private final FileChannel checkpointFile;
+	private final List<JournalEntry> recovered = new ArrayList<>();
+
+	// Segment files by first sequence, guarded by this
+	private final TreeMap<Long, Path> segments = new TreeMap<>();
+	private MappedByteBuffer segment;
+	private int position;
+	private long nextSeq;
+
+	private final Object syncLock = new Object();
+	private volatile long durableSeq;
+
+	/**
+	 * @param segmentSize Bytes per segment file, rounded down to whole records
+	 * @param fsync Force appends and checkpoints to disk (otherwise they survive
+	 *        a process crash but not a power failure)
+	 */
+	AttendanceJournal(Path dir, long segmentSize, boolean fsync) throws IOException {
+		this.dir = Files.createDirectories(dir);
+		this.segmentSize = (int) (Math.min(segmentSize, Integer.MAX_VALUE) / JournalEntry.SIZE * JournalEntry.SIZE);
+		this.fsync = fsync;
+		if (this.segmentSize == 0) {
+			throw new IllegalArgumentException("Journal segment size must hold at least one record");
+		}
+		checkpointFile = FileChannel.open(dir.resolve(CHECKPOINT), StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		ByteBuffer checkpoint = ByteBuffer.allocate(Long.BYTES);
+		long checkpointSeq = checkpointFile.read(checkpoint, 0) == Long.BYTES ? checkpoint.getLong(0) : 0;
+
+		long lastSeq = checkpointSeq;
+		try (Stream<Path> files = Files.list(dir)) {
+			for (Path file : files.filter(AttendanceJournal::isSegment).toList()) {
+				segments.put(firstSeq(file), file);
+			}
+		}
+		for (Path file : segments.values()) {
+			for (JournalEntry entry : read(file)) {
+				lastSeq = Math.max(lastSeq, entry.seq());
+				if (entry.seq() > checkpointSeq) {
+					recovered.add(entry);
+				}
+			}
+		}
+		nextSeq = lastSeq + 1;
+		durableSeq = lastSeq;
+		openSegment();
+		deleteSegmentsUpTo(checkpointSeq);
+		log.info("Attendance journal {} opened: checkpoint {}, {} entries to replay", dir, checkpointSeq,
+				recovered.size());
+	}
+
+	// Entries after the checkpoint found when the journal was opened, in sequence order
+	List<JournalEntry> recovered() {
+		return recovered;
+	}
+
+	/**
+	 * Append the entry under the next sequence number. It is in the page cache
+	 * once this returns and on disk once sync() has returned for its sequence.
+	 */
+	synchronized JournalEntry append(JournalEntry entry) throws IOException {
+		if (position + JournalEntry.SIZE > segmentSize) {
+			segment.force();
+			openSegment();
+		}
+		JournalEntry appended = entry.withSeq(nextSeq++);
+		appended.write(segment, position);
+		position += JournalEntry.SIZE;
+		return appended;
+	}
+
+	// Wait until the entry with this sequence (and every one before it) is on disk
+	void sync(long seq) {
+		if (!fsync || durableSeq >= seq) {
+			return;
+		}
+		synchronized (syncLock) {
+			if (durableSeq >= seq) {
+				return;
+			}
+			long target;
+			MappedByteBuffer current;
+			synchronized (this) {
+				target = nextSeq - 1;
+				current = segment;
+			}
+			// Earlier segments were forced when they filled up
+			current.force();
+			durableSeq = target;
+		}
+	}
+
+	synchronized long lastSeq() {
+		return nextSeq - 1;
+	}
+
+	// Record that every entry up to seq is in the database
+	void checkpoint(long seq) throws IOException {
+		checkpointFile.write(ByteBuffer.allocate(Long.BYTES).putLong(0, seq), 0);
+		if (fsync) {
+			checkpointFile.force(false);
+		}
+		deleteSegmentsUpTo(seq);
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		segment.force();
+		checkpointFile.close();
+	}
+
+	private void openSegment() throws IOException {
+		Path file = dir.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, nextSeq, SEGMENT_SUFFIX));
+		// A file of this name can only hold records that never completed, so it is started over
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+		}
+		segments.put(nextSeq, file);
+		position = 0;
+	}
+
+	// Delete the segments whose entries all have sequence numbers up to seq, never the current one
+	private synchronized void deleteSegmentsUpTo(long seq) {
+		while (segments.size() > 1) {
+			Map.Entry<Long, Path> oldest = segments.firstEntry();
+			if (segments.higherKey(oldest.getKey()) - 1 > seq) {
+				break;
+			}
+			segments.pollFirstEntry();
+			try {
+				Files.deleteIfExists(oldest.getValue());
+			} catch (IOException e) {
+				log.warn("Could not delete journal segment {}: {}", oldest.getValue(), e.getMessage());
+			}
+		}
+	}
+
+	private List<JournalEntry> read(Path file) throws IOException {
+		List<JournalEntry> entries = new ArrayList<>();
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			for (int offset = 0; offset + JournalEntry.SIZE <= buffer.capacity(); offset += JournalEntry.SIZE) {
+				JournalEntry entry = JournalEntry.read(buffer, offset);
+				if (entry == null) {
+					break;
+				}
+				entries.add(entry);
+			}
+		}
+		return entries;
+	}
+
+	private static boolean isSegment(Path file) {
+		String name = file.getFileName().toString();
+		return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+	}
+
+	private static long firstSeq(Path file) {
+		String name = file.getFileName().toString();
+		return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+	}
+}
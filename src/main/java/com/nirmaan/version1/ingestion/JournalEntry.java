@@ -0,0 +1,63 @@
+package com.nirmaan.version1.ingestion;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.CRC32;
+
+import com.nirmaan.version1.entity.Student.AttendanceStatus;
+
+/**
+ * One journaled check-in or checkout: the student's session after the change.
+ * A check-in sets intime and status and clears outtime, a checkout sets
+ * outtime; the other columns are left as they are.
+ *
+ * Stored as a fixed {@value #SIZE}-byte record: type, status, sid, sequence,
+ * time (seconds and nanos of the local date-time) and a CRC32 of the rest. A
+ * zero type marks the unwritten end of a segment.
+ */
+public record JournalEntry(long seq, Type type, int sid, LocalDateTime time, AttendanceStatus status) {
+
+	static final int SIZE = 32;
+
+	public enum Type {
+		CHECK_IN, CHECK_OUT
+	}
+
+	JournalEntry withSeq(long seq) {
+		return new JournalEntry(seq, type, sid, time, status);
+	}
+
+	void write(ByteBuffer buffer, int position) {
+		buffer.put(position, (byte) (type.ordinal() + 1));
+		buffer.put(position + 1, (byte) (status != null ? status.ordinal() + 1 : 0));
+		buffer.putShort(position + 2, (short) 0);
+		buffer.putInt(position + 4, sid);
+		buffer.putLong(position + 8, seq);
+		buffer.putLong(position + 16, time.toEpochSecond(ZoneOffset.UTC));
+		buffer.putInt(position + 24, time.getNano());
+		buffer.putInt(position + 28, crc(buffer, position));
+	}
+
+	/**
+	 * @return the entry at position, or null at the end of the written records
+	 *         (an empty slot, or a record torn by a crash)
+	 */
+	static JournalEntry read(ByteBuffer buffer, int position) {
+		int type = buffer.get(position);
+		if (type < 1 || type > Type.values().length || buffer.getInt(position + 28) != crc(buffer, position)) {
+			return null;
+		}
+		int status = buffer.get(position + 1);
+		LocalDateTime time = LocalDateTime.ofEpochSecond(buffer.getLong(position + 16), buffer.getInt(position + 24),
+				ZoneOffset.UTC);
+		return new JournalEntry(buffer.getLong(position + 8), Type.values()[type - 1], buffer.getInt(position + 4),
+				time, status > 0 ? AttendanceStatus.values()[status - 1] : null);
+	}
+
+	private static int crc(ByteBuffer buffer, int position) {
+		CRC32 crc = new CRC32();
+		crc.update(buffer.slice(position, SIZE - 4));
+		return (int) crc.getValue();
+	}
+}
@@ -0,0 +1,494 @@
+package com.nirmaan.version1.ingestion;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import com.nirmaan.version1.dto.StudentResponse;
+import com.nirmaan.version1.entity.Student;
+import com.nirmaan.version1.entity.Student.AttendanceStatus;
+import com.nirmaan.version1.event.AttendanceChangedEvent;
+import com.nirmaan.version1.event.AttendanceRolloverEvent;
+import com.nirmaan.version1.event.BatchChangedEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Optional write-behind ingestion of check-ins and checkouts
+ * (sams.ingestion.journal.enabled). A change is validated against the
+ * student's state held in memory, appended to the AttendanceJournal, fsynced
+ * together with any concurrent appends, and acknowledged; a single writer
+ * thread then applies journaled changes to the students table in JDBC batches
+ * of up to sams.ingestion.batch-size and checkpoints the journal after each
+ * commit.
+ *
+ * Each student's state is read from the database on the first change after
+ * startup and kept from then on; it is dropped when the student or their batch
+ * is edited, or the day rolls over, and read again on the next change. Until a
+ * change is in the database it is also held in a pending overlay that reads of
+ * the student are mapped through, so a client always reads its own writes.
+ *
+ * The AttendanceChangedEvent for a change is published by the writer with the
+ * batch that writes it, so its after-commit listeners (occupancy board, ETags,
+ * cache eviction) see the row as changed. Operations that write the same rows
+ * directly (student update and delete, the end-of-day rollover) wait for the
+ * journal to drain first.
+ *
+ * At startup any entries left after the last checkpoint (a crash, or a
+ * shutdown with the database unreachable) are written before the application
+ * takes requests, whether or not the mode is still enabled. No events are
+ * published for them; the board, bitmaps and caches are loaded from the
+ * database once the application is up.
+ */
+@Slf4j
+@Component
+public class WriteBehindIngestion {
+
+	private static final String UPDATE_STUDENT = "UPDATE students SET intime = COALESCE(?, intime), outtime = ?, "
+			+ "status = COALESCE(?, status), updated_at = ? WHERE sid = ?";
+
+	// Per-student locks, so a student's changes are validated and journaled one at a time
+	private static final int STRIPES = 64;
+
+	// Drained overlay entries are kept this long for reads that loaded the row just before the write committed
+	private static final long RETAIN_DRAINED_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+	private static final long RETRY_DELAY_MILLIS = 1000;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Value("${sams.ingestion.journal.enabled:false}")
+	private boolean enabled;
+
+	@Value("${sams.ingestion.journal.dir:data/journal}")
+	private Path dir;
+
+	@Value("${sams.ingestion.journal.segment-size:64MB}")
+	private DataSize segmentSize;
+
+	@Value("${sams.ingestion.journal.fsync:true}")
+	private boolean fsync;
+
+	@Value("${sams.ingestion.batch-size:500}")
+	private int batchSize;
+
+	// Journaled but unwritten changes; a full queue blocks check-ins until the writer catches up
+	@Value("${sams.ingestion.queue-capacity:50000}")
+	private int queueCapacity;
+
+	@Value("${sams.ingestion.flush-timeout:10s}")
+	private Duration flushTimeout;
+
+	private final Object[] stripes = new Object[STRIPES];
+	// Latest state of each student changed since startup (detached, batch loaded), guarded by the student's stripe
+	private final Map<Integer, Student> state = new ConcurrentHashMap<>();
+	private final Map<Integer, Pending> pending = new ConcurrentHashMap<>();
+	private final ConcurrentLinkedQueue<Drained> drained = new ConcurrentLinkedQueue<>();
+	private final Object drainedSignal = new Object();
+	// Held from taking a sequence number until the entry is queued
+	private final Object appendLock = new Object();
+
+	private AttendanceJournal journal;
+	private BlockingQueue<Queued> queue;
+	private Thread writer;
+	private volatile boolean running;
+	private volatile long appendedSeq;
+	private volatile long drainedSeq;
+	// Oldest entry the writer has taken but not yet committed
+	private volatile JournalEntry writing;
+
+	private Timer batchTimer;
+	private Counter written;
+
+	public WriteBehindIngestion() {
+		for (int i = 0; i < STRIPES; i++) {
+			stripes[i] = new Object();
+		}
+	}
+
+	@PostConstruct
+	void start() throws IOException {
+		if (!enabled && !dir.toFile().isDirectory()) {
+			return;
+		}
+		journal = new AttendanceJournal(dir, segmentSize.toBytes(), fsync);
+		List<JournalEntry> recovered = journal.recovered();
+		if (!recovered.isEmpty()) {
+			log.warn("Replaying {} journaled attendance changes into the database", recovered.size());
+			for (int from = 0; from < recovered.size(); from += batchSize) {
+				List<JournalEntry> batch = recovered.subList(from, Math.min(from + batchSize, recovered.size()));
+				transactionTemplate.executeWithoutResult(tx -> update(batch));
+				journal.checkpoint(batch.get(batch.size() - 1).seq());
+			}
+		}
+		appendedSeq = drainedSeq = journal.lastSeq();
+		if (!enabled) {
+			journal.close();
+			journal = null;
+			return;
+		}
+
+		queue = new LinkedBlockingQueue<>(queueCapacity);
+		batchTimer = Timer.builder("sams.ingestion.batch").description("Time to write one batch of journaled changes")
+				.register(meterRegistry);
+		written = Counter.builder("sams.ingestion.written").description("Journaled changes written to the database")
+				.register(meterRegistry);
+		Gauge.builder("sams.ingestion.lag", this, WriteBehindIngestion::lag)
+				.description("Journaled changes not yet written to the database").register(meterRegistry);
+		Gauge.builder("sams.ingestion.lag.seconds", this, WriteBehindIngestion::lagSeconds)
+				.description("Age of the oldest journaled change not yet written to the database")
+				.register(meterRegistry);
+
+		running = true;
+		writer = new Thread(this::drainLoop, "attendance-journal-writer");
+		writer.setDaemon(true);
+		writer.start();
+		log.info("Write-behind attendance ingestion enabled, journal in {}", dir.toAbsolutePath());
+	}
+
+	@PreDestroy
+	void stop() throws IOException, InterruptedException {
+		if (writer == null) {
+			return;
+		}
+		running = false;
+		writer.join(flushTimeout.toMillis());
+		if (lag() > 0) {
+			log.warn("{} journaled attendance changes not written at shutdown; they are replayed at next startup",
+					lag());
+		}
+		journal.close();
+	}
+
+	public boolean isEnabled() {
+		return journal != null;
+	}
+
+	/**
+	 * Journal a check-in or checkout
+	 * @param sid Student ID
+	 * @param loader Loads the student with their batch from the database; called
+	 *        under the student's lock, only when their state is not in memory
+	 * @param type Journal entry type
+	 * @param change Validates the change against the student (throwing to
+	 *        reject it) and applies it
+	 * @param mapper Maps the changed student to the response, which the
+	 *        AttendanceChangedEvent published once it is written also carries
+	 * @return The student with the change applied, durable in the journal
+	 */
+	public StudentResponse apply(Integer sid, Supplier<Student> loader, JournalEntry.Type type,
+			Consumer<Student> change, Function<Student, StudentResponse> mapper) {
+		boolean checkIn = type == JournalEntry.Type.CHECK_IN;
+		JournalEntry entry;
+		StudentResponse response;
+		synchronized (stripe(sid)) {
+			Student known = state.get(sid);
+			if (known == null) {
+				// Read the overlay before the row: once it is gone, the row is at least as new
+				Pending current = pending.get(sid);
+				known = overlay(loader.get(), current);
+			}
+			Student student = copy(known);
+			change.accept(student);
+			// The database keeps microseconds; the response and later reads agree with it
+			LocalDateTime time = (checkIn ? student.getIntime() : student.getOuttime()).truncatedTo(ChronoUnit.MICROS);
+			if (checkIn) {
+				student.setIntime(time);
+			} else {
+				student.setOuttime(time);
+			}
+			student.setUpdatedAt(time);
+			response = mapper.apply(student);
+			AttendanceChangedEvent event = new AttendanceChangedEvent(checkIn ? AttendanceChangedEvent.Type.CHECKED_IN
+					: AttendanceChangedEvent.Type.CHECKED_OUT, response);
+			// Queued in sequence order, so a checkpoint never passes an entry that is not yet written
+			synchronized (appendLock) {
+				try {
+					entry = journal.append(new JournalEntry(0, type, sid, time, checkIn ? student.getStatus() : null));
+				} catch (IOException e) {
+					throw new UncheckedIOException("Could not append to the attendance journal", e);
+				}
+				enqueue(new Queued(entry, event));
+				appendedSeq = entry.seq();
+			}
+			pending.put(sid, new Pending(entry.seq(), time, student.getIntime(), student.getOuttime(),
+					student.getStatus()));
+			state.put(sid, student);
+		}
+		journal.sync(entry.seq());
+		return response;
+	}
+
+	// A journaled entry must reach the writer, so an interrupt only takes effect once it is queued
+	private void enqueue(Queued queued) {
+		boolean interrupted = false;
+		while (true) {
+			try {
+				queue.put(queued);
+				break;
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * The student with any journaled change not yet in the database applied
+	 * @return the same instance when nothing is pending, otherwise a detached copy
+	 */
+	public Student current(Student student) {
+		Pending current = student.getSid() != null ? pending.get(student.getSid()) : null;
+		return current != null && isNewer(current, student) ? overlay(student, current) : student;
+	}
+
+	// Wait until every change journaled so far is in the database
+	public void awaitDrained() {
+		awaitDrained(appendedSeq);
+	}
+
+	// Wait until the student's journaled changes are in the database
+	public void awaitDrained(Integer sid) {
+		Pending current = pending.get(sid);
+		if (current != null) {
+			awaitDrained(current.seq());
+		}
+	}
+
+	// Edits and removals are written directly; the student is read again on their next change
+	@TransactionalEventListener
+	public void onAttendanceChanged(AttendanceChangedEvent event) {
+		if (event.getType() == AttendanceChangedEvent.Type.UPDATED
+				|| event.getType() == AttendanceChangedEvent.Type.REMOVED) {
+			synchronized (stripe(event.getSid())) {
+				state.remove(event.getSid());
+			}
+		}
+	}
+
+	// The states carry the batch name and code, and a deleted batch unassigns its students
+	@TransactionalEventListener
+	public void onBatchChanged(BatchChangedEvent event) {
+		if (event.getType() != BatchChangedEvent.Type.CREATED) {
+			forget(student -> student.getBatch() != null
+					&& Objects.equals(student.getBatch().getBatchId(), event.getBatchId()));
+		}
+	}
+
+	// Published after the rollover's chunks have committed
+	@EventListener
+	public void onRollover(AttendanceRolloverEvent event) {
+		forget(student -> true);
+	}
+
+	private void awaitDrained(long seq) {
+		if (!isEnabled() || drainedSeq >= seq) {
+			return;
+		}
+		long deadline = System.nanoTime() + flushTimeout.toNanos();
+		synchronized (drainedSignal) {
+			while (drainedSeq < seq) {
+				long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+				if (remaining <= 0) {
+					throw new IllegalStateException("Journaled attendance changes were not written within "
+							+ flushTimeout + " (database unavailable?)");
+				}
+				try {
+					drainedSignal.wait(remaining);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IllegalStateException("Interrupted waiting for the attendance journal", e);
+				}
+			}
+		}
+	}
+
+	private void drainLoop() {
+		List<Queued> batch = new ArrayList<>(batchSize);
+		while (running || !queue.isEmpty() || !batch.isEmpty()) {
+			try {
+				if (batch.isEmpty()) {
+					Queued first = queue.poll(100, TimeUnit.MILLISECONDS);
+					if (first == null) {
+						prune();
+						continue;
+					}
+					batch.add(first);
+					queue.drainTo(batch, batchSize - 1);
+					writing = first.entry();
+				}
+				batchTimer.record(() -> write(batch));
+				long seq = batch.get(batch.size() - 1).entry().seq();
+				journal.checkpoint(seq);
+				written.increment(batch.size());
+				long now = System.nanoTime();
+				batch.forEach(queued -> drained.add(new Drained(queued.entry().sid(), queued.entry().seq(), now)));
+				writing = null;
+				batch.clear();
+				synchronized (drainedSignal) {
+					drainedSeq = seq;
+					drainedSignal.notifyAll();
+				}
+				prune();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (Exception e) {
+				// The batch is kept and retried; nothing is checkpointed past it
+				log.error("Could not write {} journaled attendance changes, retrying: {}", batch.size(),
+						e.getMessage());
+				if (!running) {
+					return;
+				}
+				try {
+					Thread.sleep(RETRY_DELAY_MILLIS);
+				} catch (InterruptedException interrupted) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+	}
+
+	// Events published in the transaction reach the after-commit listeners once the batch is in the database
+	private void write(List<Queued> batch) {
+		transactionTemplate.executeWithoutResult(tx -> {
+			int[] counts = update(batch.stream().map(Queued::entry).toList());
+			for (int i = 0; i < batch.size(); i++) {
+				// A student deleted after the change was journaled has no row to update
+				if (counts[i] != 0) {
+					eventPublisher.publishEvent(batch.get(i).event());
+				}
+			}
+		});
+	}
+
+	// One statement for both types keeps each student's changes in journal order within a batch
+	private int[] update(List<JournalEntry> entries) {
+		return jdbcTemplate.batchUpdate(UPDATE_STUDENT, entries, entries.size(), (ps, entry) -> {
+			Timestamp time = Timestamp.valueOf(entry.time());
+			boolean checkIn = entry.type() == JournalEntry.Type.CHECK_IN;
+			ps.setObject(1, checkIn ? time : null, Types.TIMESTAMP);
+			ps.setObject(2, checkIn ? null : time, Types.TIMESTAMP);
+			ps.setObject(3, entry.status() != null ? entry.status().name() : null, Types.VARCHAR);
+			ps.setTimestamp(4, time);
+			ps.setInt(5, entry.sid());
+		})[0];
+	}
+
+	// Drop the in-memory states that match, taking each stripe so no change in flight puts one back
+	private void forget(Predicate<Student> which) {
+		for (int i = 0; i < STRIPES; i++) {
+			int stripe = i;
+			synchronized (stripes[stripe]) {
+				state.entrySet().removeIf(entry -> Math.floorMod(entry.getKey(), STRIPES) == stripe
+						&& which.test(entry.getValue()));
+			}
+		}
+	}
+
+	private Object stripe(Integer sid) {
+		return stripes[Math.floorMod(sid, STRIPES)];
+	}
+
+	// Drop overlay entries that have been in the database for a while, unless replaced by a newer change
+	private void prune() {
+		long now = System.nanoTime();
+		Drained oldest;
+		while ((oldest = drained.peek()) != null && now - oldest.drainedAt() > RETAIN_DRAINED_NANOS) {
+			drained.poll();
+			Drained entry = oldest;
+			pending.computeIfPresent(entry.sid(), (sid, current) -> current.seq() == entry.seq() ? null : current);
+		}
+	}
+
+	private long lag() {
+		return appendedSeq - drainedSeq;
+	}
+
+	private double lagSeconds() {
+		Queued queued = queue.peek();
+		JournalEntry oldest = writing != null ? writing : queued != null ? queued.entry() : null;
+		return oldest != null ? Math.max(0, Duration.between(oldest.time(), LocalDateTime.now()).toMillis() / 1000.0)
+				: 0;
+	}
+
+	// A row written after the journaled change (rollover, update) wins over the overlay
+	private static boolean isNewer(Pending current, Student stored) {
+		return stored.getUpdatedAt() == null || current.time().isAfter(stored.getUpdatedAt());
+	}
+
+	private static Student overlay(Student stored, Pending current) {
+		Student copy = copy(stored);
+		if (current != null && isNewer(current, stored)) {
+			copy.setIntime(current.intime());
+			copy.setOuttime(current.outtime());
+			copy.setStatus(current.status());
+			copy.setUpdatedAt(current.time());
+		}
+		return copy;
+	}
+
+	private static Student copy(Student student) {
+		return Student.builder().sid(student.getSid()).sname(student.getSname()).email(student.getEmail())
+				.phone(student.getPhone()).rollNumber(student.getRollNumber()).intime(student.getIntime())
+				.outtime(student.getOuttime()).createdAt(student.getCreatedAt()).updatedAt(student.getUpdatedAt())
+				.status(student.getStatus()).batch(student.getBatch()).build();
+	}
+
+	private record Queued(JournalEntry entry, AttendanceChangedEvent event) {
+	}
+
+	private record Pending(long seq, LocalDateTime time, LocalDateTime intime, LocalDateTime outtime,
+			AttendanceStatus status) {
+	}
+
+	private record Drained(int sid, long seq, long drainedAt) {
+	}
+}
@@ -0,0 +1,43 @@
+package com.nirmaan.version1.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning one check-in or check-out, including the wait for the
+ * student row lock.
+ */
+@Name("com.nirmaan.sams.Attendance")
+@Label("Attendance")
+@Description("Student check-in or check-out")
+@Category({ "SAMS", "Attendance" })
+@StackTrace(false)
+public class AttendanceEvent extends jdk.jfr.Event {
+
+	public static final String CHECK_IN = "CHECK_IN";
+	public static final String CHECK_OUT = "CHECK_OUT";
+
+	@Label("Operation")
+	public String operation;
+
+	@Label("Student ID")
+	public int sid;
+
+	@Label("Batch ID")
+	public int batchId;
+
+	@Label("Outcome")
+	@Description("Resulting attendance status, CHECKED_OUT, or the exception that rejected the request")
+	public String outcome;
+
+	public static AttendanceEvent begin(String operation, Integer sid) {
+		AttendanceEvent event = new AttendanceEvent();
+		event.operation = operation;
+		event.sid = sid != null ? sid : 0;
+		event.begin();
+		return event;
+	}
+}
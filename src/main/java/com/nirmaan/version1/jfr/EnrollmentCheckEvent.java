@@ -0,0 +1,45 @@
+package com.nirmaan.version1.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning the batch capacity check of an enrollment: waiting for
+ * the batch row lock, counting the roster and inserting the student.
+ */
+@Name("com.nirmaan.sams.EnrollmentCheck")
+@Label("Enrollment Capacity Check")
+@Description("Batch lock, capacity check and insert for a new student")
+@Category({ "SAMS", "Enrollment" })
+@StackTrace(false)
+public class EnrollmentCheckEvent extends jdk.jfr.Event {
+
+	public static final String ADMITTED = "ADMITTED";
+	public static final String BATCH_FULL = "BATCH_FULL";
+
+	@Label("Student ID")
+	@Description("Assigned student ID, 0 if the student was not created")
+	public int sid;
+
+	@Label("Batch ID")
+	public int batchId;
+
+	@Label("Enrolled Count")
+	public int currentCount;
+
+	@Label("Max Count")
+	public int maxCount;
+
+	@Label("Outcome")
+	public String outcome;
+
+	public static EnrollmentCheckEvent begin(Integer batchId) {
+		EnrollmentCheckEvent event = new EnrollmentCheckEvent();
+		event.batchId = batchId;
+		event.begin();
+		return event;
+	}
+}
@@ -0,0 +1,37 @@
+package com.nirmaan.version1.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning JWT validation and user lookup for one request that
+ * carries a bearer token.
+ */
+@Name("com.nirmaan.sams.JwtValidation")
+@Label("JWT Validation")
+@Category({ "SAMS", "Security" })
+@StackTrace(false)
+public class JwtValidationEvent extends jdk.jfr.Event {
+
+	public static final String AUTHENTICATED = "AUTHENTICATED";
+	public static final String INVALID_TOKEN = "INVALID_TOKEN";
+	public static final String ERROR = "ERROR";
+
+	@Label("Request URI")
+	public String uri;
+
+	@Label("Username")
+	public String username;
+
+	@Label("Outcome")
+	public String outcome;
+
+	public static JwtValidationEvent begin(String uri) {
+		JwtValidationEvent event = new JwtValidationEvent();
+		event.uri = uri;
+		event.begin();
+		return event;
+	}
+}
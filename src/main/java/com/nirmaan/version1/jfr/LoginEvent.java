@@ -0,0 +1,35 @@
+package com.nirmaan.version1.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning a username/password login, including password hashing.
+ */
+@Name("com.nirmaan.sams.Login")
+@Label("Login")
+@Category({ "SAMS", "Security" })
+@StackTrace(false)
+public class LoginEvent extends jdk.jfr.Event {
+
+	public static final String SUCCESS = "SUCCESS";
+	public static final String BAD_CREDENTIALS = "BAD_CREDENTIALS";
+
+	@Label("Username")
+	public String username;
+
+	@Label("User ID")
+	public int userId;
+
+	@Label("Outcome")
+	public String outcome;
+
+	public static LoginEvent begin(String username) {
+		LoginEvent event = new LoginEvent();
+		event.username = username;
+		event.begin();
+		return event;
+	}
+}
@@ -0,0 +1,77 @@
+package com.nirmaan.version1.metrics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.nirmaan.version1.entity.Student.AttendanceStatus;
+import com.nirmaan.version1.occupancy.OccupancyBoard;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Domain meters for attendance and enrollment.
+ *
+ * Check-ins are exported as a counter; check-ins per minute is
+ * rate(sams_attendance_checkins_total[1m]) * 60 on the Prometheus side.
+ * Counters that depend on a database write are incremented after commit so a
+ * rolled-back check-in is never counted. The checked-in gauge reads the
+ * occupancy board.
+ */
+@Component
+public class AttendanceMetrics {
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private OccupancyBoard occupancyBoard;
+
+	private Counter lateArrivals;
+	private Counter rejectedEnrollments;
+
+	@PostConstruct
+	void registerMeters() {
+		Gauge.builder("sams.attendance.checked_in", occupancyBoard, OccupancyBoard::checkedInCount)
+				.description("Students currently checked in").register(meterRegistry);
+		lateArrivals = Counter.builder("sams.attendance.late_arrivals")
+				.description("Check-ins after the 9 AM cut-off").register(meterRegistry);
+		rejectedEnrollments = Counter.builder("sams.enrollment.rejected").tag("reason", "batch_full")
+				.description("Enrollments and transfers rejected because the batch was full")
+				.register(meterRegistry);
+	}
+
+	public void recordCheckIn(AttendanceStatus status) {
+		afterCommit(() -> {
+			meterRegistry.counter("sams.attendance.checkins", "status", status.name()).increment();
+			if (status == AttendanceStatus.LATE) {
+				lateArrivals.increment();
+			}
+		});
+	}
+
+	public void recordCheckOut() {
+		afterCommit(() -> meterRegistry.counter("sams.attendance.checkouts").increment());
+	}
+
+	public void recordRejectedEnrollment() {
+		rejectedEnrollments.increment();
+	}
+
+	private void afterCommit(Runnable action) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			action.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				action.run();
+			}
+		});
+	}
+}
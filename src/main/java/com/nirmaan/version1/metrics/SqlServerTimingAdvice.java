@@ -0,0 +1,34 @@
+package com.nirmaan.version1.metrics;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Writes the Server-Timing header just before the response body is
+ * serialized, when all service work for the request has finished but the
+ * response is not yet committed.
+ */
+@ControllerAdvice
+public class SqlServerTimingAdvice implements ResponseBodyAdvice<Object> {
+
+	@Override
+	public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+		return true;
+	}
+
+	@Override
+	public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+			Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+			ServerHttpResponse response) {
+		SqlStatementStats stats = SqlStatementStats.current();
+		if (stats != null) {
+			response.getHeaders().set(SqlStatementFilter.SERVER_TIMING, stats.toServerTiming());
+		}
+		return body;
+	}
+}
@@ -0,0 +1,84 @@
+package com.nirmaan.version1.metrics;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Counts the SQL statements each HTTP request executes, including the ones run
+ * by the security filters, and reports them as a Server-Timing header and as
+ * per-endpoint metrics. Requests above the configured threshold are logged so
+ * N+1 patterns show up before they become slow.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class SqlStatementFilter extends OncePerRequestFilter {
+
+	public static final String SERVER_TIMING = "Server-Timing";
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${sams.sql.statement-warn-threshold:20}")
+	private int warnThreshold;
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		SqlStatementStats stats = SqlStatementStats.start();
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			SqlStatementStats.clear();
+			// Controllers get the header from SqlServerTimingAdvice before the body is written
+			if (!response.isCommitted() && !response.containsHeader(SERVER_TIMING)) {
+				response.setHeader(SERVER_TIMING, stats.toServerTiming());
+			}
+			record(request, stats);
+		}
+	}
+
+	/**
+	 * Write the header now, for handlers that commit the response themselves
+	 * (SSE and other streaming responses) before this filter regains control.
+	 */
+	public static void writeServerTiming(HttpServletResponse response) {
+		SqlStatementStats stats = SqlStatementStats.current();
+		if (stats != null && !response.isCommitted()) {
+			response.setHeader(SERVER_TIMING, stats.toServerTiming());
+		}
+	}
+
+	private void record(HttpServletRequest request, SqlStatementStats stats) {
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+		String method = request.getMethod();
+
+		DistributionSummary.builder("sams.http.sql.statements").baseUnit("statements")
+				.tags("method", method, "uri", uri).register(meterRegistry).record(stats.getStatements());
+		Timer.builder("sams.http.sql.time").tags("method", method, "uri", uri).register(meterRegistry)
+				.record(stats.getNanos(), TimeUnit.NANOSECONDS);
+
+		if (stats.getStatements() > warnThreshold) {
+			log.warn("{} {} executed {} SQL statements in {} ms (threshold {})", method, uri,
+					stats.getStatements(), stats.getNanos() / 1_000_000, warnThreshold);
+		}
+	}
+}
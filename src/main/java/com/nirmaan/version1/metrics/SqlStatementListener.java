@@ -0,0 +1,32 @@
+package com.nirmaan.version1.metrics;
+
+import java.util.List;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+/**
+ * Adds every JDBC execution (one round trip, so a JDBC batch counts once) to
+ * the statement stats of the request running on this thread.
+ */
+public class SqlStatementListener implements QueryExecutionListener {
+
+	private static final String START_NANOS = "sams.startNanos";
+
+	@Override
+	public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		if (SqlStatementStats.current() != null) {
+			execInfo.addCustomValue(START_NANOS, System.nanoTime());
+		}
+	}
+
+	@Override
+	public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		SqlStatementStats stats = SqlStatementStats.current();
+		Long start = execInfo.getCustomValue(START_NANOS, Long.class);
+		if (stats != null && start != null) {
+			stats.record(System.nanoTime() - start);
+		}
+	}
+}
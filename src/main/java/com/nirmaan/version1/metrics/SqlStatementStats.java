@@ -0,0 +1,57 @@
+package com.nirmaan.version1.metrics;
+
+import java.util.Locale;
+
+/**
+ * JDBC statement count and cumulative execution time for the current request.
+ *
+ * Bound to the request thread by SqlStatementFilter and fed by
+ * SqlStatementListener. Work done on other threads (async tasks, scheduled
+ * jobs) is not attributed to any request.
+ */
+public final class SqlStatementStats {
+
+	private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+	private int statements;
+	private long nanos;
+
+	private SqlStatementStats() {
+	}
+
+	// Start collecting for the current thread
+	public static SqlStatementStats start() {
+		SqlStatementStats stats = new SqlStatementStats();
+		CURRENT.set(stats);
+		return stats;
+	}
+
+	// Stats bound to the current thread, or null outside a request
+	public static SqlStatementStats current() {
+		return CURRENT.get();
+	}
+
+	public static void clear() {
+		CURRENT.remove();
+	}
+
+	void record(long elapsedNanos) {
+		statements++;
+		nanos += elapsedNanos;
+	}
+
+	public int getStatements() {
+		return statements;
+	}
+
+	public long getNanos() {
+		return nanos;
+	}
+
+	/**
+	 * Server-Timing header value, e.g. db;dur=3.2;desc="4 statements"
+	 */
+	public String toServerTiming() {
+		return String.format(Locale.ROOT, "db;dur=%.1f;desc=\"%d statements\"", nanos / 1_000_000.0, statements);
+	}
+}
@@ -0,0 +1,114 @@
+package com.nirmaan.version1.occupancy;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntConsumer;
+
+/**
+ * Lock-free bitset over non-negative int keys (student ids).
+ *
+ * Bits live in fixed 64K-bit segments that are allocated on first use with a
+ * CAS, so the set never has to be copied to grow and a concurrent set() can
+ * never be lost to a resize. Every update is a CAS on a single 64-bit word;
+ * set() and clear() report whether they flipped the bit, which lets callers
+ * keep counters exact without a lock.
+ */
+public class ConcurrentBitSet {
+
+	private static final int SEGMENT_SHIFT = 16;
+	private static final int SEGMENT_BITS = 1 << SEGMENT_SHIFT;
+	private static final int WORDS_PER_SEGMENT = SEGMENT_BITS / Long.SIZE;
+
+	private final AtomicReferenceArray<AtomicLongArray> segments = new AtomicReferenceArray<>(
+			(Integer.MAX_VALUE >>> SEGMENT_SHIFT) + 1);
+
+	private final AtomicInteger cardinality = new AtomicInteger();
+
+	/**
+	 * @return true if the bit was clear before this call
+	 */
+	public boolean set(int bit) {
+		AtomicLongArray words = segment(bit, true);
+		int index = wordIndex(bit);
+		long mask = 1L << bit;
+		long word;
+		do {
+			word = words.get(index);
+			if ((word & mask) != 0) {
+				return false;
+			}
+		} while (!words.compareAndSet(index, word, word | mask));
+		cardinality.incrementAndGet();
+		return true;
+	}
+
+	/**
+	 * @return true if the bit was set before this call
+	 */
+	public boolean clear(int bit) {
+		AtomicLongArray words = segment(bit, false);
+		if (words == null) {
+			return false;
+		}
+		int index = wordIndex(bit);
+		long mask = 1L << bit;
+		long word;
+		do {
+			word = words.get(index);
+			if ((word & mask) == 0) {
+				return false;
+			}
+		} while (!words.compareAndSet(index, word, word & ~mask));
+		cardinality.decrementAndGet();
+		return true;
+	}
+
+	public boolean get(int bit) {
+		AtomicLongArray words = segment(bit, false);
+		return words != null && (words.get(wordIndex(bit)) & (1L << bit)) != 0;
+	}
+
+	public int cardinality() {
+		return cardinality.get();
+	}
+
+	/**
+	 * Visit set bits in ascending order. Bits flipped during the walk may or may
+	 * not be seen, as with any weakly consistent iterator.
+	 */
+	public void forEach(IntConsumer action) {
+		for (int s = 0; s < segments.length(); s++) {
+			AtomicLongArray words = segments.get(s);
+			if (words == null) {
+				continue;
+			}
+			int base = s << SEGMENT_SHIFT;
+			for (int w = 0; w < WORDS_PER_SEGMENT; w++) {
+				long word = words.get(w);
+				while (word != 0) {
+					int bit = Long.numberOfTrailingZeros(word);
+					action.accept(base + w * Long.SIZE + bit);
+					word &= word - 1;
+				}
+			}
+		}
+	}
+
+	private AtomicLongArray segment(int bit, boolean create) {
+		if (bit < 0) {
+			throw new IndexOutOfBoundsException("bit < 0: " + bit);
+		}
+		int s = bit >>> SEGMENT_SHIFT;
+		AtomicLongArray words = segments.get(s);
+		if (words == null && create) {
+			segments.compareAndSet(s, null, new AtomicLongArray(WORDS_PER_SEGMENT));
+			words = segments.get(s);
+		}
+		return words;
+	}
+
+	private static int wordIndex(int bit) {
+		return (bit & (SEGMENT_BITS - 1)) >>> 6;
+	}
+}
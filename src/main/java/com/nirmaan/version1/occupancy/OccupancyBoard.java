@@ -0,0 +1,242 @@
+package com.nirmaan.version1.occupancy;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.nirmaan.version1.dto.StudentResponse;
+import com.nirmaan.version1.event.AttendanceChangedEvent;
+import com.nirmaan.version1.event.BatchChangedEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory view of who is checked in right now and who has been present
+ * today, so the occupancy endpoints never touch the database.
+ *
+ * Two {@link ConcurrentBitSet}s keyed by sid hold the membership; per-batch
+ * counters move only when a bit actually flips, so replaying an event is
+ * harmless. Committed changes arrive as {@link AttendanceChangedEvent}s after
+ * commit. StudentService rebuilds the board from the database at startup and
+ * at midnight.
+ */
+@Component
+@Slf4j
+public class OccupancyBoard {
+
+	// Starts stale so the first read after boot rebuilds if startup has not yet
+	private volatile Day current = new Day(LocalDate.MIN);
+
+	// Events seen while a rebuild is loading, replayed onto the new board
+	private volatile Queue<AttendanceChangedEvent> replay;
+
+	public boolean isStale(LocalDate today) {
+		return !current.date.equals(today);
+	}
+
+	/**
+	 * Replace the board with one loaded from {@code loader}, which must return
+	 * every student who is checked in or was present on {@code today}.
+	 *
+	 * Events published while the loader runs are applied to the old board and
+	 * queued; once the new board is swapped in they are replayed onto it. Any
+	 * commit that happened before the queue opened is already in the loader's
+	 * read, so nothing is lost.
+	 */
+	public synchronized void rebuild(LocalDate today, Supplier<Collection<StudentResponse>> loader) {
+		Queue<AttendanceChangedEvent> pending = new ConcurrentLinkedQueue<>();
+		replay = pending;
+		Day fresh = new Day(today);
+		try {
+			loader.get().forEach(fresh::load);
+			current = fresh;
+			drain(pending, fresh);
+		} finally {
+			replay = null;
+		}
+		// Picks up events queued between the first drain and closing the queue
+		drain(pending, fresh);
+		log.info("Occupancy board rebuilt for {}: {} checked in, {} present today", today,
+				fresh.checkedIn.cardinality(), fresh.present.cardinality());
+	}
+
+	// Before BatchCacheInvalidator, so a summary recomputed right after eviction sees this change
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	@TransactionalEventListener
+	public void onAttendanceChanged(AttendanceChangedEvent event) {
+		Queue<AttendanceChangedEvent> pending = replay;
+		if (pending != null) {
+			pending.add(event);
+		}
+		current.apply(event);
+	}
+
+	// Keep batch names on the snapshots in step with renames
+	@TransactionalEventListener
+	public void onBatchChanged(BatchChangedEvent event) {
+		if (event.getType() != BatchChangedEvent.Type.UPDATED) {
+			return;
+		}
+		current.students.replaceAll((sid, student) -> Objects.equals(student.getBatchId(), event.getBatchId())
+				? student.toBuilder().batchName(event.getBatch().getBatchName())
+						.batchCode(event.getBatch().getBatchCode()).build()
+				: student);
+	}
+
+	// Students checked in and not yet checked out, ordered by sid
+	public List<StudentResponse> checkedIn() {
+		Day day = current;
+		return day.list(day.checkedIn);
+	}
+
+	// Students who checked in at any point today, ordered by sid
+	public List<StudentResponse> presentToday() {
+		Day day = current;
+		return day.list(day.present);
+	}
+
+	public int checkedInCount() {
+		return current.checkedIn.cardinality();
+	}
+
+	public int presentCount() {
+		return current.present.cardinality();
+	}
+
+	public int presentInBatch(Integer batchId) {
+		return count(current.presentByBatch, batchId);
+	}
+
+	public int checkedInInBatch(Integer batchId) {
+		return count(current.checkedInByBatch, batchId);
+	}
+
+	private static int count(Map<Integer, AtomicInteger> counters, Integer batchId) {
+		AtomicInteger counter = counters.get(batchId);
+		return counter != null ? counter.get() : 0;
+	}
+
+	private static void drain(Queue<AttendanceChangedEvent> pending, Day day) {
+		AttendanceChangedEvent event;
+		while ((event = pending.poll()) != null) {
+			day.apply(event);
+		}
+	}
+
+	private static final class Day {
+
+		private final LocalDate date;
+		private final ConcurrentBitSet checkedIn = new ConcurrentBitSet();
+		private final ConcurrentBitSet present = new ConcurrentBitSet();
+		private final Map<Integer, AtomicInteger> checkedInByBatch = new ConcurrentHashMap<>();
+		private final Map<Integer, AtomicInteger> presentByBatch = new ConcurrentHashMap<>();
+
+		// Latest snapshot of every student in either set
+		private final Map<Integer, StudentResponse> students = new ConcurrentHashMap<>();
+
+		private Day(LocalDate date) {
+			this.date = date;
+		}
+
+		private void load(StudentResponse student) {
+			boolean presentToday = student.getIntime() != null && student.getIntime().toLocalDate().equals(date);
+			if (!presentToday && !student.isCheckedIn()) {
+				return;
+			}
+			students.put(student.getSid(), student);
+			if (presentToday && present.set(student.getSid())) {
+				increment(presentByBatch, student.getBatchId());
+			}
+			if (student.isCheckedIn() && checkedIn.set(student.getSid())) {
+				increment(checkedInByBatch, student.getBatchId());
+			}
+		}
+
+		private void apply(AttendanceChangedEvent event) {
+			int sid = event.getSid();
+			switch (event.getType()) {
+			case CHECKED_IN -> {
+				students.put(sid, event.getStudent());
+				if (present.set(sid)) {
+					increment(presentByBatch, event.getBatchId());
+				}
+				if (checkedIn.set(sid)) {
+					increment(checkedInByBatch, event.getBatchId());
+				}
+			}
+			case CHECKED_OUT -> {
+				if (checkedIn.clear(sid)) {
+					decrement(checkedInByBatch, event.getBatchId());
+				}
+				// A session carried over from an earlier day leaves the board entirely
+				if (present.get(sid)) {
+					students.put(sid, event.getStudent());
+				} else {
+					students.remove(sid);
+				}
+			}
+			case UPDATED -> {
+				if (students.replace(sid, event.getStudent()) != null
+						&& !Objects.equals(event.getPreviousBatchId(), event.getBatchId())) {
+					if (present.get(sid)) {
+						decrement(presentByBatch, event.getPreviousBatchId());
+						increment(presentByBatch, event.getBatchId());
+					}
+					if (checkedIn.get(sid)) {
+						decrement(checkedInByBatch, event.getPreviousBatchId());
+						increment(checkedInByBatch, event.getBatchId());
+					}
+				}
+			}
+			case REMOVED -> {
+				if (present.clear(sid)) {
+					decrement(presentByBatch, event.getBatchId());
+				}
+				if (checkedIn.clear(sid)) {
+					decrement(checkedInByBatch, event.getBatchId());
+				}
+				students.remove(sid);
+			}
+			case ENROLLED -> {
+				// A new student is neither present nor checked in
+			}
+			}
+		}
+
+		private List<StudentResponse> list(ConcurrentBitSet bits) {
+			List<StudentResponse> result = new ArrayList<>(bits.cardinality());
+			bits.forEach(sid -> {
+				StudentResponse student = students.get(sid);
+				if (student != null) {
+					result.add(student);
+				}
+			});
+			return result;
+		}
+
+		private static void increment(Map<Integer, AtomicInteger> counters, Integer batchId) {
+			if (batchId != null) {
+				counters.computeIfAbsent(batchId, id -> new AtomicInteger()).incrementAndGet();
+			}
+		}
+
+		private static void decrement(Map<Integer, AtomicInteger> counters, Integer batchId) {
+			if (batchId != null) {
+				counters.computeIfAbsent(batchId, id -> new AtomicInteger()).decrementAndGet();
+			}
+		}
+	}
+}
@@ -0,0 +1,29 @@
+package com.nirmaan.version1.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.nirmaan.version1.entity.AttendanceBitmap;
+
+@Repository
+public interface AttendanceBitmapRepo extends JpaRepository<AttendanceBitmap, Long> {
+
+	Optional<AttendanceBitmap> findByBatchIdAndAttendanceDate(Integer batchId, LocalDate attendanceDate);
+
+	// Bitmaps of a batch for a date range, oldest first
+	List<AttendanceBitmap> findByBatchIdAndAttendanceDateBetweenOrderByAttendanceDate(Integer batchId, LocalDate from,
+			LocalDate to);
+
+	@Modifying
+	@Transactional
+	@Query("DELETE FROM AttendanceBitmap b WHERE b.batchId = :batchId")
+	int deleteByBatchId(@Param("batchId") Integer batchId);
+}
@@ -0,0 +1,52 @@
+package com.nirmaan.version1.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.nirmaan.version1.entity.AttendanceRecord;
+import com.nirmaan.version1.entity.Student.AttendanceStatus;
+
+@Repository
+public interface AttendanceRecordRepo extends JpaRepository<AttendanceRecord, Long> {
+
+	// Days per status for one student
+	@Query("SELECT r.status, COUNT(r) FROM AttendanceRecord r WHERE r.sid = :sid GROUP BY r.status")
+	List<Object[]> getAttendanceSummary(@Param("sid") Integer sid);
+
+	/**
+	 * Archive students in [fromSid, toSid) who checked in on the day. Open
+	 * sessions are recorded as closed at {@code closeAt} (or at check-in when
+	 * that was later). Days already archived are skipped, so a rerun is safe.
+	 */
+	@Modifying
+	@Query("INSERT INTO AttendanceRecord (sid, batchId, attendanceDate, status, intime, outtime, autoClosed) "
+			+ "SELECT s.sid, b.batchId, :day, s.status, s.intime, "
+			+ "CASE WHEN s.outtime IS NOT NULL THEN s.outtime WHEN s.intime > :closeAt THEN s.intime ELSE :closeAt END, "
+			+ "CASE WHEN s.outtime IS NULL THEN true ELSE false END "
+			+ "FROM Student s LEFT JOIN s.batch b "
+			+ "WHERE s.sid >= :fromSid AND s.sid < :toSid AND s.intime >= :dayStart AND s.intime < :dayEnd "
+			+ "AND NOT EXISTS (SELECT r.recordId FROM AttendanceRecord r WHERE r.sid = s.sid AND r.attendanceDate = :day)")
+	int archivePresent(@Param("fromSid") int fromSid, @Param("toSid") int toSid, @Param("day") LocalDate day,
+			@Param("dayStart") LocalDateTime dayStart, @Param("dayEnd") LocalDateTime dayEnd,
+			@Param("closeAt") LocalDateTime closeAt);
+
+	// Archive students in [fromSid, toSid) enrolled by the day who did not check in
+	@Modifying
+	@Query("INSERT INTO AttendanceRecord (sid, batchId, attendanceDate, status, autoClosed) "
+			+ "SELECT s.sid, b.batchId, :day, :absent, false "
+			+ "FROM Student s LEFT JOIN s.batch b "
+			+ "WHERE s.sid >= :fromSid AND s.sid < :toSid "
+			+ "AND (s.intime IS NULL OR s.intime < :dayStart OR s.intime >= :dayEnd) "
+			+ "AND (s.createdAt IS NULL OR s.createdAt < :dayEnd) "
+			+ "AND NOT EXISTS (SELECT r.recordId FROM AttendanceRecord r WHERE r.sid = s.sid AND r.attendanceDate = :day)")
+	int archiveAbsent(@Param("fromSid") int fromSid, @Param("toSid") int toSid, @Param("day") LocalDate day,
+			@Param("dayStart") LocalDateTime dayStart, @Param("dayEnd") LocalDateTime dayEnd,
+			@Param("absent") AttendanceStatus absent);
+}
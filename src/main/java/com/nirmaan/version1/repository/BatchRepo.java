@@ -1,32 +1,38 @@
 package com.nirmaan.version1.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.nirmaan.version1.entity.Batch;
 import com.nirmaan.version1.entity.Batch.BatchStatus;
 
-@Repository
-public interface BatchRepo extends JpaRepository<Batch, Integer> {
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
-	// Find batch by code
-	Optional<Batch> findByBatchCode(String batchCode);
+@Repository
+public interface BatchRepo extends JpaRepository<Batch, Integer>, BatchRepoCustom {
 
 	// Check if batch code exists
 	boolean existsByBatchCode(String batchCode);
 
-	// Find batches by name (case-insensitive search)
+	// Find batches by name (case-insensitive search, query cache)
+	@QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
 	List<Batch> findByBatchNameContainingIgnoreCase(String name);
 
 	// Find batches by status
 	List<Batch> findByStatus(BatchStatus status);
 
-	// Find active batches
+	// Find active batches (query cache: invalidated by any write to batches)
+	@QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
 	@Query("SELECT b FROM Batch b WHERE b.status = 'ACTIVE'")
 	List<Batch> findActiveBatches();
 
@@ -45,6 +51,11 @@ public interface BatchRepo extends JpaRepository<Batch, Integer> {
 	@Query("SELECT b FROM Batch b LEFT JOIN FETCH b.students WHERE b.batchId = :batchId")
 	Optional<Batch> findByIdWithStudents(@Param("batchId") Integer batchId);
 
+	// Find batch and lock the row until commit (serializes concurrent enrollments)
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT b FROM Batch b WHERE b.batchId = :batchId")
+	Optional<Batch> findByIdForUpdate(@Param("batchId") Integer batchId);
+
 	// NEW: Find all batches with students (prevents N+1)
 	@Query("SELECT DISTINCT b FROM Batch b LEFT JOIN FETCH b.students")
 	List<Batch> findAllWithStudents();
@@ -52,4 +63,8 @@ public interface BatchRepo extends JpaRepository<Batch, Integer> {
 	// NEW: Get direct count of students in a batch from database
 	@Query("SELECT COUNT(s) FROM Student s WHERE s.batch.batchId = :batchId")
 	Integer getStudentCountInBatch(@Param("batchId") Integer batchId);
+
+	// Student counts for several batches in one query as [batchId, count] rows (batches without students are absent)
+	@Query("SELECT s.batch.batchId, COUNT(s) FROM Student s WHERE s.batch.batchId IN :batchIds GROUP BY s.batch.batchId")
+	List<Object[]> getStudentCountsInBatches(@Param("batchIds") Collection<Integer> batchIds);
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.nirmaan.version1.repository;
+
+import java.util.Optional;
+
+import com.nirmaan.version1.entity.Batch;
+
+// Lookups by the natural id, served from the second-level cache when possible (BatchRepoCustomImpl)
+public interface BatchRepoCustom {
+
+	Optional<Batch> findByBatchCode(String batchCode);
+}
@@ -0,0 +1,25 @@
+package com.nirmaan.version1.repository;
+
+import java.util.Optional;
+
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.nirmaan.version1.entity.Batch;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+// Read-only transaction like the derived queries; outside one, the unwrapped session would already be closed
+@Transactional(readOnly = true)
+class BatchRepoCustomImpl implements BatchRepoCustom {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	// Natural-id load; batchCode is mutable, Hibernate moves the cached mapping when it changes
+	@Override
+	public Optional<Batch> findByBatchCode(String batchCode) {
+		return entityManager.unwrap(Session.class).bySimpleNaturalId(Batch.class).loadOptional(batchCode);
+	}
+}
@@ -0,0 +1,58 @@
+package com.nirmaan.version1.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.nirmaan.version1.entity.IdempotencyRecord;
+
+@Repository
+public interface IdempotencyRecordRepo extends JpaRepository<IdempotencyRecord, String> {
+
+	/**
+	 * Claim a key for a request being processed. A plain INSERT, so a key
+	 * another request (on any node) holds fails on the primary key instead of
+	 * being merged.
+	 */
+	@Modifying
+	@Transactional
+	@Query(value = "INSERT INTO idempotency_keys (idempotency_key, fingerprint, created_at, expires_at) "
+			+ "VALUES (:key, :fingerprint, :createdAt, :expiresAt)", nativeQuery = true)
+	int insertInProgress(@Param("key") String key, @Param("fingerprint") String fingerprint,
+			@Param("createdAt") LocalDateTime createdAt, @Param("expiresAt") LocalDateTime expiresAt);
+
+	// Complete the claim made at createdAt; a no-op once another request has taken the key over
+	@Modifying
+	@Transactional
+	@Query("UPDATE IdempotencyRecord r SET r.status = :status, r.contentType = :contentType, r.body = :body "
+			+ "WHERE r.key = :key AND r.fingerprint = :fingerprint AND r.createdAt = :createdAt AND r.status IS NULL")
+	int complete(@Param("key") String key, @Param("fingerprint") String fingerprint,
+			@Param("createdAt") LocalDateTime createdAt, @Param("status") int status,
+			@Param("contentType") String contentType, @Param("body") byte[] body);
+
+	// Release the claim made at createdAt, leaving a key another request has since taken over alone
+	@Modifying
+	@Transactional
+	@Query("DELETE FROM IdempotencyRecord r WHERE r.key = :key AND r.fingerprint = :fingerprint "
+			+ "AND r.createdAt = :createdAt AND r.status IS NULL")
+	int abandon(@Param("key") String key, @Param("fingerprint") String fingerprint,
+			@Param("createdAt") LocalDateTime createdAt);
+
+	// Free a key whose response expired, or whose request was claimed before staleBefore and never completed
+	@Modifying
+	@Transactional
+	@Query("DELETE FROM IdempotencyRecord r WHERE r.key = :key "
+			+ "AND (r.expiresAt < :now OR (r.status IS NULL AND r.createdAt < :staleBefore))")
+	int deleteReusable(@Param("key") String key, @Param("now") LocalDateTime now,
+			@Param("staleBefore") LocalDateTime staleBefore);
+
+	@Modifying
+	@Transactional
+	@Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+	int deleteExpired(@Param("now") LocalDateTime now);
+}
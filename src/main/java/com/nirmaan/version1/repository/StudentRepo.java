@@ -5,6 +5,9 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -12,8 +15,11 @@ import org.springframework.stereotype.Repository;
 import com.nirmaan.version1.entity.Student;
 import com.nirmaan.version1.entity.Student.AttendanceStatus;
 
+import jakarta.persistence.LockModeType;
+
 @Repository
-public interface StudentRepo extends JpaRepository<Student, Integer> {
+public interface StudentRepo
+		extends JpaRepository<Student, Integer>, JpaSpecificationExecutor<Student>, StudentRepoCustom {
 
 	// Find student by roll number with batch
 	@Query("SELECT s FROM Student s LEFT JOIN FETCH s.batch WHERE s.rollNumber = :rollNumber")
@@ -23,41 +29,57 @@ public interface StudentRepo extends JpaRepository<Student, Integer> {
 	@Query("SELECT DISTINCT s FROM Student s LEFT JOIN FETCH s.batch WHERE LOWER(s.sname) LIKE LOWER(CONCAT('%', :name, '%'))")
 	List<Student> findBySnameContainingIgnoreCase(@Param("name") String name);
 
-	// Find students by status with batch (FIXED - Added JOIN FETCH)
-	@Query("SELECT s FROM Student s LEFT JOIN FETCH s.batch WHERE s.status = :status")
-	List<Student> findByStatus(@Param("status") AttendanceStatus status);
-
 	// Find students checked in with batch (FIXED - Added JOIN FETCH)
 	@Query("SELECT s FROM Student s LEFT JOIN FETCH s.batch WHERE s.intime IS NOT NULL AND s.outtime IS NULL")
 	List<Student> findCurrentlyCheckedIn();
 
-	// Find students by date range with batch (FIXED - Added JOIN FETCH)
-	@Query("SELECT s FROM Student s LEFT JOIN FETCH s.batch WHERE s.intime BETWEEN :startDate AND :endDate")
-	List<Student> findByDateRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
-
-	// Count students by status (no change needed)
-	long countByStatus(AttendanceStatus status);
-
-	// Find students present today with batch (FIXED - Added JOIN FETCH)
-	@Query(value = "SELECT * FROM students s WHERE DATE(s.intime) = CURRENT_DATE", nativeQuery = true)
-	List<Student> findPresentToday();
+	// Find students who checked in within [from, to) with batch; a plain range keeps idx_check_in_time usable
+	@Query("SELECT s FROM Student s LEFT JOIN FETCH s.batch WHERE s.intime >= :from AND s.intime < :to")
+	List<Student> findCheckedInBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 
 	// Check if roll number exists (no change needed)
 	boolean existsByRollNumber(String rollNumber);
 
-	// Get attendance summary for a student (no change needed)
-	@Query("SELECT s.status, COUNT(s) FROM Student s WHERE s.sid = :sid GROUP BY s.status")
-	List<Object[]> getAttendanceSummary(@Param("sid") Integer sid);
-
-	// Find late check-ins with batch (FIXED - Added JOIN FETCH)
-	@Query(value = "SELECT * FROM students s WHERE HOUR(s.intime) > 9 AND DATE(s.intime) = CURRENT_DATE", nativeQuery = true)
-	List<Student> findLateArrivals();
-
-	// Find students by batch ID with batch (FIXED - Added JOIN FETCH)
-	@Query("SELECT s FROM Student s LEFT JOIN FETCH s.batch b WHERE b.batchId = :batchId")
+	// Find students by batch ID with batch; an inner join lets the planner start from the batch and use idx_student_batch_status
+	@Query("SELECT s FROM Student s JOIN FETCH s.batch b WHERE b.batchId = :batchId")
 	List<Student> findByBatch_BatchId(@Param("batchId") Integer batchId);
 
-	// Find all students with batch (NEW - Most Important Fix)
-	@Query("SELECT DISTINCT s FROM Student s LEFT JOIN FETCH s.batch")
-	List<Student> findAllWithBatch();
+	// Find student by ID with batch, usable outside a transaction (write-behind check-ins)
+	@Query("SELECT s FROM Student s LEFT JOIN FETCH s.batch WHERE s.sid = :sid")
+	Optional<Student> findWithBatchBySid(@Param("sid") Integer sid);
+
+	// Find student and lock the row until commit (serializes concurrent check-in/check-out)
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT s FROM Student s WHERE s.sid = :sid")
+	Optional<Student> findByIdForUpdate(@Param("sid") Integer sid);
+
+	// Lowest and highest sid, used to split bulk updates into sid-range chunks
+	@Query("SELECT MIN(s.sid) FROM Student s")
+	Integer findMinSid();
+
+	@Query("SELECT MAX(s.sid) FROM Student s")
+	Integer findMaxSid();
+
+	// Rollover: close sessions opened on the day at the policy time (or at check-in if that was later)
+	@Modifying
+	@Query("UPDATE Student s SET s.outtime = CASE WHEN s.intime > :closeAt THEN s.intime ELSE :closeAt END, "
+			+ "s.updatedAt = :now WHERE s.sid >= :fromSid AND s.sid < :toSid "
+			+ "AND s.intime >= :dayStart AND s.intime < :dayEnd AND s.outtime IS NULL")
+	int closeOpenSessions(@Param("fromSid") int fromSid, @Param("toSid") int toSid,
+			@Param("dayStart") LocalDateTime dayStart, @Param("dayEnd") LocalDateTime dayEnd,
+			@Param("closeAt") LocalDateTime closeAt, @Param("now") LocalDateTime now);
+
+	// Rollover: close sessions left open from earlier days (missed rollovers) at their check-in time
+	@Modifying
+	@Query("UPDATE Student s SET s.outtime = s.intime, s.updatedAt = :now WHERE s.sid >= :fromSid AND s.sid < :toSid "
+			+ "AND s.intime < :dayStart AND s.outtime IS NULL")
+	int closeStaleSessions(@Param("fromSid") int fromSid, @Param("toSid") int toSid,
+			@Param("dayStart") LocalDateTime dayStart, @Param("now") LocalDateTime now);
+
+	// Rollover: everyone starts the next day absent
+	@Modifying
+	@Query("UPDATE Student s SET s.status = :absent, s.updatedAt = :now WHERE s.sid >= :fromSid AND s.sid < :toSid "
+			+ "AND (s.status IS NULL OR s.status <> :absent)")
+	int resetStatus(@Param("fromSid") int fromSid, @Param("toSid") int toSid, @Param("absent") AttendanceStatus absent,
+			@Param("now") LocalDateTime now);
 }
\ No newline at end of file
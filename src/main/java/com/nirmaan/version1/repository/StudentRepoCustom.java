@@ -0,0 +1,27 @@
+package com.nirmaan.version1.repository;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import com.nirmaan.version1.fields.StudentField;
+
+import jakarta.persistence.Tuple;
+
+// Narrow student reads for ?fields= (StudentRepoCustomImpl)
+public interface StudentRepoCustom {
+
+	/**
+	 * Select only the columns behind the given fields, aliased by attribute
+	 * path (e.g. "batch.batchName"); the batch is joined only when a batch name
+	 * or code is requested
+	 * @param batchId restrict to one batch, or null for every student
+	 */
+	List<Tuple> findFields(Set<StudentField> fields, Integer batchId);
+
+	/**
+	 * Same rows as findFields, read fetchSize at a time while the stream is
+	 * consumed; the caller must close it inside its transaction
+	 */
+	Stream<Tuple> streamFields(Set<StudentField> fields, Integer batchId, int fetchSize);
+}
@@ -0,0 +1,75 @@
+package com.nirmaan.version1.repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.nirmaan.version1.entity.Batch;
+import com.nirmaan.version1.entity.Student;
+import com.nirmaan.version1.fields.StudentField;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+@Transactional(readOnly = true)
+class StudentRepoCustomImpl implements StudentRepoCustom {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	// Scalar tuples: no entities are instantiated or tracked by the persistence context
+	@Override
+	public List<Tuple> findFields(Set<StudentField> fields, Integer batchId) {
+		return entityManager.createQuery(query(fields, batchId)).getResultList();
+	}
+
+	@Override
+	public Stream<Tuple> streamFields(Set<StudentField> fields, Integer batchId, int fetchSize) {
+		return entityManager.createQuery(query(fields, batchId)).setHint(AvailableHints.HINT_FETCH_SIZE, fetchSize)
+				.getResultStream();
+	}
+
+	private CriteriaQuery<Tuple> query(Set<StudentField> fields, Integer batchId) {
+		Set<String> attributes = new LinkedHashSet<>();
+		fields.forEach(field -> attributes.addAll(field.getAttributes()));
+
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = cb.createTupleQuery();
+		Root<Student> student = query.from(Student.class);
+		Join<Student, Batch> batch = null;
+		List<Selection<?>> selections = new ArrayList<>();
+		for (String attribute : attributes) {
+			Path<?> path;
+			if (attribute.equals("batch.batchId")) {
+				// The foreign key column itself, no join
+				path = student.get("batch").get("batchId");
+			} else if (attribute.startsWith("batch.")) {
+				if (batch == null) {
+					batch = student.join("batch", JoinType.LEFT);
+				}
+				path = batch.get(attribute.substring("batch.".length()));
+			} else {
+				path = student.get(attribute);
+			}
+			selections.add(path.alias(attribute));
+		}
+		query.multiselect(selections);
+		if (batchId != null) {
+			query.where(cb.equal(student.get("batch").get("batchId"), batchId));
+		}
+		return query;
+	}
+}
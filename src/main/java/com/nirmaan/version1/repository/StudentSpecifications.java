@@ -0,0 +1,85 @@
+package com.nirmaan.version1.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.nirmaan.version1.dto.StudentQuery;
+import com.nirmaan.version1.entity.Student;
+import com.nirmaan.version1.entity.Student.AttendanceStatus;
+
+import jakarta.persistence.criteria.JoinType;
+
+/**
+ * Student predicates for the query endpoint, each written so an index can
+ * serve it: batch filters compare the foreign key column (no join), the name
+ * filter is a plain prefix LIKE and check-in ranges are half-open.
+ */
+public final class StudentSpecifications {
+
+	private StudentSpecifications() {
+	}
+
+	// Only the criteria that were given; an empty query matches every student
+	public static Specification<Student> matching(StudentQuery query) {
+		Specification<Student> spec = Specification.unrestricted();
+		if (query.getStatus() != null) {
+			spec = spec.and(hasStatus(query.getStatus()));
+		}
+		if (query.getBatchIds() != null && !query.getBatchIds().isEmpty()) {
+			spec = spec.and(inBatches(query.getBatchIds()));
+		}
+		if (query.getCheckedInFrom() != null || query.getCheckedInTo() != null) {
+			spec = spec.and(checkedInBetween(query.getCheckedInFrom(), query.getCheckedInTo()));
+		}
+		if (query.getCheckedIn() != null) {
+			spec = spec.and(query.getCheckedIn() ? checkedIn() : Specification.not(checkedIn()));
+		}
+		if (query.getNamePrefix() != null && !query.getNamePrefix().isEmpty()) {
+			spec = spec.and(nameStartsWith(query.getNamePrefix()));
+		}
+		return spec;
+	}
+
+	public static Specification<Student> hasStatus(AttendanceStatus status) {
+		return (root, query, cb) -> cb.equal(root.get("status"), status);
+	}
+
+	public static Specification<Student> inBatches(List<Integer> batchIds) {
+		return (root, query, cb) -> root.get("batch").get("batchId").in(batchIds);
+	}
+
+	public static Specification<Student> checkedInBetween(LocalDateTime from, LocalDateTime to) {
+		return (root, query, cb) -> {
+			if (from == null) {
+				return cb.lessThan(root.get("intime"), to);
+			}
+			if (to == null) {
+				return cb.greaterThanOrEqualTo(root.get("intime"), from);
+			}
+			return cb.and(cb.greaterThanOrEqualTo(root.get("intime"), from), cb.lessThan(root.get("intime"), to));
+		};
+	}
+
+	// Same condition as findCurrentlyCheckedIn, matching idx_student_open_session
+	public static Specification<Student> checkedIn() {
+		return (root, query, cb) -> cb.and(cb.isNull(root.get("outtime")), cb.isNotNull(root.get("intime")));
+	}
+
+	public static Specification<Student> nameStartsWith(String prefix) {
+		String escaped = prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+		return (root, query, cb) -> cb.like(root.get("sname"), escaped + "%", '\\');
+	}
+
+	// Loads the batch with the student, for responses that show its name and code
+	public static Specification<Student> fetchBatch() {
+		return (root, query, cb) -> {
+			// Count and exists queries select no entity to fetch into
+			if (Student.class.equals(query.getResultType())) {
+				root.fetch("batch", JoinType.LEFT);
+			}
+			return null;
+		};
+	}
+}
@@ -9,9 +9,7 @@ import com.nirmaan.version1.entity.User;
 import com.nirmaan.version1.entity.User.UserRole;
 
 @Repository
-public interface UserRepo extends JpaRepository<User, Integer> {
-
-	Optional<User> findByUsername(String username);
+public interface UserRepo extends JpaRepository<User, Integer>, UserRepoCustom {
 
 	Optional<User> findByEmail(String email);
 
@@ -0,0 +1,11 @@
+package com.nirmaan.version1.repository;
+
+import java.util.Optional;
+
+import com.nirmaan.version1.entity.User;
+
+// Lookups by the natural id, served from the second-level cache when possible (UserRepoCustomImpl)
+public interface UserRepoCustom {
+
+	Optional<User> findByUsername(String username);
+}
@@ -0,0 +1,25 @@
+package com.nirmaan.version1.repository;
+
+import java.util.Optional;
+
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.nirmaan.version1.entity.User;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+// Read-only transaction like the derived queries; outside one, the unwrapped session would already be closed
+@Transactional(readOnly = true)
+class UserRepoCustomImpl implements UserRepoCustom {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	// Natural-id load: resolves username -> id from the natural-id region, then the user from the entity region
+	@Override
+	public Optional<User> findByUsername(String username) {
+		return entityManager.unwrap(Session.class).bySimpleNaturalId(User.class).loadOptional(username);
+	}
+}
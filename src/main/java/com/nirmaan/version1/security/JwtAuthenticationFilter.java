@@ -11,6 +11,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.nirmaan.version1.jfr.JwtValidationEvent;
+
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -30,11 +32,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 	@Override
 	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
 			throws ServletException, IOException {
+		String jwt = getJwtFromRequest(request);
+		JwtValidationEvent event = StringUtils.hasText(jwt) ? JwtValidationEvent.begin(request.getRequestURI()) : null;
 		try {
-			String jwt = getJwtFromRequest(request);
-
-			if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
+			if (event != null && tokenProvider.validateToken(jwt)) {
 				String username = tokenProvider.getUsernameFromToken(jwt);
+				event.username = username;
 				UserDetails userDetails = userDetailsService.loadUserByUsername(username);
 
 				UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
@@ -43,9 +46,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
 				SecurityContextHolder.getContext().setAuthentication(authentication);
 				log.debug("Set Spring Security authentication for user: {}", username);
+				event.outcome = JwtValidationEvent.AUTHENTICATED;
+			} else if (event != null) {
+				event.outcome = JwtValidationEvent.INVALID_TOKEN;
 			}
 		} catch (Exception ex) {
 			log.error("Could not set user authentication in security context", ex);
+			if (event != null) {
+				event.outcome = JwtValidationEvent.ERROR;
+			}
+		} finally {
+			if (event != null) {
+				event.commit();
+			}
 		}
 
 		filterChain.doFilter(request, response);
@@ -1,10 +1,15 @@
 package com.nirmaan.version1.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -25,6 +30,9 @@ public class JwtTokenProvider {
 	@Value("${jwt.expiration:86400000}") // 24 hours in milliseconds
 	private long jwtExpirationMs;
 
+	@Autowired
+	private MeterRegistry meterRegistry;
+
 	/**
 	 * Generate a secure signing key from the secret string
 	 * Converts the string to bytes and ensures it meets the 256-bit minimum requirement
@@ -189,7 +197,22 @@ public class JwtTokenProvider {
 			return !isTokenExpired(token);
 		} catch (Exception e) {
 			log.error("JWT validation failed: {}", e.getMessage());
+			meterRegistry.counter("sams.jwt.validation.failures", "reason", failureReason(e)).increment();
 			return false;
 		}
 	}
+
+	/**
+	 * Low-cardinality reason tag for the validation failure counter
+	 */
+	private String failureReason(Exception e) {
+		if (e instanceof ExpiredJwtException) {
+			return "expired";
+		} else if (e instanceof SignatureException) {
+			return "signature";
+		} else if (e instanceof MalformedJwtException) {
+			return "malformed";
+		}
+		return "invalid";
+	}
 }
\ No newline at end of file
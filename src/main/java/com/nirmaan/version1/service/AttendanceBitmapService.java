@@ -0,0 +1,319 @@
+package com.nirmaan.version1.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.nirmaan.version1.dto.AbsenteeResponse;
+import com.nirmaan.version1.dto.BatchAttendanceDay;
+import com.nirmaan.version1.dto.StudentResponse;
+import com.nirmaan.version1.entity.AttendanceBitmap;
+import com.nirmaan.version1.entity.Student;
+import com.nirmaan.version1.event.AttendanceChangedEvent;
+import com.nirmaan.version1.event.BatchChangedEvent;
+import com.nirmaan.version1.exception.ResourceNotFoundException;
+import com.nirmaan.version1.repository.AttendanceBitmapRepo;
+import com.nirmaan.version1.repository.BatchRepo;
+import com.nirmaan.version1.repository.StudentRepo;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Daily attendance history as one compressed bitmap of present sids per
+ * (batch, day).
+ *
+ * Check-ins set bits in an in-memory bitmap after commit; dirty bitmaps are
+ * written to attendance_bitmaps every sams.bitmaps.flush-interval and on
+ * shutdown. Today's bitmaps are topped up from the students table at startup,
+ * so a crash between flushes loses nothing for the current day.
+ *
+ * Reports never scan attendance rows: a day's percentage is a cardinality,
+ * missed sessions are membership tests against each session's bitmap, and
+ * "present on X but absent on Y" is roster AND present(X) AND NOT present(Y).
+ * A session counts as held on a day when at least one student of the batch
+ * checked in.
+ */
+@Service
+@Slf4j
+@Timed(value = "sams.service", histogram = true)
+public class AttendanceBitmapService {
+
+	@Autowired
+	private AttendanceBitmapRepo bitmapRepo;
+
+	@Autowired
+	private StudentRepo studentRepo;
+
+	@Autowired
+	private BatchRepo batchRepo;
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private BatchService batchService;
+
+	// Clean bitmaps older than this many days are dropped from memory on flush
+	@Value("${sams.bitmaps.cache-days:7}")
+	private int cacheDays;
+
+	private final Map<DayKey, DayBitmap> cache = new ConcurrentHashMap<>();
+
+	@TransactionalEventListener
+	public void onAttendanceChanged(AttendanceChangedEvent event) {
+		if (event.getType() == AttendanceChangedEvent.Type.CHECKED_IN && event.getBatchId() != null) {
+			bitmap(event.getBatchId(), event.getStudent().getIntime().toLocalDate()).add(event.getSid());
+		}
+	}
+
+	// After commit the batch delete's transaction is finished, so the rows go in a new one
+	@TransactionalEventListener
+	@Transactional(propagation = Propagation.REQUIRES_NEW)
+	public void onBatchChanged(BatchChangedEvent event) {
+		if (event.getType() == BatchChangedEvent.Type.DELETED) {
+			cache.keySet().removeIf(key -> key.batchId() == event.getBatchId());
+			bitmapRepo.deleteByBatchId(event.getBatchId());
+		}
+	}
+
+	// Re-add today's check-ins that were committed after the last flush before a restart
+	@EventListener(ApplicationReadyEvent.class)
+	public void recoverToday() {
+		LocalDate today = LocalDate.now();
+		int recovered = 0;
+		for (Student student : studentRepo.findCheckedInBetween(today.atStartOfDay(),
+				today.plusDays(1).atStartOfDay())) {
+			if (student.getBatch() != null && bitmap(student.getBatch().getBatchId(),
+					student.getIntime().toLocalDate()).add(student.getSid())) {
+				recovered++;
+			}
+		}
+		log.info("Attendance bitmaps recovered {} check-ins for today", recovered);
+	}
+
+	@Scheduled(fixedDelayString = "${sams.bitmaps.flush-interval:30s}")
+	public void flush() {
+		LocalDate oldestCached = LocalDate.now().minusDays(cacheDays);
+		int written = 0;
+		for (Map.Entry<DayKey, DayBitmap> entry : cache.entrySet()) {
+			DayKey key = entry.getKey();
+			DayBitmap day = entry.getValue();
+			RoaringBitmap changed = day.takeDirty();
+			if (changed != null) {
+				try {
+					changed.runOptimize();
+					byte[] bytes = new byte[changed.serializedSizeInBytes()];
+					changed.serialize(ByteBuffer.wrap(bytes));
+					AttendanceBitmap row = bitmapRepo.findByBatchIdAndAttendanceDate(key.batchId(), key.date())
+							.orElseGet(() -> AttendanceBitmap.builder().batchId(key.batchId())
+									.attendanceDate(key.date()).build());
+					row.setPresentSids(bytes);
+					row.setPresentCount(changed.getCardinality());
+					bitmapRepo.save(row);
+					written++;
+				} catch (RuntimeException e) {
+					day.markDirty();
+					log.warn("Could not write attendance bitmap for batch {} on {}: {}", key.batchId(), key.date(),
+							e.getMessage());
+				}
+			} else if (key.date().isBefore(oldestCached)) {
+				cache.remove(key, day);
+			}
+		}
+		if (written > 0) {
+			log.debug("Flushed {} attendance bitmaps", written);
+		}
+	}
+
+	@PreDestroy
+	void flushOnShutdown() {
+		flush();
+	}
+
+	/**
+	 * Attendance percentage of a batch for each of the last {@code days} days
+	 * @param batchId Batch ID
+	 * @param days Number of days ending today
+	 * @return one entry per day, oldest first
+	 */
+	public List<BatchAttendanceDay> getBatchTrend(Integer batchId, int days) {
+		log.info("Generating {}-day attendance trend for batch ID: {}", days, batchId);
+		if (!batchRepo.existsById(batchId)) {
+			throw new ResourceNotFoundException("Batch not found with ID: " + batchId);
+		}
+		int enrolled = batchService.getStudentCountForBatch(batchId);
+		LocalDate to = LocalDate.now();
+		LocalDate from = to.minusDays(days - 1L);
+		Map<LocalDate, RoaringBitmap> bitmaps = range(batchId, from, to);
+
+		List<BatchAttendanceDay> trend = new ArrayList<>(days);
+		for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+			RoaringBitmap present = bitmaps.get(date);
+			int count = present != null ? present.getCardinality() : 0;
+			trend.add(BatchAttendanceDay.builder().date(date).present(count).enrolled(enrolled)
+					.attendancePercentage(enrolled == 0 ? 0.0 : count * 100.0 / enrolled).build());
+		}
+		return trend;
+	}
+
+	/**
+	 * Students of a batch who missed at least {@code minMisses} sessions
+	 * between {@code from} and {@code to}. Sessions before a student enrolled
+	 * are not counted against them.
+	 */
+	public List<AbsenteeResponse> getAbsentees(Integer batchId, LocalDate from, LocalDate to, int minMisses) {
+		log.info("Finding students of batch {} with {}+ absences between {} and {}", batchId, minMisses, from, to);
+		List<StudentResponse> roster = studentService.getStudentsByBatchId(batchId);
+		Map<LocalDate, RoaringBitmap> sessions = range(batchId, from, to);
+		sessions.values().removeIf(RoaringBitmap::isEmpty);
+
+		List<AbsenteeResponse> absentees = new ArrayList<>();
+		for (StudentResponse student : roster) {
+			LocalDate enrolledOn = student.getCreatedAt() != null ? student.getCreatedAt().toLocalDate() : null;
+			int held = 0;
+			int missed = 0;
+			int streak = 0;
+			int longest = 0;
+			for (Map.Entry<LocalDate, RoaringBitmap> session : sessions.entrySet()) {
+				if (enrolledOn != null && session.getKey().isBefore(enrolledOn)) {
+					continue;
+				}
+				held++;
+				if (session.getValue().contains(student.getSid())) {
+					streak = 0;
+				} else {
+					missed++;
+					longest = Math.max(longest, ++streak);
+				}
+			}
+			if (missed >= minMisses) {
+				absentees.add(AbsenteeResponse.builder().sid(student.getSid()).sname(student.getSname())
+						.rollNumber(student.getRollNumber()).sessionsHeld(held).daysMissed(missed)
+						.longestAbsenceStreak(longest).build());
+			}
+		}
+		return absentees;
+	}
+
+	/**
+	 * Students of a batch present on every {@code presentOn} day and absent on
+	 * every {@code absentOn} day
+	 */
+	public List<StudentResponse> compareDays(Integer batchId, List<LocalDate> presentOn, List<LocalDate> absentOn) {
+		log.info("Comparing attendance of batch {}: present on {}, absent on {}", batchId, presentOn, absentOn);
+		List<StudentResponse> roster = studentService.getStudentsByBatchId(batchId);
+		RoaringBitmap result = RoaringBitmap.bitmapOf(roster.stream().mapToInt(StudentResponse::getSid).toArray());
+		for (LocalDate date : presentOn) {
+			result.and(present(batchId, date));
+		}
+		for (LocalDate date : absentOn) {
+			result.andNot(present(batchId, date));
+		}
+		return roster.stream().filter(student -> result.contains(student.getSid())).collect(Collectors.toList());
+	}
+
+	private RoaringBitmap present(Integer batchId, LocalDate date) {
+		DayBitmap cached = cache.get(new DayKey(batchId, date));
+		if (cached != null) {
+			return cached.copy();
+		}
+		return bitmapRepo.findByBatchIdAndAttendanceDate(batchId, date).map(row -> deserialize(row.getPresentSids()))
+				.orElseGet(RoaringBitmap::new);
+	}
+
+	// Persisted bitmaps for the range, overlaid with newer in-memory ones; read-only, does not fill the cache
+	private Map<LocalDate, RoaringBitmap> range(Integer batchId, LocalDate from, LocalDate to) {
+		Map<LocalDate, RoaringBitmap> bitmaps = new TreeMap<>();
+		for (AttendanceBitmap row : bitmapRepo.findByBatchIdAndAttendanceDateBetweenOrderByAttendanceDate(batchId,
+				from, to)) {
+			bitmaps.put(row.getAttendanceDate(), deserialize(row.getPresentSids()));
+		}
+		cache.forEach((key, day) -> {
+			if (key.batchId() == batchId && !key.date().isBefore(from) && !key.date().isAfter(to)) {
+				bitmaps.put(key.date(), day.copy());
+			}
+		});
+		return bitmaps;
+	}
+
+	private DayBitmap bitmap(int batchId, LocalDate date) {
+		DayKey key = new DayKey(batchId, date);
+		DayBitmap day = cache.get(key);
+		if (day == null) {
+			// Load outside the map so a slow query does not block other keys
+			RoaringBitmap stored = bitmapRepo.findByBatchIdAndAttendanceDate(batchId, date)
+					.map(row -> deserialize(row.getPresentSids())).orElseGet(RoaringBitmap::new);
+			DayBitmap loaded = new DayBitmap(stored);
+			DayBitmap existing = cache.putIfAbsent(key, loaded);
+			day = existing != null ? existing : loaded;
+		}
+		return day;
+	}
+
+	private static RoaringBitmap deserialize(byte[] bytes) {
+		RoaringBitmap bitmap = new RoaringBitmap();
+		try {
+			bitmap.deserialize(ByteBuffer.wrap(bytes));
+		} catch (IOException e) {
+			throw new UncheckedIOException("Corrupt attendance bitmap", e);
+		}
+		return bitmap;
+	}
+
+	private record DayKey(int batchId, LocalDate date) {
+	}
+
+	// RoaringBitmap is not thread-safe, so every access goes through this monitor
+	private static final class DayBitmap {
+
+		private final RoaringBitmap bits;
+		private boolean dirty;
+
+		private DayBitmap(RoaringBitmap bits) {
+			this.bits = bits;
+		}
+
+		private synchronized boolean add(int sid) {
+			boolean added = bits.checkedAdd(sid);
+			dirty |= added;
+			return added;
+		}
+
+		private synchronized RoaringBitmap copy() {
+			return bits.clone();
+		}
+
+		private synchronized void markDirty() {
+			dirty = true;
+		}
+
+		// Copy to persist if the bitmap changed since the last call, otherwise null
+		private synchronized RoaringBitmap takeDirty() {
+			if (!dirty) {
+				return null;
+			}
+			dirty = false;
+			return bits.clone();
+		}
+	}
+}
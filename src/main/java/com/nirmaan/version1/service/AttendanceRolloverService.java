@@ -0,0 +1,171 @@
+package com.nirmaan.version1.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.nirmaan.version1.entity.Student.AttendanceStatus;
+import com.nirmaan.version1.event.AttendanceRolloverEvent;
+import com.nirmaan.version1.exception.InvalidOperationException;
+import com.nirmaan.version1.ingestion.WriteBehindIngestion;
+import com.nirmaan.version1.repository.AttendanceRecordRepo;
+import com.nirmaan.version1.repository.StudentRepo;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * End-of-day rollover: archive each student's attendance to
+ * attendance_records, close sessions nobody checked out of, and reset status
+ * to ABSENT for the next day.
+ *
+ * The work is split into sid ranges of sams.rollover.chunk-size rows, each
+ * committed in its own short transaction with set-based statements, so no
+ * lock is held for longer than one chunk. Every step is idempotent; a run that
+ * fails half-way is completed by the next one.
+ */
+@Service
+@Slf4j
+public class AttendanceRolloverService {
+
+	@Autowired
+	private StudentRepo studentRepo;
+
+	@Autowired
+	private AttendanceRecordRepo attendanceRecordRepo;
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private WriteBehindIngestion writeBehind;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${sams.rollover.chunk-size:5000}")
+	private int chunkSize;
+
+	// Open sessions are closed at this time of day
+	@Value("${sams.rollover.close-at:18:00}")
+	private LocalTime closeAt;
+
+	private final AtomicBoolean running = new AtomicBoolean();
+
+	// Fraction of the sid range processed by the current (or last) run
+	private final AtomicReference<Double> progress = new AtomicReference<>(0.0);
+
+	private Timer duration;
+	private Timer chunkDuration;
+	private Counter archived;
+	private Counter closed;
+	private Counter reset;
+
+	@PostConstruct
+	void registerMeters() {
+		Gauge.builder("sams.rollover.progress", progress, AtomicReference::get)
+				.description("Fraction of students processed by the running rollover").register(meterRegistry);
+		duration = Timer.builder("sams.rollover.duration").description("End-of-day rollover run time")
+				.register(meterRegistry);
+		chunkDuration = Timer.builder("sams.rollover.chunk").description("Time per rollover chunk transaction")
+				.register(meterRegistry);
+		archived = Counter.builder("sams.rollover.rows").tag("action", "archived").register(meterRegistry);
+		closed = Counter.builder("sams.rollover.rows").tag("action", "closed").register(meterRegistry);
+		reset = Counter.builder("sams.rollover.rows").tag("action", "reset").register(meterRegistry);
+	}
+
+	@Scheduled(cron = "${sams.rollover.cron:0 30 23 * * *}")
+	public void scheduledRollover() {
+		// A run after midnight but before the close-at time finishes the previous day
+		LocalDateTime now = LocalDateTime.now();
+		LocalDate day = now.toLocalTime().isBefore(closeAt) ? now.toLocalDate().minusDays(1) : now.toLocalDate();
+		rollover(day);
+	}
+
+	/**
+	 * Roll over one day
+	 * @param day Day whose attendance is archived
+	 * @return rows archived
+	 */
+	public int rollover(LocalDate day) {
+		if (!running.compareAndSet(false, true)) {
+			throw new InvalidOperationException("Attendance rollover is already running");
+		}
+		try {
+			return duration.record(() -> runChunks(day));
+		} finally {
+			running.set(false);
+		}
+	}
+
+	private int runChunks(LocalDate day) {
+		// Archive the day's journaled check-ins too
+		writeBehind.awaitDrained();
+		Integer minSid = studentRepo.findMinSid();
+		Integer maxSid = studentRepo.findMaxSid();
+		if (minSid == null) {
+			log.info("Attendance rollover for {}: no students", day);
+			return 0;
+		}
+
+		LocalDateTime dayStart = day.atStartOfDay();
+		LocalDateTime dayEnd = day.plusDays(1).atStartOfDay();
+		LocalDateTime closeTime = day.atTime(closeAt);
+		long span = (long) maxSid - minSid + 1;
+		int[] totals = new int[3];
+
+		log.info("Attendance rollover for {} started: sids {}..{} in chunks of {}", day, minSid, maxSid, chunkSize);
+		progress.set(0.0);
+		for (long from = minSid; from <= maxSid; from += chunkSize) {
+			int lo = (int) from;
+			int hi = (int) Math.min(from + chunkSize, (long) maxSid + 1);
+			long started = System.nanoTime();
+			transactionTemplate.executeWithoutResult(status -> {
+				LocalDateTime now = LocalDateTime.now();
+				// Archive first so open sessions are recorded with the policy close time
+				int rows = attendanceRecordRepo.archivePresent(lo, hi, day, dayStart, dayEnd, closeTime)
+						+ attendanceRecordRepo.archiveAbsent(lo, hi, day, dayStart, dayEnd, AttendanceStatus.ABSENT);
+				int sessions = studentRepo.closeOpenSessions(lo, hi, dayStart, dayEnd, closeTime, now)
+						+ studentRepo.closeStaleSessions(lo, hi, dayStart, now);
+				int statuses = studentRepo.resetStatus(lo, hi, AttendanceStatus.ABSENT, now);
+				totals[0] += rows;
+				totals[1] += sessions;
+				totals[2] += statuses;
+				archived.increment(rows);
+				closed.increment(sessions);
+				reset.increment(statuses);
+			});
+			chunkDuration.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+			progress.set((hi - minSid) / (double) span);
+			log.debug("Attendance rollover for {}: sids {}..{} done ({}%)", day, lo, hi - 1,
+					Math.round(progress.get() * 100));
+		}
+
+		// Auto-closed sessions must leave the occupancy board and the dashboards
+		studentService.rebuildOccupancyBoard();
+		eventPublisher.publishEvent(new AttendanceRolloverEvent(day, totals[0], totals[1], totals[2]));
+		log.info("Attendance rollover for {} finished: {} archived, {} sessions closed, {} statuses reset", day,
+				totals[0], totals[1], totals[2]);
+		return totals[0];
+	}
+}
@@ -0,0 +1,227 @@
+package com.nirmaan.version1.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.nirmaan.version1.dto.AttendanceSnapshot;
+import com.nirmaan.version1.dto.StudentResponse;
+import com.nirmaan.version1.event.AttendanceChangedEvent;
+import com.nirmaan.version1.event.AttendanceRolloverEvent;
+import com.nirmaan.version1.occupancy.OccupancyBoard;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pushes committed attendance changes to dashboards over Server-Sent Events.
+ *
+ * Each subscriber gets a bounded buffer. Publishing only appends to the
+ * buffers (dropping the oldest entry when one is full) and hands delivery to
+ * a small dispatch pool, so a slow screen can never hold up a check-in.
+ * A new subscriber first receives a snapshot from the occupancy board, then
+ * the live changes.
+ */
+@Service
+@Slf4j
+public class AttendanceStreamService {
+
+	public static final String SNAPSHOT = "snapshot";
+
+	@Autowired
+	private OccupancyBoard occupancyBoard;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${sams.stream.buffer-size:256}")
+	private int bufferSize;
+
+	@Value("${sams.stream.timeout:30m}")
+	private Duration timeout;
+
+	@Value("${sams.stream.dispatch-threads:4}")
+	private int dispatchThreads;
+
+	private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+	private final AtomicLong sequence = new AtomicLong();
+
+	private ExecutorService dispatcher;
+	private Counter dropped;
+
+	@PostConstruct
+	void start() {
+		dispatcher = Executors.newFixedThreadPool(dispatchThreads, runnable -> {
+			Thread thread = new Thread(runnable, "sse-dispatch");
+			thread.setDaemon(true);
+			return thread;
+		});
+		Gauge.builder("sams.stream.subscribers", subscribers, List::size)
+				.description("Open attendance stream connections").register(meterRegistry);
+		dropped = Counter.builder("sams.stream.dropped")
+				.description("Stream events discarded because a subscriber buffer was full").register(meterRegistry);
+	}
+
+	@PreDestroy
+	void stop() {
+		subscribers.forEach(subscriber -> subscriber.emitter.complete());
+		dispatcher.shutdownNow();
+	}
+
+	/**
+	 * Open a stream, optionally limited to one batch
+	 * @param batchId Batch ID, or null for every student
+	 * @return emitter that has the snapshot queued as its first event
+	 */
+	public SseEmitter subscribe(Integer batchId) {
+		Subscriber subscriber = new Subscriber(new SseEmitter(timeout.toMillis()), batchId);
+		subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+		subscriber.emitter.onTimeout(() -> subscribers.remove(subscriber));
+		subscriber.emitter.onError(e -> subscribers.remove(subscriber));
+
+		// Register before reading the board so no change falls between the two;
+		// delivery is held until the snapshot has gone out
+		subscriber.sending.set(true);
+		subscribers.add(subscriber);
+		try {
+			subscriber.emitter.send(snapshot(batchId));
+		} catch (IOException e) {
+			subscriber.emitter.completeWithError(e);
+			return subscriber.emitter;
+		} finally {
+			subscriber.sending.set(false);
+		}
+		log.info("Attendance stream opened (batch {}), {} subscribers", batchId, subscribers.size());
+		subscriber.schedule();
+		return subscriber.emitter;
+	}
+
+	@TransactionalEventListener
+	public void onAttendanceChanged(AttendanceChangedEvent event) {
+		// Built once and shared; each emitter serializes the data itself
+		Set<DataWithMediaType> message = SseEmitter.event()
+				.name(event.getType().name().toLowerCase().replace('_', '-'))
+				.id(String.valueOf(sequence.incrementAndGet())).data(event.getStudent()).build();
+		for (Subscriber subscriber : subscribers) {
+			// A transfer is shown to both the old and the new batch
+			if (subscriber.batchId == null || subscriber.batchId.equals(event.getBatchId())
+					|| subscriber.batchId.equals(event.getPreviousBatchId())) {
+				subscriber.offer(message);
+			}
+		}
+	}
+
+	// The rollover closes sessions in bulk without per-student events, so every screen gets a new snapshot
+	@EventListener
+	public void onRollover(AttendanceRolloverEvent event) {
+		subscribers.forEach(subscriber -> subscriber.offer(snapshot(subscriber.batchId)));
+	}
+
+	// Comment line that keeps proxies from closing idle streams and finds dead clients
+	@Scheduled(fixedDelayString = "${sams.stream.heartbeat-interval:15s}")
+	public void heartbeat() {
+		Set<DataWithMediaType> ping = SseEmitter.event().comment("ping").build();
+		subscribers.forEach(subscriber -> subscriber.offer(ping));
+	}
+
+	private Set<DataWithMediaType> snapshot(Integer batchId) {
+		return SseEmitter.event().name(SNAPSHOT).id(String.valueOf(sequence.get())).data(snapshotOf(batchId)).build();
+	}
+
+	private AttendanceSnapshot snapshotOf(Integer batchId) {
+		List<StudentResponse> checkedIn = occupancyBoard.checkedIn();
+		if (batchId != null) {
+			checkedIn = checkedIn.stream().filter(s -> Objects.equals(s.getBatchId(), batchId)).toList();
+		}
+		return AttendanceSnapshot.builder().batchId(batchId).checkedIn(checkedIn)
+				.presentToday(batchId != null ? occupancyBoard.presentInBatch(batchId) : occupancyBoard.presentCount())
+				.timestamp(LocalDateTime.now()).build();
+	}
+
+	private final class Subscriber {
+
+		private final SseEmitter emitter;
+		private final Integer batchId;
+		private final ArrayDeque<Set<DataWithMediaType>> buffer = new ArrayDeque<>();
+
+		// Set while a dispatch task (or the snapshot) owns the emitter
+		private final AtomicBoolean sending = new AtomicBoolean();
+
+		private Subscriber(SseEmitter emitter, Integer batchId) {
+			this.emitter = emitter;
+			this.batchId = batchId;
+		}
+
+		private void offer(Set<DataWithMediaType> message) {
+			synchronized (buffer) {
+				if (buffer.size() >= bufferSize) {
+					buffer.pollFirst();
+					dropped.increment();
+				}
+				buffer.addLast(message);
+			}
+			schedule();
+		}
+
+		private void schedule() {
+			if (hasPending() && sending.compareAndSet(false, true)) {
+				dispatcher.execute(this::drain);
+			}
+		}
+
+		private void drain() {
+			try {
+				Set<DataWithMediaType> message;
+				while ((message = next()) != null) {
+					emitter.send(message);
+				}
+			} catch (IOException | IllegalStateException e) {
+				// Client went away; the emitter callbacks unregister it
+				log.debug("Attendance stream closed: {}", e.getMessage());
+				subscribers.remove(this);
+				synchronized (buffer) {
+					buffer.clear();
+				}
+				return;
+			} finally {
+				sending.set(false);
+			}
+			// Something may have been offered after the last poll
+			schedule();
+		}
+
+		private Set<DataWithMediaType> next() {
+			synchronized (buffer) {
+				return buffer.pollFirst();
+			}
+		}
+
+		private boolean hasPending() {
+			synchronized (buffer) {
+				return !buffer.isEmpty();
+			}
+		}
+	}
+}
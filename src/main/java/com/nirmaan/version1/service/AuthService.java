@@ -16,14 +16,17 @@ import com.nirmaan.version1.entity.User;
 import com.nirmaan.version1.entity.User.UserRole;
 import com.nirmaan.version1.exception.DuplicateResourceException;
 import com.nirmaan.version1.exception.InvalidOperationException;
+import com.nirmaan.version1.jfr.LoginEvent;
 import com.nirmaan.version1.repository.UserRepo;
 import com.nirmaan.version1.security.JwtTokenProvider;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
 
 @Service
 @Slf4j
 @Transactional
+@Timed(value = "sams.service", histogram = true)
 public class AuthService {
 
 	@Autowired
@@ -90,6 +93,8 @@ public class AuthService {
 	public LoginResponse login(LoginRequest request) {
 		log.info("User login attempt: {}", request.getUsername());
 
+		LoginEvent event = LoginEvent.begin(request.getUsername());
+
 		// Authenticate
 		try {
 			Authentication authentication = authenticationManager.authenticate(
@@ -103,13 +108,21 @@ public class AuthService {
 			String token = jwtTokenProvider.generateToken(user, user.getRole().name(), user.getUserId());
 
 			log.info("User logged in successfully: {}", user.getUsername());
+			event.userId = user.getUserId();
+			event.outcome = LoginEvent.SUCCESS;
 
 			return LoginResponse.builder().token(token).userId(user.getUserId()).username(user.getUsername())
 					.email(user.getEmail()).role(user.getRole().name()).build();
 
 		} catch (BadCredentialsException e) {
 			log.error("Authentication failed for user: {}", request.getUsername());
+			event.outcome = LoginEvent.BAD_CREDENTIALS;
 			throw new InvalidOperationException("Invalid username or password");
+		} catch (RuntimeException e) {
+			event.outcome = e.getClass().getSimpleName();
+			throw e;
+		} finally {
+			event.commit();
 		}
 	}
 }
@@ -1,29 +1,37 @@
 package com.nirmaan.version1.service;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.nirmaan.version1.config.CacheConfig;
 import com.nirmaan.version1.dto.BatchCreateRequest;
 import com.nirmaan.version1.dto.BatchResponse;
 import com.nirmaan.version1.dto.BatchSummary;
 import com.nirmaan.version1.entity.Batch;
 import com.nirmaan.version1.entity.Batch.BatchStatus;
-import com.nirmaan.version1.entity.Student;
-import com.nirmaan.version1.entity.Student.AttendanceStatus;
+import com.nirmaan.version1.event.BatchChangedEvent;
 import com.nirmaan.version1.exception.DuplicateResourceException;
 import com.nirmaan.version1.exception.ResourceNotFoundException;
+import com.nirmaan.version1.occupancy.OccupancyBoard;
 import com.nirmaan.version1.repository.BatchRepo;
 import com.nirmaan.version1.repository.StudentRepo;
+import com.nirmaan.version1.singleflight.SingleFlight;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
 
 @Service
 @Slf4j
 @Transactional
+@Timed(value = "sams.service", histogram = true)
 public class BatchService {
 
 	@Autowired
@@ -32,6 +40,12 @@ public class BatchService {
 	@Autowired
 	private StudentRepo studentRepo;
 
+	@Autowired
+	private OccupancyBoard occupancyBoard;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
 	// Create new batch
 	public BatchResponse createBatch(BatchCreateRequest request) {
 		log.info("Creating new batch with code: {}", request.getBatchCode());
@@ -48,24 +62,26 @@ public class BatchService {
 		Batch saved = batchRepo.save(batch);
 		log.info("Batch created successfully with ID: {}", saved.getBatchId());
 
-		return mapToResponse(saved);
+		return publish(BatchChangedEvent.Type.CREATED, mapToResponse(saved));
 	}
 
-	// Get batch by ID
+	// Get batch by ID (cached, evicted by BatchCacheInvalidator)
+	@SingleFlight
 	@Transactional(readOnly = true)
+	@Cacheable(cacheNames = CacheConfig.BATCHES, key = "#batchId")
 	public BatchResponse getBatchById(Integer batchId) {
 		log.info("Fetching batch with ID: {}", batchId);
 		Batch batch = findBatchById(batchId);
 		return mapToResponse(batch);
 	}
 
-	// Get all batches
+	// Get all batches (cached)
+	@SingleFlight
 	@Transactional(readOnly = true)
+	@Cacheable(cacheNames = CacheConfig.BATCH_LISTS, key = "'all'")
 	public List<BatchResponse> getAllBatches() {
 		log.info("Fetching all batches");
-		return batchRepo.findAll().stream()
-				.map(this::mapToResponse)
-				.collect(Collectors.toList());
+		return mapToResponses(batchRepo.findAll());
 	}
 
 	// Update batch
@@ -99,7 +115,7 @@ public class BatchService {
 		Batch updated = batchRepo.save(batch);
 		log.info("Batch {} updated successfully", batchId);
 
-		return mapToResponse(updated);
+		return publish(BatchChangedEvent.Type.UPDATED, mapToResponse(updated));
 	}
 
 	// Delete batch
@@ -115,6 +131,7 @@ public class BatchService {
 		}
 
 		batchRepo.deleteById(batchId);
+		eventPublisher.publishEvent(new BatchChangedEvent(BatchChangedEvent.Type.DELETED, batchId, null));
 		log.info("Batch {} deleted successfully", batchId);
 	}
 
@@ -126,64 +143,77 @@ public class BatchService {
 		batch.setStatus(status);
 
 		Batch updated = batchRepo.save(batch);
-		return mapToResponse(updated);
+		return publish(BatchChangedEvent.Type.UPDATED, mapToResponse(updated));
 	}
 
-	// Get active batches
+	// Get active batches (cached)
+	@SingleFlight
 	@Transactional(readOnly = true)
+	@Cacheable(cacheNames = CacheConfig.BATCH_LISTS, key = "'active'")
 	public List<BatchResponse> getActiveBatches() {
 		log.info("Fetching active batches");
-		return batchRepo.findActiveBatches().stream()
-				.map(this::mapToResponse)
-				.collect(Collectors.toList());
+		return mapToResponses(batchRepo.findActiveBatches());
 	}
 
 	// Get batches with available slots
+	@SingleFlight
 	@Transactional(readOnly = true)
 	public List<BatchResponse> getBatchesWithAvailableSlots() {
 		log.info("Fetching batches with available slots");
-		return batchRepo.findBatchesWithAvailableSlots().stream()
-				.map(this::mapToResponse)
-				.collect(Collectors.toList());
+		return mapToResponses(batchRepo.findBatchesWithAvailableSlots());
 	}
 
 	// Search batches by name
 	@Transactional(readOnly = true)
 	public List<BatchResponse> searchByName(String name) {
 		log.info("Searching batches by name: {}", name);
-		return batchRepo.findByBatchNameContainingIgnoreCase(name).stream()
-				.map(this::mapToResponse)
-				.collect(Collectors.toList());
+		return mapToResponses(batchRepo.findByBatchNameContainingIgnoreCase(name));
 	}
 
-	// Get batch summary with attendance stats
+	// Get batch summary with attendance stats (cached)
+	@SingleFlight
 	@Transactional(readOnly = true)
+	@Cacheable(cacheNames = CacheConfig.BATCH_SUMMARIES, key = "#batchId")
 	public BatchSummary getBatchSummary(Integer batchId) {
 		log.info("Generating summary for batch ID: {}", batchId);
 
-		Batch batch = batchRepo.findByIdWithStudents(batchId)
+		Batch batch = batchRepo.findById(batchId)
 				.orElseThrow(() -> new ResourceNotFoundException("Batch not found with ID: " + batchId));
 
-		List<Student> students = batch.getStudents();
-		long presentToday = students.stream()
-				.filter(s -> s.getStatus() == AttendanceStatus.PRESENT || s.getStatus() == AttendanceStatus.LATE)
-				.count();
-
-		long absentToday = students.stream().filter(s -> s.getStatus() == AttendanceStatus.ABSENT).count();
+		// Roster size from a count query, today's attendance from the occupancy board
+		int enrolled = getStudentCountForBatch(batchId);
+		long presentToday = occupancyBoard.presentInBatch(batchId);
+		long absentToday = Math.max(0, enrolled - presentToday);
 
-		double attendancePercentage = students.isEmpty() ? 0.0 : (presentToday * 100.0 / students.size());
+		double attendancePercentage = enrolled == 0 ? 0.0 : (presentToday * 100.0 / enrolled);
 
 		return BatchSummary.builder().batchId(batch.getBatchId()).batchName(batch.getBatchName())
 				.batchCode(batch.getBatchCode()).maxCount(batch.getMaxCount())
-				.currentCount(students.size())  // Use actual loaded size
-				.availableSlots(batch.getMaxCount() - students.size())
+				.currentCount(enrolled)
+				.availableSlots(batch.getMaxCount() - enrolled)
 				.totalPresentToday(presentToday).totalAbsentToday(absentToday)
+				.currentlyCheckedIn(occupancyBoard.checkedInInBatch(batchId))
 				.attendancePercentage(attendancePercentage).build();
 	}
 
-	// Helper method to find batch by ID with students
+	private BatchResponse publish(BatchChangedEvent.Type type, BatchResponse batch) {
+		eventPublisher.publishEvent(new BatchChangedEvent(type, batch.getBatchId(), batch));
+		return batch;
+	}
+
+	// Helper method to find batch by ID (second-level cache; callers do not need the students)
 	public Batch findBatchById(Integer batchId) {
-		return batchRepo.findByIdWithStudents(batchId)
+		return batchRepo.findById(batchId)
+				.orElseThrow(() -> new ResourceNotFoundException("Batch not found with ID: " + batchId));
+	}
+
+	/**
+	 * Find batch by ID and hold a row lock until the transaction commits.
+	 * Enrollment must count and insert under this lock, otherwise concurrent
+	 * requests can all see a free slot and overfill the batch.
+	 */
+	public Batch findBatchByIdForUpdate(Integer batchId) {
+		return batchRepo.findByIdForUpdate(batchId)
 				.orElseThrow(() -> new ResourceNotFoundException("Batch not found with ID: " + batchId));
 	}
 
@@ -197,13 +227,36 @@ public class BatchService {
 		return count != null ? count : 0;
 	}
 
+	/**
+	 * Map a list of entities to response DTOs
+	 * Student counts for all batches come from one grouped query instead of one count per batch
+	 */
+	private List<BatchResponse> mapToResponses(List<Batch> batches) {
+		if (batches.isEmpty()) {
+			return List.of();
+		}
+
+		Map<Integer, Integer> studentCounts = new HashMap<>();
+		List<Integer> batchIds = batches.stream().map(Batch::getBatchId).collect(Collectors.toList());
+		for (Object[] row : batchRepo.getStudentCountsInBatches(batchIds)) {
+			studentCounts.put((Integer) row[0], ((Long) row[1]).intValue());
+		}
+
+		return batches.stream()
+				.map(batch -> mapToResponse(batch, studentCounts.getOrDefault(batch.getBatchId(), 0)))
+				.collect(Collectors.toList());
+	}
+
 	/**
 	 * Map entity to response DTO
 	 * IMPORTANT: Always query the database for accurate student count
 	 */
 	private BatchResponse mapToResponse(Batch batch) {
 		// Always get the actual student count from database to ensure accuracy
-		Integer actualStudentCount = getStudentCountForBatch(batch.getBatchId());
+		return mapToResponse(batch, getStudentCountForBatch(batch.getBatchId()));
+	}
+
+	private BatchResponse mapToResponse(Batch batch, Integer actualStudentCount) {
 		Integer availableSlots = batch.getMaxCount() - actualStudentCount;
 		boolean isFull = actualStudentCount >= batch.getMaxCount();
 
@@ -0,0 +1,123 @@
+package com.nirmaan.version1.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.nirmaan.version1.dto.DatabaseBackupResponse;
+import com.nirmaan.version1.exception.InvalidOperationException;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Online snapshots of the file-backed database. H2's BACKUP TO copies the
+ * MVStore file into a zip while the application keeps serving; restoring is
+ * unzipping it before the database opens (see DatabaseRestoreEnvironmentPostProcessor),
+ * so a node comes back without replaying any SQL.
+ */
+@Service
+@Slf4j
+@Timed(value = "sams.service", histogram = true)
+public class DatabaseBackupService {
+
+	private static final DateTimeFormatter FILE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Value("${spring.datasource.url}")
+	private String datasourceUrl;
+
+	@Value("${sams.backup.dir:data/backups}")
+	private Path backupDir;
+
+	// Older snapshots beyond this count are deleted after each backup
+	@Value("${sams.backup.retain:7}")
+	private int retain;
+
+	private final AtomicBoolean running = new AtomicBoolean();
+
+	/**
+	 * Take a snapshot
+	 * @return the new zip
+	 */
+	public DatabaseBackupResponse backup() {
+		if (datasourceUrl.startsWith("jdbc:h2:mem:")) {
+			throw new InvalidOperationException("Backups need the file-backed database (prod profile)");
+		}
+		if (!running.compareAndSet(false, true)) {
+			throw new InvalidOperationException("A backup is already running");
+		}
+		try {
+			Files.createDirectories(backupDir);
+			Path target = backupDir.resolve("sams-" + LocalDateTime.now().format(FILE_STAMP) + ".zip")
+					.toAbsolutePath();
+			long started = System.nanoTime();
+			jdbcTemplate.execute("BACKUP TO '" + target.toString().replace("'", "''") + "'");
+			long durationMs = (System.nanoTime() - started) / 1_000_000;
+
+			DatabaseBackupResponse response = describe(target);
+			response.setDurationMs(durationMs);
+			log.info("Database backup written to {} ({} bytes) in {} ms", target, response.getSizeBytes(), durationMs);
+			prune();
+			return response;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			running.set(false);
+		}
+	}
+
+	/**
+	 * Snapshots on disk, newest first
+	 */
+	public List<DatabaseBackupResponse> listBackups() {
+		return snapshots().stream().map(DatabaseBackupService::describe).toList();
+	}
+
+	private void prune() throws IOException {
+		List<Path> snapshots = snapshots();
+		for (Path old : snapshots.subList(Math.min(retain, snapshots.size()), snapshots.size())) {
+			Files.deleteIfExists(old);
+			log.info("Deleted old database backup {}", old);
+		}
+	}
+
+	// Timestamped names sort chronologically
+	private List<Path> snapshots() {
+		if (!Files.isDirectory(backupDir)) {
+			return List.of();
+		}
+		try (Stream<Path> files = Files.list(backupDir)) {
+			return files.filter(f -> f.getFileName().toString().matches("sams-\\d{8}-\\d{6}\\.zip"))
+					.sorted(Comparator.comparing(Path::getFileName).reversed()).toList();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static DatabaseBackupResponse describe(Path file) {
+		try {
+			return DatabaseBackupResponse.builder().fileName(file.getFileName().toString()).sizeBytes(Files.size(file))
+					.createdAt(LocalDateTime.ofInstant(Files.getLastModifiedTime(file).toInstant(),
+							ZoneId.systemDefault()))
+					.build();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -3,30 +3,66 @@ package com.nirmaan.version1.service;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.nirmaan.version1.dto.AttendanceSummary;
+import com.nirmaan.version1.dto.CursorPage;
 import com.nirmaan.version1.dto.StudentCreateRequest;
+import com.nirmaan.version1.dto.StudentQuery;
 import com.nirmaan.version1.dto.StudentResponse;
 import com.nirmaan.version1.entity.Batch;
 import com.nirmaan.version1.entity.Student;
 import com.nirmaan.version1.entity.Student.AttendanceStatus;
+import com.nirmaan.version1.event.AttendanceChangedEvent;
 import com.nirmaan.version1.exception.DuplicateResourceException;
 import com.nirmaan.version1.exception.InvalidOperationException;
 import com.nirmaan.version1.exception.ResourceNotFoundException;
+import com.nirmaan.version1.fields.StudentField;
+import com.nirmaan.version1.ingestion.JournalEntry;
+import com.nirmaan.version1.ingestion.WriteBehindIngestion;
+import com.nirmaan.version1.jfr.AttendanceEvent;
+import com.nirmaan.version1.jfr.EnrollmentCheckEvent;
+import com.nirmaan.version1.metrics.AttendanceMetrics;
+import com.nirmaan.version1.occupancy.OccupancyBoard;
+import com.nirmaan.version1.repository.AttendanceRecordRepo;
 import com.nirmaan.version1.repository.StudentRepo;
+import com.nirmaan.version1.repository.StudentSpecifications;
 import com.nirmaan.version1.repository.BatchRepo;
+import com.nirmaan.version1.singleflight.SingleFlight;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.Tuple;
 import lombok.extern.slf4j.Slf4j;
 
 @Service
 @Slf4j
 @Transactional
+@Timed(value = "sams.service", histogram = true)
 public class StudentService {
 
     @Autowired
@@ -38,6 +74,27 @@ public class StudentService {
     @Autowired
     private BatchRepo batchRepo;
 
+    @Autowired
+    private AttendanceRecordRepo attendanceRecordRepo;
+
+    @Autowired
+    private AttendanceMetrics attendanceMetrics;
+
+    @Autowired
+    private OccupancyBoard occupancyBoard;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private WriteBehindIngestion writeBehind;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${sams.streaming.chunk-size:500}")
+    private int streamFetchSize;
+
     /**
      * Create new student with optional batch assignment
      * @param request Student creation request
@@ -60,27 +117,49 @@ public class StudentService {
             .status(AttendanceStatus.ABSENT)
             .build();
 
-        // Assign to batch if batchId provided
-        if (request.getBatchId() != null) {
-            Batch batch = batchService.findBatchById(request.getBatchId());
+        // Without a batch there is no capacity check
+        if (request.getBatchId() == null) {
+            Student saved = studentRepo.save(student);
+            log.info("Student created successfully with ID: {}", saved.getSid());
+            return publish(AttendanceChangedEvent.Type.ENROLLED, mapToResponse(saved));
+        }
+
+        // The JFR event spans lock wait, capacity check and insert
+        EnrollmentCheckEvent event = EnrollmentCheckEvent.begin(request.getBatchId());
+        try {
+            // Lock the batch so concurrent enrollments cannot all pass the capacity check
+            Batch batch = batchService.findBatchByIdForUpdate(request.getBatchId());
 
             // Get actual student count directly from database
             Integer currentStudentCount = batchService.getStudentCountForBatch(request.getBatchId());
+            event.currentCount = currentStudentCount;
+            event.maxCount = batch.getMaxCount();
 
             // Check if batch is full
             if (currentStudentCount >= batch.getMaxCount()) {
+                attendanceMetrics.recordRejectedEnrollment();
+                event.outcome = EnrollmentCheckEvent.BATCH_FULL;
                 throw new InvalidOperationException(
                     "Batch " + batch.getBatchCode() + " is full. Maximum capacity: " + batch.getMaxCount());
             }
 
             student.setBatch(batch);
             log.info("Student assigned to batch: {}", batch.getBatchCode());
-        }
 
-        Student saved = studentRepo.save(student);
-        log.info("Student created successfully with ID: {}", saved.getSid());
+            Student saved = studentRepo.save(student);
+            event.sid = saved.getSid();
+            event.outcome = EnrollmentCheckEvent.ADMITTED;
+            log.info("Student created successfully with ID: {}", saved.getSid());
 
-        return mapToResponse(saved);
+            return publish(AttendanceChangedEvent.Type.ENROLLED, mapToResponse(saved));
+        } catch (RuntimeException e) {
+            if (event.outcome == null) {
+                event.outcome = e.getClass().getSimpleName();
+            }
+            throw e;
+        } finally {
+            event.commit();
+        }
     }
 
     /**
@@ -88,6 +167,7 @@ public class StudentService {
      * @param sid Student ID
      * @return StudentResponse with student details
      */
+    @SingleFlight
     @Transactional(readOnly = true)
     public StudentResponse getStudentById(Integer sid) {
         log.info("Fetching student with ID: {}", sid);
@@ -102,28 +182,108 @@ public class StudentService {
     }
 
     /**
-     * Get all students
-     * @return List of all students
+     * Stream all students to a sink while the rows are read, without building the list
+     * @param fields Fields to read; all of them when empty
+     * @param sink Receives each student, other properties left null
+     * @return Number of students streamed
      */
     @Transactional(readOnly = true)
-    public List<StudentResponse> getAllStudents() {
-        log.info("Fetching all students");
-        List<Student> students = studentRepo.findAllWithBatch();
-        return students.stream()
-            .map(this::mapToResponse)
+    public long streamAllStudents(Set<StudentField> fields, Consumer<StudentResponse> sink) {
+        log.info("Streaming all students, fields {}", fields);
+        Set<StudentField> selected = fields.isEmpty() ? EnumSet.allOf(StudentField.class) : fields;
+        long count = 0;
+        // Scalar rows: the persistence context stays empty however many students there are
+        try (Stream<Tuple> rows = studentRepo.streamFields(selected, null, streamFetchSize)) {
+            for (Iterator<Tuple> it = rows.iterator(); it.hasNext(); count++) {
+                sink.accept(mapToResponse(it.next(), selected));
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Query students by any combination of criteria, one keyset page at a time (ordered by sid)
+     * @param query Criteria; only the given ones are applied
+     * @param after Last sid of the previous page, or null for the first page
+     * @param size Page size
+     * @param fields Requested fields; the batch is fetched only if they include its name or code
+     * @return The page and the cursor for the next one
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<StudentResponse> queryStudents(StudentQuery query, Integer after, int size,
+            Set<StudentField> fields) {
+        log.info("Querying students: {}, after {}, size {}", query, after, size);
+        if (query.getCheckedInFrom() != null && query.getCheckedInTo() != null
+                && !query.getCheckedInFrom().isBefore(query.getCheckedInTo())) {
+            throw new InvalidOperationException("checkedInFrom must be before checkedInTo");
+        }
+
+        boolean batchDetails = fields.isEmpty() || fields.contains(StudentField.BATCH_NAME)
+                || fields.contains(StudentField.BATCH_CODE);
+        Specification<Student> spec = StudentSpecifications.matching(query);
+        if (batchDetails) {
+            spec = spec.and(StudentSpecifications.fetchBatch());
+        }
+        // Keyset on the primary key: each page is an index range, however deep
+        KeysetScrollPosition position = after == null ? ScrollPosition.keyset()
+                : ScrollPosition.forward(Map.of("sid", after));
+        Window<Student> window = studentRepo.findBy(spec,
+                q -> q.sortBy(Sort.by("sid")).limit(size).scroll(position));
+
+        List<StudentResponse> students = window.stream()
+            .map(student -> mapToResponse(student, batchDetails))
             .collect(Collectors.toList());
+        return CursorPage.<StudentResponse>builder()
+            .content(students)
+            .size(students.size())
+            .nextAfter(window.hasNext() ? students.get(students.size() - 1).getSid() : null)
+            .build();
     }
 
     /**
-     * Check-in student with late detection
+     * Check-in student with late detection (no transaction of its own, so a
+     * journaled check-in borrows no connection)
      * @param sid Student ID
      * @return StudentResponse with updated check-in details
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public StudentResponse checkIn(Integer sid) {
         log.info("Processing check-in for student ID: {}", sid);
 
-        Student student = findStudentById(sid);
+        AttendanceEvent event = AttendanceEvent.begin(AttendanceEvent.CHECK_IN, sid);
+        try {
+            StudentResponse updated = applyCheckIn(sid);
+            event.batchId = batchIdOf(updated);
+            event.outcome = updated.getStatus();
+            return updated;
+        } catch (RuntimeException e) {
+            event.outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            event.commit();
+        }
+    }
+
+    // Journaled and acknowledged in write-behind mode (the writer publishes the change once it is written), otherwise saved under a row lock
+    private StudentResponse applyCheckIn(Integer sid) {
+        StudentResponse updated;
+        if (writeBehind.isEnabled()) {
+            updated = writeBehind.apply(sid, () -> findStudentWithBatch(sid), JournalEntry.Type.CHECK_IN,
+                this::markCheckedIn, this::mapToResponse);
+        } else {
+            updated = transactionTemplate.execute(tx -> {
+                Student student = findStudentByIdForUpdate(sid);
+                markCheckedIn(student);
+                return publish(AttendanceChangedEvent.Type.CHECKED_IN, mapToResponse(studentRepo.save(student)));
+            });
+        }
+        attendanceMetrics.recordCheckIn(AttendanceStatus.valueOf(updated.getStatus()));
+        log.info("Student {} checked in successfully at {}", sid, updated.getIntime());
+
+        return updated;
+    }
 
+    private void markCheckedIn(Student student) {
         // Validate check-in
         if (student.isCheckedIn()) {
             throw new InvalidOperationException("Student is already checked in");
@@ -144,27 +304,56 @@ public class StudentService {
         // Determine if late (after 9 AM)
         if (now.toLocalTime().isAfter(LocalTime.of(9, 0))) {
             student.setStatus(AttendanceStatus.LATE);
-            log.warn("Student {} checked in late at {}", sid, now);
+            log.warn("Student {} checked in late at {}", student.getSid(), now);
         } else {
             student.setStatus(AttendanceStatus.PRESENT);
         }
-
-        Student updated = studentRepo.save(student);
-        log.info("Student {} checked in successfully at {}", sid, now);
-
-        return mapToResponse(updated);
     }
 
     /**
-     * Check-out student with hours calculation
+     * Check-out student with hours calculation (no transaction of its own, as
+     * for check-in)
      * @param sid Student ID
      * @return StudentResponse with updated check-out details
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public StudentResponse checkOut(Integer sid) {
         log.info("Processing check-out for student ID: {}", sid);
 
-        Student student = findStudentById(sid);
+        AttendanceEvent event = AttendanceEvent.begin(AttendanceEvent.CHECK_OUT, sid);
+        try {
+            StudentResponse updated = applyCheckOut(sid);
+            event.batchId = batchIdOf(updated);
+            event.outcome = "CHECKED_OUT";
+            return updated;
+        } catch (RuntimeException e) {
+            event.outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            event.commit();
+        }
+    }
 
+    private StudentResponse applyCheckOut(Integer sid) {
+        StudentResponse updated;
+        if (writeBehind.isEnabled()) {
+            updated = writeBehind.apply(sid, () -> findStudentWithBatch(sid), JournalEntry.Type.CHECK_OUT,
+                this::markCheckedOut, this::mapToResponse);
+        } else {
+            updated = transactionTemplate.execute(tx -> {
+                Student student = findStudentByIdForUpdate(sid);
+                markCheckedOut(student);
+                return publish(AttendanceChangedEvent.Type.CHECKED_OUT, mapToResponse(studentRepo.save(student)));
+            });
+        }
+        attendanceMetrics.recordCheckOut();
+        log.info("Student {} checked out successfully at {}. Total hours: {}", 
+            sid, updated.getOuttime(), updated.getHoursPresent());
+
+        return updated;
+    }
+
+    private void markCheckedOut(Student student) {
         // Validate check-out
         if (!student.isCheckedIn()) {
             throw new InvalidOperationException("Student must check in before checking out");
@@ -174,14 +363,7 @@ public class StudentService {
             throw new InvalidOperationException("Student has already checked out");
         }
 
-        LocalDateTime now = LocalDateTime.now();
-        student.setOuttime(now);
-
-        Student updated = studentRepo.save(student);
-        log.info("Student {} checked out successfully at {}. Total hours: {}", 
-            sid, now, updated.getHoursPresent());
-
-        return mapToResponse(updated);
+        student.setOuttime(LocalDateTime.now());
     }
 
     /**
@@ -193,7 +375,10 @@ public class StudentService {
     public StudentResponse updateStudent(Integer sid, StudentCreateRequest request) {
         log.info("Updating student with ID: {}", sid);
 
+        // The save writes the whole row, so journaled check-ins must be in it first
+        writeBehind.awaitDrained(sid);
         Student student = findStudentById(sid);
+        Integer previousBatchId = student.getBatch() != null ? student.getBatch().getBatchId() : null;
 
         // Check if new roll number conflicts with another student
         if (!student.getRollNumber().equals(request.getRollNumber()) && 
@@ -208,16 +393,18 @@ public class StudentService {
 
         // Update batch if provided
         if (request.getBatchId() != null) {
-            Batch newBatch = batchService.findBatchById(request.getBatchId());
-
             // If changing batch, check if new batch is full
             if (student.getBatch() == null || 
                 !student.getBatch().getBatchId().equals(request.getBatchId())) {
+
+                // Lock the new batch so concurrent transfers cannot overfill it
+                Batch newBatch = batchService.findBatchByIdForUpdate(request.getBatchId());
                 
                 // Get actual count for new batch
                 Integer newBatchStudentCount = batchService.getStudentCountForBatch(request.getBatchId());
                 
                 if (newBatchStudentCount >= newBatch.getMaxCount()) {
+                    attendanceMetrics.recordRejectedEnrollment();
                     throw new InvalidOperationException(
                         "Batch " + newBatch.getBatchCode() + " is full");
                 }
@@ -241,7 +428,10 @@ public class StudentService {
         Student updated = studentRepo.save(student);
         log.info("Student {} updated successfully", sid);
 
-        return mapToResponse(updated);
+        StudentResponse response = mapToResponse(updated);
+        eventPublisher.publishEvent(
+            new AttendanceChangedEvent(AttendanceChangedEvent.Type.UPDATED, response, previousBatchId));
+        return response;
     }
 
     /**
@@ -251,11 +441,12 @@ public class StudentService {
     public void deleteStudent(Integer sid) {
         log.info("Deleting student with ID: {}", sid);
 
-        if (!studentRepo.existsById(sid)) {
-            throw new ResourceNotFoundException("Student not found with ID: " + sid);
-        }
+        writeBehind.awaitDrained(sid);
+        Student student = findStudentById(sid);
+        StudentResponse removed = mapToResponse(student);
 
-        studentRepo.deleteById(sid);
+        studentRepo.delete(student);
+        publish(AttendanceChangedEvent.Type.REMOVED, removed);
         log.info("Student {} deleted successfully", sid);
     }
 
@@ -274,29 +465,53 @@ public class StudentService {
     }
 
     /**
-     * Get currently checked-in students
+     * Get currently checked-in students from the occupancy board
+     * (no transaction, so no connection is borrowed)
      * @return List of checked-in students
      */
-    @Transactional(readOnly = true)
+    @SingleFlight
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<StudentResponse> getCurrentlyCheckedIn() {
         log.info("Fetching currently checked-in students");
-        List<Student> students = studentRepo.findCurrentlyCheckedIn();
-        return students.stream()
-            .map(this::mapToResponse)
-            .collect(Collectors.toList());
+        rebuildOccupancyBoardIfStale();
+        return occupancyBoard.checkedIn();
     }
 
     /**
-     * Get students present today
+     * Get students present today from the occupancy board
      * @return List of students present today
      */
-    @Transactional(readOnly = true)
+    @SingleFlight
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<StudentResponse> getPresentToday() {
         log.info("Fetching students present today");
-        List<Student> students = studentRepo.findPresentToday();
-        return students.stream()
-            .map(this::mapToResponse)
-            .collect(Collectors.toList());
+        rebuildOccupancyBoardIfStale();
+        return occupancyBoard.presentToday();
+    }
+
+    /**
+     * Reload the occupancy board from the database. Runs once the application
+     * is up and again when the day rolls over, which empties present-today.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${sams.occupancy.rebuild-cron:0 0 0 * * *}")
+    @Transactional(readOnly = true)
+    public void rebuildOccupancyBoard() {
+        writeBehind.awaitDrained();
+        LocalDate today = LocalDate.now();
+        occupancyBoard.rebuild(today, () -> {
+            Map<Integer, StudentResponse> students = new LinkedHashMap<>();
+            studentRepo.findCheckedInBetween(today.atStartOfDay(), today.plusDays(1).atStartOfDay()).forEach(s -> students.put(s.getSid(), mapToResponse(s)));
+            studentRepo.findCurrentlyCheckedIn().forEach(s -> students.putIfAbsent(s.getSid(), mapToResponse(s)));
+            return students.values();
+        });
+    }
+
+    // Covers a read that lands before the midnight job has run
+    private void rebuildOccupancyBoardIfStale() {
+        if (occupancyBoard.isStale(LocalDate.now())) {
+            rebuildOccupancyBoard();
+        }
     }
 
     /**
@@ -304,6 +519,7 @@ public class StudentService {
      * @param batchId Batch ID
      * @return List of students in the batch
      */
+    @SingleFlight
     @Transactional(readOnly = true)
     public List<StudentResponse> getStudentsByBatchId(Integer batchId) {
         log.info("Fetching students for batch ID: {}", batchId);
@@ -319,17 +535,37 @@ public class StudentService {
     }
 
     /**
-     * Get attendance summary for a student
+     * Get students by batch ID with only the requested fields read from the database
+     * @param batchId Batch ID
+     * @param fields Fields to read; all of them when empty
+     * @return List of students in the batch, other properties left null
+     */
+    @SingleFlight
+    @Transactional(readOnly = true)
+    public List<StudentResponse> getStudentsByBatchId(Integer batchId, Set<StudentField> fields) {
+        if (fields.isEmpty()) {
+            return getStudentsByBatchId(batchId);
+        }
+        log.info("Fetching students for batch ID: {}, fields {}", batchId, fields);
+        batchService.findBatchById(batchId);
+        return studentRepo.findFields(fields, batchId).stream()
+            .map(row -> mapToResponse(row, fields))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Get attendance summary for a student from the archived daily records
      * @param sid Student ID
      * @return AttendanceSummary with statistics
      */
+    @SingleFlight
     @Transactional(readOnly = true)
     public AttendanceSummary getAttendanceSummary(Integer sid) {
         log.info("Generating attendance summary for student ID: {}", sid);
 
         Student student = findStudentById(sid);
 
-        List<Object[]> summary = studentRepo.getAttendanceSummary(sid);
+        List<Object[]> summary = attendanceRecordRepo.getAttendanceSummary(sid);
         long presentDays = 0;
         long absentDays = 0;
 
@@ -367,12 +603,60 @@ public class StudentService {
             .orElseThrow(() -> new ResourceNotFoundException("Student not found with ID: " + sid));
     }
 
+    /**
+     * Helper method to find student by ID with the batch fetched, so the
+     * result can be mapped outside a transaction
+     * @param sid Student ID
+     * @return Student entity
+     * @throws ResourceNotFoundException if student not found
+     */
+    private Student findStudentWithBatch(Integer sid) {
+        return studentRepo.findWithBatchBySid(sid)
+            .orElseThrow(() -> new ResourceNotFoundException("Student not found with ID: " + sid));
+    }
+
+    /**
+     * Helper method to find student by ID and lock the row until commit,
+     * so two concurrent check-ins for the same student cannot both succeed
+     * @param sid Student ID
+     * @return Student entity
+     * @throws ResourceNotFoundException if student not found
+     */
+    private Student findStudentByIdForUpdate(Integer sid) {
+        return studentRepo.findByIdForUpdate(sid)
+            .orElseThrow(() -> new ResourceNotFoundException("Student not found with ID: " + sid));
+    }
+
+    // Listeners such as the occupancy board pick the change up after commit
+    private StudentResponse publish(AttendanceChangedEvent.Type type, StudentResponse student) {
+        eventPublisher.publishEvent(new AttendanceChangedEvent(type, student));
+        return student;
+    }
+
+    // Batch ID for the JFR event (0 when unassigned)
+    private int batchIdOf(StudentResponse student) {
+        return student.getBatchId() != null ? student.getBatchId() : 0;
+    }
+
     /**
      * Map Student entity to StudentResponse DTO
      * @param student Student entity
      * @return StudentResponse DTO
      */
     private StudentResponse mapToResponse(Student student) {
+        return mapToResponse(student, true);
+    }
+
+    /**
+     * Map Student entity to StudentResponse DTO
+     * @param stored Student entity
+     * @param batchDetails Whether to read the batch name and code; without them
+     *        an unfetched batch is never initialized
+     * @return StudentResponse DTO
+     */
+    private StudentResponse mapToResponse(Student stored, boolean batchDetails) {
+        // Read-your-writes for check-ins not yet written behind
+        Student student = writeBehind.current(stored);
         StudentResponse.StudentResponseBuilder builder = StudentResponse.builder()
             .sid(student.getSid())
             .sname(student.getSname())
@@ -387,7 +671,9 @@ public class StudentService {
             .createdAt(student.getCreatedAt());
 
         // Safely access batch information
-        if (student.getBatch() != null) {
+        if (student.getBatch() != null && !batchDetails) {
+            builder.batchId(student.getBatch().getBatchId());
+        } else if (student.getBatch() != null) {
             try {
                 builder
                     .batchId(student.getBatch().getBatchId())
@@ -402,4 +688,46 @@ public class StudentService {
 
         return builder.build();
     }
+
+    /**
+     * Map a StudentRepo.findFields row to StudentResponse, setting only the requested fields
+     * @param row Tuple aliased by attribute path
+     * @param fields Requested fields
+     * @return StudentResponse DTO
+     */
+    private StudentResponse mapToResponse(Tuple row, Set<StudentField> fields) {
+        StudentResponse response = new StudentResponse();
+        // Read-your-writes for check-ins not yet written behind, as for entities
+        Student session = Collections.disjoint(fields, StudentField.SESSION) ? null : writeBehind.current(session(row));
+        for (StudentField field : fields) {
+            switch (field) {
+                case SID -> response.setSid(row.get("sid", Integer.class));
+                case SNAME -> response.setSname(row.get("sname", String.class));
+                case EMAIL -> response.setEmail(row.get("email", String.class));
+                case PHONE -> response.setPhone(row.get("phone", String.class));
+                case ROLL_NUMBER -> response.setRollNumber(row.get("rollNumber", String.class));
+                case INTIME -> response.setIntime(session.getIntime());
+                case OUTTIME -> response.setOuttime(session.getOuttime());
+                case STATUS -> response.setStatus(session.getStatus() != null ? session.getStatus().name() : null);
+                case HOURS_PRESENT -> response.setHoursPresent(session.getHoursPresent());
+                case CHECKED_IN -> response.setCheckedIn(session.isCheckedIn());
+                case CREATED_AT -> response.setCreatedAt(row.get("createdAt", LocalDateTime.class));
+                case BATCH_ID -> response.setBatchId(row.get("batch.batchId", Integer.class));
+                case BATCH_NAME -> response.setBatchName(row.get("batch.batchName", String.class));
+                case BATCH_CODE -> response.setBatchCode(row.get("batch.batchCode", String.class));
+            }
+        }
+        return response;
+    }
+
+    // Detached Student carrying just the session, so derived fields use the entity's own rules
+    private Student session(Tuple row) {
+        return Student.builder()
+            .sid(row.get("sid", Integer.class))
+            .intime(row.get("intime", LocalDateTime.class))
+            .outtime(row.get("outtime", LocalDateTime.class))
+            .status(row.get("status", AttendanceStatus.class))
+            .updatedAt(row.get("updatedAt", LocalDateTime.class))
+            .build();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.nirmaan.version1.singleflight;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Coalesce concurrent calls with equal arguments into one execution whose
+ * result (or exception) every caller receives, and reuse a completed result
+ * for sams.single-flight.freshness. See SingleFlightAspect.
+ *
+ * Only for reads whose arguments have value equality and whose result does
+ * not depend on the caller; the result object is shared, so callers must not
+ * modify it.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface SingleFlight {
+}
@@ -0,0 +1,149 @@
+package com.nirmaan.version1.singleflight;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.nirmaan.version1.event.AttendanceChangedEvent;
+import com.nirmaan.version1.event.AttendanceRolloverEvent;
+import com.nirmaan.version1.event.BatchChangedEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Runs @SingleFlight methods once per distinct argument list at a time: the
+ * first caller executes the method, concurrent callers with equal arguments
+ * wait for its result instead of running the same queries. A completed
+ * result is then served for the freshness window (0 to only share in-flight
+ * calls); failures are shared with the waiters but never reused.
+ *
+ * Outermost advice, so waiters borrow no connection and skip the cache
+ * lookup. Callers already inside a transaction run the method themselves,
+ * since a shared result may not include their own uncommitted writes.
+ * Committed changes drop every entry, running or fresh, so reads that
+ * arrive after a change (and get its new ETag) never share an older result.
+ * sams.single_flight.shared counts the calls answered from another call's
+ * execution.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SingleFlightAspect {
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${sams.single-flight.freshness:1s}")
+	private Duration freshness;
+
+	private final ConcurrentMap<Key, Flight> flights = new ConcurrentHashMap<>();
+
+	// When entries past their freshness were last swept out
+	private final AtomicLong lastSweep = new AtomicLong(System.nanoTime());
+
+	@Around("@annotation(com.nirmaan.version1.singleflight.SingleFlight)")
+	public Object coalesce(ProceedingJoinPoint joinPoint) throws Throwable {
+		if (TransactionSynchronizationManager.isActualTransactionActive()) {
+			return joinPoint.proceed();
+		}
+		Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+		Key key = new Key(method, Arrays.asList(joinPoint.getArgs()));
+		Flight mine = new Flight();
+		Flight flight = flights.compute(key,
+				(k, existing) -> existing != null && existing.isUsable(freshness) ? existing : mine);
+		if (flight != mine) {
+			meterRegistry.counter("sams.single_flight.shared", "class", method.getDeclaringClass().getSimpleName(),
+					"method", method.getName()).increment();
+			return flight.join();
+		}
+
+		try {
+			Object value = joinPoint.proceed();
+			mine.complete(value);
+			if (freshness.isZero()) {
+				flights.remove(key, mine);
+			}
+			sweep();
+			return value;
+		} catch (Throwable e) {
+			flights.remove(key, mine);
+			mine.result.completeExceptionally(e);
+			throw e;
+		}
+	}
+
+	// Drop entries that are no longer fresh, at most once per freshness window, so the map only holds recent keys
+	private void sweep() {
+		long now = System.nanoTime();
+		long last = lastSweep.get();
+		if (now - last >= freshness.toNanos() && lastSweep.compareAndSet(last, now)) {
+			flights.values().removeIf(flight -> !flight.isUsable(freshness));
+		}
+	}
+
+	// Together with the cache eviction, before ResourceVersions hands out new ETags
+	@Order(0)
+	@TransactionalEventListener
+	public void onBatchChanged(BatchChangedEvent event) {
+		flights.clear();
+	}
+
+	@Order(0)
+	@TransactionalEventListener
+	public void onAttendanceChanged(AttendanceChangedEvent event) {
+		flights.clear();
+	}
+
+	@Order(0)
+	@EventListener
+	public void onRollover(AttendanceRolloverEvent event) {
+		flights.clear();
+	}
+
+	private record Key(Method method, List<Object> args) {
+	}
+
+	private static class Flight {
+
+		private final CompletableFuture<Object> result = new CompletableFuture<>();
+		private volatile long completedAt;
+
+		void complete(Object value) {
+			completedAt = System.nanoTime();
+			result.complete(value);
+		}
+
+		// Still running, or finished successfully within the freshness window
+		boolean isUsable(Duration freshness) {
+			return !result.isDone()
+					|| !result.isCompletedExceptionally() && System.nanoTime() - completedAt < freshness.toNanos();
+		}
+
+		Object join() throws Throwable {
+			try {
+				return result.join();
+			} catch (CompletionException e) {
+				throw e.getCause();
+			}
+		}
+	}
+}
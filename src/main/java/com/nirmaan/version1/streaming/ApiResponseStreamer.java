@@ -0,0 +1,131 @@
+package com.nirmaan.version1.streaming;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+import java.util.function.ToLongFunction;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.HeaderContentNegotiationStrategy;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.nirmaan.version1.fields.SparseFieldsAdvice;
+import com.nirmaan.version1.metrics.SqlStatementFilter;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes an ApiResponse whose data is a list element by element while the
+ * rows are read, instead of building the list and serializing the whole tree.
+ * Elements go through the negotiated converter's ObjectMapper (JSON, CBOR or
+ * Smile) and the output is flushed every sams.streaming.chunk-size elements,
+ * so memory per request is bounded by the chunk, not the list.
+ *
+ * The envelope has the usual properties, but message (which carries the
+ * count) comes after data. Once the first chunk is flushed the status is
+ * sent: a failure later on truncates the body instead of returning an error
+ * response.
+ */
+@Slf4j
+@Component
+public class ApiResponseStreamer {
+
+	// Same default (header-only) negotiation as MVC, in the same order as the converters
+	private static final HeaderContentNegotiationStrategy ACCEPT_HEADER = new HeaderContentNegotiationStrategy();
+
+	@Autowired
+	private MappingJackson2HttpMessageConverter json;
+
+	@Autowired
+	private MappingJackson2CborHttpMessageConverter cbor;
+
+	@Autowired
+	private MappingJackson2SmileHttpMessageConverter smile;
+
+	@Value("${sams.streaming.chunk-size:500}")
+	private int chunkSize;
+
+	/**
+	 * @param rows Feeds every element to the consumer and returns how many it fed
+	 * @param message Envelope message for the element count
+	 * @param fields Properties to keep (see SparseFieldsAdvice), or empty for all
+	 */
+	public <T> ResponseEntity<StreamingResponseBody> ok(HttpServletRequest request, HttpServletResponse response,
+			ToLongFunction<Consumer<T>> rows, LongFunction<String> message, Set<String> fields)
+			throws HttpMediaTypeNotAcceptableException {
+		Representation representation = negotiate(request);
+		ObjectWriter writer = representation.converter().getObjectMapper().writer()
+				.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		if (!fields.isEmpty()) {
+			writer = writer.with(SparseFieldsAdvice.only(fields));
+		}
+		ObjectWriter elements = writer;
+		String uri = request.getRequestURI();
+		// Rows are read on the async thread, so only this thread's statements (security) are counted
+		SqlStatementFilter.writeServerTiming(response);
+
+		StreamingResponseBody body = out -> {
+			try (JsonGenerator generator = elements.createGenerator(out)) {
+				generator.writeStartObject();
+				generator.writeBooleanField("success", true);
+				generator.writeArrayFieldStart("data");
+				long count = rows.applyAsLong(element -> {
+					try {
+						elements.writeValue(generator, element);
+						if (generator.getOutputContext().getEntryCount() % chunkSize == 0) {
+							generator.flush();
+						}
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+				generator.writeEndArray();
+				generator.writeStringField("message", message.apply(count));
+				generator.writeFieldName("timestamp");
+				elements.writeValue(generator, LocalDateTime.now());
+				generator.writeEndObject();
+			} catch (UncheckedIOException e) {
+				log.warn("Streaming {} aborted: {}", uri, e.getCause().getMessage());
+				throw e.getCause();
+			}
+		};
+		return ResponseEntity.ok().contentType(representation.mediaType()).body(body);
+	}
+
+	private Representation negotiate(HttpServletRequest request) throws HttpMediaTypeNotAcceptableException {
+		List<AbstractJackson2HttpMessageConverter> converters = List.of(json, cbor, smile);
+		for (MediaType accepted : ACCEPT_HEADER.resolveMediaTypes(new ServletWebRequest(request))) {
+			for (AbstractJackson2HttpMessageConverter converter : converters) {
+				for (MediaType supported : converter.getSupportedMediaTypes()) {
+					if (!supported.isWildcardSubtype() && accepted.isCompatibleWith(supported)) {
+						return new Representation(converter, supported);
+					}
+				}
+			}
+		}
+		throw new HttpMediaTypeNotAcceptableException(
+				converters.stream().flatMap(converter -> converter.getSupportedMediaTypes().stream()).toList());
+	}
+
+	private record Representation(AbstractJackson2HttpMessageConverter converter, MediaType mediaType) {
+	}
+}
@@ -1,20 +1,22 @@
 CREATE TABLE batches (
-    batch_id INT AUTO_INCREMENT PRIMARY KEY,
+    batch_id INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     batch_name VARCHAR(100) NOT NULL,
-    batch_code VARCHAR(20) NOT NULL UNIQUE,
-    max_count INT NOT NULL,
+    batch_code VARCHAR(20) NOT NULL,
+    max_count INT NOT NULL CHECK (max_count >= 1),
     description VARCHAR(255),
     start_date DATE,
     end_date DATE,
     status VARCHAR(20) DEFAULT 'ACTIVE',
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
-    INDEX idx_batch_code (batch_code),
-    INDEX idx_batch_name (batch_name)
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_batch_code UNIQUE (batch_code)
 );
 
+CREATE INDEX idx_batch_code ON batches (batch_code);
+CREATE INDEX idx_batch_name ON batches (batch_name);
+
 CREATE TABLE students (
-    sid INT AUTO_INCREMENT PRIMARY KEY,
+    sid INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     sname VARCHAR(100) NOT NULL,
     email VARCHAR(50),
     phone VARCHAR(20),
@@ -22,27 +24,31 @@ CREATE TABLE students (
     intime TIMESTAMP,
     outtime TIMESTAMP,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     status VARCHAR(20) DEFAULT 'ABSENT',
     batch_id INT,
-    INDEX idx_student_name (sname),
-    INDEX idx_check_in_time (intime),
-    FOREIGN KEY (batch_id) REFERENCES batches(batch_id)
+    CONSTRAINT fk_student_batch FOREIGN KEY (batch_id) REFERENCES batches (batch_id)
 );
 
+CREATE INDEX idx_student_name ON students (sname);
+CREATE INDEX idx_check_in_time ON students (intime);
+
 CREATE TABLE users (
-    user_id INT AUTO_INCREMENT PRIMARY KEY,
-    username VARCHAR(50) NOT NULL UNIQUE,
-    email VARCHAR(100) NOT NULL UNIQUE,
+    user_id INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username VARCHAR(50) NOT NULL,
+    email VARCHAR(100) NOT NULL,
     password VARCHAR(255) NOT NULL,
-    role VARCHAR(20) NOT NULL DEFAULT 'STUDENT',
-    enabled BOOLEAN NOT NULL DEFAULT TRUE,
-    account_non_expired BOOLEAN NOT NULL DEFAULT TRUE,
-    account_non_locked BOOLEAN NOT NULL DEFAULT TRUE,
-    credentials_non_expired BOOLEAN NOT NULL DEFAULT TRUE,
+    role VARCHAR(20) DEFAULT 'STUDENT' NOT NULL,
+    enabled BOOLEAN DEFAULT TRUE NOT NULL,
+    account_non_expired BOOLEAN DEFAULT TRUE NOT NULL,
+    account_non_locked BOOLEAN DEFAULT TRUE NOT NULL,
+    credentials_non_expired BOOLEAN DEFAULT TRUE NOT NULL,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     last_login TIMESTAMP,
     student_id INT,
-    FOREIGN KEY (student_id) REFERENCES students(sid)
+    CONSTRAINT uk_user_username UNIQUE (username),
+    CONSTRAINT uk_user_email UNIQUE (email),
+    CONSTRAINT uk_user_student UNIQUE (student_id),
+    CONSTRAINT fk_user_student FOREIGN KEY (student_id) REFERENCES students (sid)
 );
@@ -0,0 +1,9 @@
+CREATE TABLE attendance_bitmaps (
+    bitmap_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    batch_id INT NOT NULL,
+    attendance_date DATE NOT NULL,
+    present_sids BLOB NOT NULL,
+    present_count INT DEFAULT 0 NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_bitmap_batch_day UNIQUE (batch_id, attendance_date)
+);
@@ -0,0 +1,13 @@
+CREATE TABLE attendance_records (
+    record_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    sid INT NOT NULL,
+    batch_id INT,
+    attendance_date DATE NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    intime TIMESTAMP,
+    outtime TIMESTAMP,
+    auto_closed BOOLEAN DEFAULT FALSE NOT NULL,
+    CONSTRAINT uk_record_student_day UNIQUE (sid, attendance_date)
+);
+
+CREATE INDEX idx_record_batch_day ON attendance_records (batch_id, attendance_date);
@@ -0,0 +1,16 @@
+-- Indexes matched to the StudentRepo queries; attendance_records,
+-- attendance_bitmaps, batches and users are covered by their keys and
+-- unique constraints.
+
+-- findByRollNumber, existsByRollNumber
+CREATE INDEX idx_student_roll_number ON students (roll_number);
+
+-- findByStatus, countByStatus
+CREATE INDEX idx_student_status ON students (status);
+
+-- findByBatch_BatchId, getStudentCountInBatch, getStudentCountsInBatches and
+-- the batch size checks (batch_id prefix), per-batch status filters
+CREATE INDEX idx_student_batch_status ON students (batch_id, status);
+
+-- findCurrentlyCheckedIn: outtime IS NULL, then the intime range
+CREATE INDEX idx_student_open_session ON students (outtime, intime);
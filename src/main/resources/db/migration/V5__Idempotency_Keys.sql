@@ -0,0 +1,15 @@
+-- Responses stored for Idempotency-Key retries (IdempotencyStore), shared by
+-- every node. The key is "<username>:<header value>"; status is NULL while the
+-- first request is still being processed.
+CREATE TABLE idempotency_keys (
+    idempotency_key VARCHAR(320) PRIMARY KEY,
+    fingerprint VARCHAR(64) NOT NULL,
+    status INT,
+    content_type VARCHAR(100),
+    body BLOB,
+    created_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL
+);
+
+-- deleteExpired
+CREATE INDEX idx_idempotency_expires ON idempotency_keys (expires_at);
@@ -1,4 +1,4 @@
--- data.sql - Initial test data for SAMS
+-- V1_1__Seed_Data.sql - Initial test data for SAMS (not applied with the prod profile)
 
 -- Insert test users
 INSERT INTO users (username, password, email, enabled, account_non_expired, account_non_locked, credentials_non_expired, role) 
@@ -0,0 +1,118 @@
+package com.nirmaan.version1;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Boots the native executable against an in-memory H2 database and walks the
+ * kiosk path: login, check-in, checkout. Covers what the JVM tests cannot:
+ * missing reflection, proxy or resource hints only fail in the image.
+ *
+ * Build with {@code mvn -Pnative package -DskipTests}, then run
+ * {@code mvn test -Pnative-smoke}.
+ */
+@Tag("native")
+class NativeImageSmokeTest {
+
+	private static final Path EXECUTABLE = Path.of("target", "sams");
+	private static final Path OUTPUT = Path.of("target", "native-smoke");
+	// Seeded by db/seed: the first student
+	private static final int SID = 1;
+
+	private final ObjectMapper mapper = new ObjectMapper();
+	private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+	private Process process;
+	private String baseUrl;
+
+	@AfterEach
+	void stop() throws InterruptedException {
+		if (process != null) {
+			process.destroy();
+			if (!process.waitFor(30, TimeUnit.SECONDS)) {
+				process.destroyForcibly();
+			}
+		}
+	}
+
+	@Test
+	void loginCheckInAndCheckOut() throws Exception {
+		assertThat(EXECUTABLE).as("native executable; build it with mvn -Pnative package").isExecutable();
+		Files.createDirectories(OUTPUT);
+		int port = freePort();
+		baseUrl = "http://localhost:" + port + "/sams/api/v1";
+
+		long started = System.nanoTime();
+		process = new ProcessBuilder(List.of(EXECUTABLE.toAbsolutePath().toString(), "--server.port=" + port,
+				"--spring.flyway.locations=classpath:db/migration,classpath:db/seed,filesystem:"
+						+ Path.of("target", "test-classes", "db", "benchmark").toAbsolutePath(),
+				"--logging.file.name=" + OUTPUT.resolve("sams.log").toAbsolutePath()))
+				.redirectErrorStream(true).redirectOutput(OUTPUT.resolve("sams.out").toFile()).start();
+
+		String token = login();
+		System.out.println("Native image answered a login after "
+				+ TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) + " ms");
+
+		JsonNode checkIn = call("PATCH", "/students/" + SID + "/checkin", token);
+		assertThat(checkIn.path("data").path("checkedIn").asBoolean()).isTrue();
+
+		JsonNode checkOut = call("PATCH", "/students/" + SID + "/checkout", token);
+		assertThat(checkOut.path("data").path("checkedIn").asBoolean()).isFalse();
+		assertThat(checkOut.path("data").path("outtime").isNull()).isFalse();
+	}
+
+	// Polls until the application is up; the benchmark user comes from the test-only migration
+	private String login() throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/auth/login"))
+				.header("Content-Type", "application/json").timeout(Duration.ofSeconds(10))
+				.POST(HttpRequest.BodyPublishers
+						.ofString("{\"username\":\"benchmark\",\"password\":\"benchmark-secret\"}"))
+				.build();
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+		while (System.nanoTime() < deadline) {
+			assertThat(process.isAlive()).as("native executable exited, see %s", OUTPUT).isTrue();
+			try {
+				HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+				assertThat(response.statusCode()).as(response.body()).isEqualTo(200);
+				return mapper.readTree(response.body()).path("data").path("token").asText();
+			} catch (ConnectException notListeningYet) {
+				Thread.sleep(20);
+			}
+		}
+		throw new AssertionError("native executable did not start within 60 s");
+	}
+
+	private JsonNode call(String method, String path, String token) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+				.header("Authorization", "Bearer " + token).timeout(Duration.ofSeconds(10))
+				.method(method, HttpRequest.BodyPublishers.noBody()).build();
+		HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+		assertThat(response.statusCode()).as("%s %s: %s", method, path, response.body()).isEqualTo(200);
+		return mapper.readTree(response.body());
+	}
+
+	private static int freePort() throws IOException {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+}
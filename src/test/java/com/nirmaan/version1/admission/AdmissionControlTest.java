@@ -0,0 +1,66 @@
+package com.nirmaan.version1.admission;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class AdmissionControlTest {
+
+	private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+	private static final long SLOW = TimeUnit.SECONDS.toNanos(1);
+
+	@Test
+	void endpointsAreClassifiedIntoLanes() {
+		assertThat(PriorityLane.of("PATCH", "/api/v1/students/42/checkin")).isEqualTo(PriorityLane.CRITICAL);
+		assertThat(PriorityLane.of("PATCH", "/api/v1/students/42/checkout")).isEqualTo(PriorityLane.CRITICAL);
+		assertThat(PriorityLane.of("GET", "/api/v1/students")).isEqualTo(PriorityLane.BULK);
+		assertThat(PriorityLane.of("GET", "/api/v1/batches/7/summary")).isEqualTo(PriorityLane.POLLED);
+		assertThat(PriorityLane.of("GET", "/api/v1/students/checked-in")).isEqualTo(PriorityLane.POLLED);
+		assertThat(PriorityLane.of("GET", "/api/v1/attendance/batches/7/trend")).isEqualTo(PriorityLane.BULK);
+		assertThat(PriorityLane.of("POST", "/api/v1/admin/backups")).isEqualTo(PriorityLane.BULK);
+		assertThat(PriorityLane.of("GET", "/api/v1/students/42")).isEqualTo(PriorityLane.STANDARD);
+		assertThat(PriorityLane.of("GET", "/api/v1/admin/backups")).isEqualTo(PriorityLane.STANDARD);
+	}
+
+	@Test
+	void limitShedsExcessAndAdaptsToLatency() {
+		AimdLimiter limiter = AimdLimiter.parse("min=2,max=4,latency=250ms,backoff=0.5");
+		for (int i = 0; i < 4; i++) {
+			assertThat(limiter.tryAcquire()).isTrue();
+		}
+		assertThat(limiter.tryAcquire()).isFalse();
+
+		// A round of slow requests cuts the limit once, not once per request
+		long started = System.nanoTime();
+		for (int i = 0; i < 4; i++) {
+			limiter.release(started, started + SLOW);
+		}
+		assertThat(limiter.getLimit()).isEqualTo(2);
+		assertThat(limiter.getInFlight()).isZero();
+
+		// Later slow requests cut again, down to the minimum
+		long later = started + SLOW + 1;
+		assertThat(limiter.tryAcquire()).isTrue();
+		limiter.release(later, later + SLOW);
+		assertThat(limiter.getLimit()).isEqualTo(2);
+
+		// Fast requests on a busy lane grow it back
+		for (int i = 0; i < 20; i++) {
+			assertThat(limiter.tryAcquire()).isTrue();
+			assertThat(limiter.tryAcquire()).isTrue();
+			limiter.release(later, later + FAST);
+			limiter.release(later, later + FAST);
+		}
+		assertThat(limiter.getLimit()).isEqualTo(4);
+	}
+
+	@Test
+	void specNeedsBounds() {
+		assertThatThrownBy(() -> AimdLimiter.parse("min=2,latency=1s")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> AimdLimiter.parse("min=5,max=2,latency=1s"))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
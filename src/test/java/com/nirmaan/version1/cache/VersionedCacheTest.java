@@ -0,0 +1,60 @@
+package com.nirmaan.version1.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+class VersionedCacheTest {
+
+	private final VersionedCache cache = new VersionedCache(
+			new CaffeineCache("batches", Caffeine.newBuilder().build()));
+
+	@Test
+	void readThatRacedAnEvictionIsNotCached() {
+		assertThat(cache.get(1)).isNull();
+		// The change commits and is evicted while the read is loading the old row
+		cache.evict(1);
+		cache.put(1, "old");
+		assertThat(cache.get(1)).isNull();
+
+		cache.put(1, "new");
+		assertThat(cache.get(1).get()).isEqualTo("new");
+	}
+
+	@Test
+	void readThatRacedAClearIsNotCached() {
+		assertThat(cache.get("all")).isNull();
+		cache.clear();
+		cache.put("all", "old");
+		assertThat(cache.get("all")).isNull();
+		assertThat(cache.get(2)).isNull();
+		cache.put(2, "current");
+		assertThat(cache.get(2).get()).isEqualTo("current");
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void failedLoadsDoNotAccumulate() {
+		// Each miss is followed by a loader that throws, so no put ever comes
+		for (int id = 0; id < 1000; id++) {
+			assertThat(cache.get(id)).isNull();
+		}
+		ThreadLocal<Map<?, ?>> lookups = (ThreadLocal<Map<?, ?>>) ReflectionTestUtils.getField(cache, "lookups");
+		assertThat(lookups.get()).hasSizeLessThanOrEqualTo(16);
+
+		// A nested load still gets its own lookup time
+		assertThat(cache.get("outer")).isNull();
+		assertThat(cache.get("inner")).isNull();
+		cache.evict("outer");
+		cache.put("inner", "inner");
+		cache.put("outer", "old");
+		assertThat(cache.get("inner").get()).isEqualTo("inner");
+		assertThat(cache.get("outer")).isNull();
+	}
+}
@@ -0,0 +1,75 @@
+package com.nirmaan.version1.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.logging.DeferredLogs;
+import org.springframework.mock.env.MockEnvironment;
+
+class DatabaseRestoreEnvironmentPostProcessorTest {
+
+	@TempDir
+	Path dir;
+
+	private final DatabaseRestoreEnvironmentPostProcessor restore = new DatabaseRestoreEnvironmentPostProcessor(
+			new DeferredLogs());
+
+	@Test
+	void restoresLatestSnapshotOnlyWhenTheDatabaseIsMissing() throws Exception {
+		Path backups = dir.resolve("backups");
+		try (Connection connection = open(); Statement statement = connection.createStatement()) {
+			statement.execute("CREATE TABLE students (sid INT PRIMARY KEY)");
+			statement.execute("INSERT INTO students VALUES (1), (2)");
+			statement.execute("BACKUP TO '" + backups.resolve("sams-20240101-120000.zip") + "'");
+			statement.execute("INSERT INTO students VALUES (3)");
+			statement.execute("BACKUP TO '" + backups.resolve("sams-20240102-120000.zip") + "'");
+		}
+		MockEnvironment environment = new MockEnvironment().withProperty("sams.database.dir", dir.toString())
+				.withProperty("sams.backup.dir", backups.toString())
+				.withProperty("sams.backup.restore-on-boot", "latest");
+
+		// An existing database is left alone
+		restore.postProcessEnvironment(environment, new SpringApplication());
+		assertThat(count()).isEqualTo(3);
+
+		Files.delete(dir.resolve("sams.mv.db"));
+		restore.postProcessEnvironment(environment, new SpringApplication());
+		assertThat(count()).isEqualTo(3);
+
+		Files.delete(dir.resolve("sams.mv.db"));
+		environment.setProperty("sams.backup.restore-on-boot", backups.resolve("sams-20240101-120000.zip").toString());
+		restore.postProcessEnvironment(environment, new SpringApplication());
+		assertThat(count()).isEqualTo(2);
+	}
+
+	@Test
+	void failsWhenTheSnapshotIsMissing() {
+		MockEnvironment environment = new MockEnvironment().withProperty("sams.database.dir", dir.toString())
+				.withProperty("sams.backup.restore-on-boot", dir.resolve("nope.zip").toString());
+		assertThatIllegalStateException()
+				.isThrownBy(() -> restore.postProcessEnvironment(environment, new SpringApplication()));
+	}
+
+	private Connection open() throws SQLException {
+		return DriverManager.getConnection("jdbc:h2:file:" + dir.resolve("sams"), "sa", "");
+	}
+
+	private int count() throws SQLException {
+		try (Connection connection = open();
+				ResultSet rows = connection.createStatement().executeQuery("SELECT COUNT(*) FROM students")) {
+			rows.next();
+			return rows.getInt(1);
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package com.nirmaan.version1.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import com.nirmaan.version1.dto.ApiResponse;
+import com.nirmaan.version1.dto.StudentResponse;
+import com.nirmaan.version1.entity.Student;
+import com.nirmaan.version1.entity.Student.AttendanceStatus;
+import com.nirmaan.version1.service.StudentService;
+
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+
+class SamsRuntimeHintsTest {
+
+	private final RuntimeHints hints = new RuntimeHints();
+
+	SamsRuntimeHintsTest() {
+		new SamsRuntimeHints().registerHints(hints, getClass().getClassLoader());
+	}
+
+	@Test
+	void registersEntitiesAndDtosIncludingBuildersAndEnums() {
+		for (Class<?> type : new Class<?>[] { Student.class, AttendanceStatus.class, ApiResponse.class,
+				StudentResponse.class, StudentResponse.StudentResponseBuilder.class }) {
+			assertThat(RuntimeHintsPredicates.reflection().onType(type)
+					.withMemberCategories(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.DECLARED_FIELDS))
+					.as(type.getName()).accepts(hints);
+		}
+		assertThat(RuntimeHintsPredicates.reflection().onType(StudentService.class)
+				.withMemberCategory(MemberCategory.INTROSPECT_DECLARED_METHODS)).accepts(hints);
+	}
+
+	@Test
+	void registersJjwtAndJdbcProxies() {
+		for (String className : SamsRuntimeHints.JJWT_IMPLEMENTATIONS) {
+			assertThat(hints.reflection().getTypeHint(TypeReference.of(className)))
+					.as(className).isNotNull();
+		}
+		assertThat(RuntimeHintsPredicates.resource().forResource("META-INF/services/io.jsonwebtoken.io.Serializer"))
+				.accepts(hints);
+		assertThat(RuntimeHintsPredicates.proxies().forInterfaces(ProxyJdbcObject.class, Connection.class))
+				.accepts(hints);
+		assertThat(RuntimeHintsPredicates.resource().forResource("db/seed/V1_1__Seed_Data.sql")).accepts(hints);
+	}
+}
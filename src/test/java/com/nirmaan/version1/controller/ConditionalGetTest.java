@@ -0,0 +1,91 @@
+package com.nirmaan.version1.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.nirmaan.version1.dto.BatchCreateRequest;
+import com.nirmaan.version1.dto.StudentCreateRequest;
+import com.nirmaan.version1.service.BatchService;
+import com.nirmaan.version1.service.StudentService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+class ConditionalGetTest {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private BatchService batchService;
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void unchangedSummaryIsNotModifiedUntilAStudentChecksIn() throws Exception {
+		Integer batchId = batchService.createBatch(BatchCreateRequest.builder().batchName("ETag batch")
+				.batchCode("ETAG-1").maxCount(5).build()).getBatchId();
+		int sid = studentService.createStudent(StudentCreateRequest.builder().sname("ETag student")
+				.rollNumber("ETAG-A").batchId(batchId).build()).getSid();
+		String summary = "/api/v1/batches/" + batchId + "/summary";
+
+		String etag = mvc.perform(get(summary)).andExpect(status().isOk()).andExpect(header().exists(HttpHeaders.ETAG))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		long serviceCalls = summaryCalls();
+		mvc.perform(get(summary).header(HttpHeaders.IF_NONE_MATCH, etag)).andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, etag)).andExpect(content().string(""));
+		assertThat(summaryCalls()).as("service calls for a 304").isEqualTo(serviceCalls);
+
+		studentService.checkIn(sid);
+		String changed = mvc.perform(get(summary).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk()).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(changed).isNotEqualTo(etag);
+
+		// The check-in does not change counts, so the batch list keeps its tag
+		String list = mvc.perform(get("/api/v1/batches")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		studentService.checkOut(sid);
+		mvc.perform(get("/api/v1/batches").header(HttpHeaders.IF_NONE_MATCH, list))
+				.andExpect(status().isNotModified());
+		mvc.perform(get("/api/v1/students/batch/" + batchId).header(HttpHeaders.IF_NONE_MATCH, changed))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void errorsCarryNoETag() throws Exception {
+		mvc.perform(get("/api/v1/batches/999999/summary")).andExpect(status().isNotFound())
+				.andExpect(header().doesNotExist(HttpHeaders.ETAG));
+	}
+
+	@Test
+	void crossOriginClientCanReadTheETag() throws Exception {
+		mvc.perform(get("/api/v1/batches").header(HttpHeaders.ORIGIN, "http://localhost:3000"))
+				.andExpect(status().isOk()).andExpect(header().exists(HttpHeaders.ETAG))
+				.andExpect(header().string(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS,
+						containsString(HttpHeaders.ETAG)));
+	}
+
+	private long summaryCalls() {
+		Timer timer = meterRegistry.find("sams.service").tag("method", "getBatchSummary").timer();
+		return timer == null ? 0 : timer.count();
+	}
+}
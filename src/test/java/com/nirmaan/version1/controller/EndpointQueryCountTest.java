@@ -0,0 +1,227 @@
+package com.nirmaan.version1.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nirmaan.version1.entity.Batch;
+import com.nirmaan.version1.entity.Batch.BatchStatus;
+import com.nirmaan.version1.entity.Student;
+import com.nirmaan.version1.entity.Student.AttendanceStatus;
+import com.nirmaan.version1.metrics.SqlStatementFilter;
+import com.nirmaan.version1.repository.BatchRepo;
+import com.nirmaan.version1.repository.StudentRepo;
+import com.nirmaan.version1.service.AttendanceBitmapService;
+import com.nirmaan.version1.service.StudentService;
+
+/**
+ * Calls every controller endpoint against a small and a large dataset and
+ * requires the same number of SQL statements for both. Any difference means
+ * the endpoint issues queries per row (N+1). Statement counts come from the
+ * Server-Timing header written by SqlStatementFilter.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+class EndpointQueryCountTest {
+
+	private static final int SMALL = 10;
+	private static final int LARGE = 1000;
+	private static final int STUDENTS_PER_BATCH = 10;
+
+	private static final Pattern STATEMENTS = Pattern.compile("desc=\"(\\d+) statements\"");
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private ObjectMapper mapper;
+
+	@Autowired
+	private StudentRepo studentRepo;
+
+	@Autowired
+	private BatchRepo batchRepo;
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private AttendanceBitmapService attendanceBitmapService;
+
+	@Test
+	void statementCountDoesNotGrowWithDatasetSize() throws Exception {
+		Map<String, Integer> small = measureEndpoints(SMALL);
+		Map<String, Integer> large = measureEndpoints(LARGE);
+
+		SoftAssertions softly = new SoftAssertions();
+		small.forEach((endpoint, count) -> softly.assertThat(large.get(endpoint))
+				.as("SQL statements for %s with %d vs %d students", endpoint, LARGE, SMALL).isEqualTo(count));
+		softly.assertAll();
+	}
+
+	private Map<String, Integer> measureEndpoints(int students) throws Exception {
+		Dataset data = seed(students);
+		Map<String, Integer> counts = new LinkedHashMap<>();
+		Integer batchId = data.batchIds.get(0);
+
+		// BatchController
+		counts.put("GET /batches", statements(get("/api/v1/batches")));
+		counts.put("GET /batches/{id}", statements(get("/api/v1/batches/" + batchId)));
+		counts.put("GET /batches/active", statements(get("/api/v1/batches/active")));
+		counts.put("GET /batches/available", statements(get("/api/v1/batches/available")));
+		counts.put("GET /batches/search", statements(get("/api/v1/batches/search").param("name", "Batch")));
+		counts.put("GET /batches/{id}/summary", statements(get("/api/v1/batches/" + batchId + "/summary")));
+
+		MvcResult created = perform(post("/api/v1/batches").contentType(MediaType.APPLICATION_JSON)
+				.content(json(Map.of("batchName", "New batch", "batchCode", "NEW" + students, "maxCount", 5))));
+		counts.put("POST /batches", statements(created));
+		int newBatchId = data(created).get("batchId").asInt();
+		counts.put("PUT /batches/{id}", statements(put("/api/v1/batches/" + newBatchId)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(json(Map.of("batchName", "Renamed batch", "batchCode", "REN" + students, "maxCount", 6)))));
+		counts.put("PATCH /batches/{id}/status",
+				statements(patch("/api/v1/batches/" + newBatchId + "/status").param("status", "INACTIVE")));
+		counts.put("DELETE /batches/{id}", statements(delete("/api/v1/batches/" + newBatchId)));
+
+		// StudentController
+		counts.put("GET /students", statements(get("/api/v1/students")));
+		counts.put("GET /students/{id}", statements(get("/api/v1/students/" + data.absentSid)));
+		counts.put("GET /students/search", statements(get("/api/v1/students/search").param("name", "Student")));
+		counts.put("GET /students/checked-in", statements(get("/api/v1/students/checked-in")));
+		counts.put("GET /students/present-today", statements(get("/api/v1/students/present-today")));
+		counts.put("GET /students/batch/{batchId}", statements(get("/api/v1/students/batch/" + batchId)));
+		counts.put("GET /students/query", statements(get("/api/v1/students/query").param("size", "500")));
+		counts.put("GET /students/{id}/attendance-summary",
+				statements(get("/api/v1/students/" + data.absentSid + "/attendance-summary")));
+
+		MvcResult enrolled = perform(post("/api/v1/students").contentType(MediaType.APPLICATION_JSON)
+				.content(json(Map.of("sname", "Enrolled student", "rollNumber", "ENR-" + students, "batchId", batchId))));
+		counts.put("POST /students", statements(enrolled));
+		int newSid = data(enrolled).get("sid").asInt();
+		counts.put("PUT /students/{id}", statements(put("/api/v1/students/" + newSid)
+				.contentType(MediaType.APPLICATION_JSON).content(json(Map.of("sname", "Transferred student",
+						"rollNumber", "ENR-" + students, "batchId", data.transferBatchId)))));
+		counts.put("PATCH /students/{id}/checkin",
+				statements(patch("/api/v1/students/" + data.absentSid + "/checkin")));
+		counts.put("PATCH /students/{id}/checkout",
+				statements(patch("/api/v1/students/" + data.checkedInSid + "/checkout")));
+		counts.put("DELETE /students/{id}", statements(delete("/api/v1/students/" + newSid)));
+
+		// AttendanceStreamController (snapshot comes from the occupancy board)
+		counts.put("GET /attendance/stream",
+				statements(get("/api/v1/attendance/stream").param("batchId", String.valueOf(batchId))));
+
+		// AttendanceReportController
+		String reportPath = "/api/v1/attendance/batches/" + batchId;
+		counts.put("GET /attendance/batches/{id}/trend", statements(get(reportPath + "/trend")));
+		counts.put("GET /attendance/batches/{id}/absentees",
+				statements(get(reportPath + "/absentees").param("from", LocalDate.now().minusDays(6).toString())));
+		counts.put("GET /attendance/batches/{id}/compare", statements(get(reportPath + "/compare")
+				.param("presentOn", LocalDate.now().toString()).param("absentOn", LocalDate.now().minusDays(1).toString())));
+
+		// AuthController
+		String username = "query-count-" + students;
+		counts.put("POST /auth/register", statements(post("/api/v1/auth/register")
+				.contentType(MediaType.APPLICATION_JSON).content(json(Map.of("username", username, "email",
+						username + "@example.com", "password", "secret1", "confirmPassword", "secret1")))));
+		counts.put("POST /auth/login", statements(post("/api/v1/auth/login").contentType(MediaType.APPLICATION_JSON)
+				.content(json(Map.of("username", username, "password", "secret1")))));
+
+		return counts;
+	}
+
+	/**
+	 * Replace all batches and students with {@code students} students spread
+	 * over batches of ten; half of each batch is checked in today.
+	 */
+	private Dataset seed(int students) {
+		studentRepo.deleteAllInBatch();
+		batchRepo.deleteAllInBatch();
+
+		Dataset data = new Dataset();
+		List<Student> roster = new ArrayList<>();
+		LocalDateTime checkInTime = LocalDate.now().atTime(8, 30);
+		for (int b = 0; b < students / STUDENTS_PER_BATCH; b++) {
+			Batch batch = batchRepo.save(Batch.builder().batchName("Batch " + b).batchCode("QC" + students + "-" + b)
+					.maxCount(STUDENTS_PER_BATCH * 2).status(BatchStatus.ACTIVE).build());
+			data.batchIds.add(batch.getBatchId());
+			for (int i = 0; i < STUDENTS_PER_BATCH; i++) {
+				boolean checkedIn = i % 2 == 0;
+				roster.add(Student.builder().sname("Student " + b + "-" + i).rollNumber("QC-" + students + "-" + b + "-" + i)
+						.intime(checkedIn ? checkInTime : null)
+						.status(checkedIn ? AttendanceStatus.PRESENT : AttendanceStatus.ABSENT).batch(batch).build());
+			}
+		}
+		Batch transferTarget = batchRepo.save(Batch.builder().batchName("Transfer target")
+				.batchCode("QCT" + students).maxCount(5).status(BatchStatus.ACTIVE).build());
+		data.transferBatchId = transferTarget.getBatchId();
+
+		List<Student> saved = studentRepo.saveAll(roster);
+		// Seeding bypasses the services, so reload the in-memory attendance state by hand
+		studentService.rebuildOccupancyBoard();
+		attendanceBitmapService.recoverToday();
+		data.checkedInSid = saved.get(0).getSid();
+		data.absentSid = saved.get(1).getSid();
+		return data;
+	}
+
+	private int statements(MockHttpServletRequestBuilder request) throws Exception {
+		return statements(perform(request));
+	}
+
+	private int statements(MvcResult result) {
+		String serverTiming = result.getResponse().getHeader(SqlStatementFilter.SERVER_TIMING);
+		assertThat(serverTiming).as("Server-Timing for %s", result.getRequest().getRequestURI()).isNotNull();
+		Matcher matcher = STATEMENTS.matcher(serverTiming);
+		assertThat(matcher.find()).as("statement count in %s", serverTiming).isTrue();
+		return Integer.parseInt(matcher.group(1));
+	}
+
+	private MvcResult perform(MockHttpServletRequestBuilder request) throws Exception {
+		MvcResult result = mvc.perform(request).andReturn();
+		assertThat(result.getResponse().getStatus()).as("%s %s: %s", result.getRequest().getMethod(),
+				result.getRequest().getRequestURI(), result.getResponse().getContentAsString()).isBetween(200, 299);
+		return result;
+	}
+
+	private JsonNode data(MvcResult result) throws Exception {
+		return mapper.readTree(result.getResponse().getContentAsString()).get("data");
+	}
+
+	private String json(Object body) throws Exception {
+		return mapper.writeValueAsString(body);
+	}
+
+	private static class Dataset {
+		private final List<Integer> batchIds = new ArrayList<>();
+		private Integer transferBatchId;
+		private Integer checkedInSid;
+		private Integer absentSid;
+	}
+}
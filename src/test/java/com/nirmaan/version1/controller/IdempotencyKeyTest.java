@@ -0,0 +1,129 @@
+package com.nirmaan.version1.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nirmaan.version1.config.CacheConfig;
+import com.nirmaan.version1.dto.BatchCreateRequest;
+import com.nirmaan.version1.dto.StudentCreateRequest;
+import com.nirmaan.version1.entity.IdempotencyRecord;
+import com.nirmaan.version1.idempotency.IdempotencyFilter;
+import com.nirmaan.version1.idempotency.IdempotencyStore;
+import com.nirmaan.version1.repository.StudentRepo;
+import com.nirmaan.version1.service.BatchService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(username = "kiosk", roles = "ADMIN")
+class IdempotencyKeyTest {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private BatchService batchService;
+
+	@Autowired
+	private StudentRepo studentRepo;
+
+	@Autowired
+	private IdempotencyStore idempotencyStore;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Test
+	void retriesReplayTheStoredResponse() throws Exception {
+		Integer batchId = batchService.createBatch(BatchCreateRequest.builder().batchName("Idempotent batch")
+				.batchCode("IDEM-1").maxCount(10).build()).getBatchId();
+		String enrollment = objectMapper.writeValueAsString(StudentCreateRequest.builder().sname("Kiosk student")
+				.rollNumber("IDEM-R1").batchId(batchId).build());
+
+		MvcResult created = mvc.perform(post("/api/v1/students").header(IdempotencyFilter.IDEMPOTENCY_KEY, "enroll-1")
+				.contentType(MediaType.APPLICATION_JSON).content(enrollment)).andExpect(status().isCreated())
+				.andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED)).andReturn();
+		MvcResult retried = mvc.perform(post("/api/v1/students").header(IdempotencyFilter.IDEMPOTENCY_KEY, "enroll-1")
+				.contentType(MediaType.APPLICATION_JSON).content(enrollment)).andExpect(status().isCreated())
+				.andExpect(header().string(IdempotencyFilter.REPLAYED, "true")).andReturn();
+		assertThat(retried.getResponse().getContentAsString()).isEqualTo(created.getResponse().getContentAsString());
+		assertThat(studentRepo.existsByRollNumber("IDEM-R1")).isTrue();
+		int sid = objectMapper.readTree(created.getResponse().getContentAsString()).get("data").get("sid").asInt();
+
+		// A retried check-in gets the first success, not "already checked in"
+		for (int attempt = 0; attempt < 2; attempt++) {
+			mvc.perform(patch("/api/v1/students/{id}/checkin", sid).header(IdempotencyFilter.IDEMPOTENCY_KEY,
+					"checkin-1")).andExpect(status().isOk());
+		}
+		mvc.perform(patch("/api/v1/students/{id}/checkin", sid)).andExpect(status().isBadRequest());
+
+		// Same key for another request
+		mvc.perform(patch("/api/v1/students/{id}/checkout", sid).header(IdempotencyFilter.IDEMPOTENCY_KEY,
+				"checkin-1")).andExpect(status().isUnprocessableEntity());
+	}
+
+	@Test
+	void keyBeingProcessedIsAConflictAndClientErrorsAreStored() throws Exception {
+		String batch = objectMapper.writeValueAsString(BatchCreateRequest.builder().batchName("Claimed batch")
+				.batchCode("IDEM-2").maxCount(10).build());
+		// Claimed as if another node were still processing it
+		IdempotencyStore.Claim claim = idempotencyStore.claim("kiosk:batch-1", "other");
+		assertThat(claim.isOwned()).isTrue();
+		mvc.perform(post("/api/v1/batches").header(IdempotencyFilter.IDEMPOTENCY_KEY, "batch-1")
+				.contentType(MediaType.APPLICATION_JSON).content(batch)).andExpect(status().isConflict());
+		idempotencyStore.abandon(claim);
+		mvc.perform(post("/api/v1/batches").header(IdempotencyFilter.IDEMPOTENCY_KEY, "batch-1")
+				.contentType(MediaType.APPLICATION_JSON).content(batch)).andExpect(status().isCreated());
+
+		mvc.perform(patch("/api/v1/students/{id}/checkin", Integer.MAX_VALUE)
+				.header(IdempotencyFilter.IDEMPOTENCY_KEY, "missing-1")).andExpect(status().isNotFound());
+		mvc.perform(patch("/api/v1/students/{id}/checkin", Integer.MAX_VALUE)
+				.header(IdempotencyFilter.IDEMPOTENCY_KEY, "missing-1"))
+				.andExpect(status().isNotFound()).andExpect(header().string(IdempotencyFilter.REPLAYED, "true"));
+	}
+
+	@Test
+	void onlyTheOwningClaimCompletesOrAbandonsTheKey() {
+		IdempotencyStore.Claim owner = idempotencyStore.claim("kiosk:takeover-1", "fp");
+		// A request whose claim was taken over after the lock timeout
+		IdempotencyStore.Claim previous = new IdempotencyStore.Claim("kiosk:takeover-1", "fp",
+				owner.claimedAt().minusMinutes(5), null);
+
+		idempotencyStore.abandon(previous);
+		idempotencyStore.complete(previous, 500, null, null);
+		assertThat(idempotencyStore.claim("kiosk:takeover-1", "fp").existing().isCompleted()).isFalse();
+
+		idempotencyStore.complete(owner, 201, MediaType.APPLICATION_JSON_VALUE, "{}".getBytes());
+		assertThat(idempotencyStore.claim("kiosk:takeover-1", "fp").existing().getStatus()).isEqualTo(201);
+	}
+
+	@Test
+	void expiredCachedRecordIsNotReplayed() {
+		// Cached by this node, then expired and purged everywhere
+		LocalDateTime claimedAt = LocalDateTime.now().minusHours(25);
+		cacheManager.getCache(CacheConfig.IDEMPOTENT_RESPONSES).put("kiosk:expired-1",
+				IdempotencyRecord.builder().key("kiosk:expired-1").fingerprint("fp").status(201)
+						.createdAt(claimedAt).expiresAt(claimedAt.plusHours(24)).build());
+
+		assertThat(idempotencyStore.claim("kiosk:expired-1", "fp").isOwned()).isTrue();
+		assertThat(cacheManager.getCache(CacheConfig.IDEMPOTENT_RESPONSES).get("kiosk:expired-1")).isNull();
+	}
+}
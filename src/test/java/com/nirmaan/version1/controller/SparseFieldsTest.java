@@ -0,0 +1,90 @@
+package com.nirmaan.version1.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.nirmaan.version1.dto.BatchCreateRequest;
+import com.nirmaan.version1.dto.StudentCreateRequest;
+import com.nirmaan.version1.dto.StudentResponse;
+import com.nirmaan.version1.fields.StudentField;
+import com.nirmaan.version1.service.BatchService;
+import com.nirmaan.version1.service.StudentService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+class SparseFieldsTest {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private BatchService batchService;
+
+	@Autowired
+	private StudentService studentService;
+
+	@Test
+	void fieldsLimitStudentAndBatchProperties() throws Exception {
+		Integer batchId = batchService.createBatch(BatchCreateRequest.builder().batchName("Fields batch")
+				.batchCode("FIELDS-1").maxCount(5).build()).getBatchId();
+		int sid = studentService.createStudent(StudentCreateRequest.builder().sname("Fields student")
+				.rollNumber("FIELDS-A").batchId(batchId).build()).getSid();
+		studentService.checkIn(sid);
+
+		mvc.perform(get("/api/v1/students/batch/" + batchId).param("fields", "sid, batchCode,checkedIn"))
+				.andExpect(status().isOk()).andExpect(jsonPath("$.data[0].sid").value(sid))
+				.andExpect(jsonPath("$.data[0].batchCode").value("FIELDS-1"))
+				.andExpect(jsonPath("$.data[0].checkedIn").value(true))
+				.andExpect(jsonPath("$.data[0].sname").doesNotExist())
+				.andExpect(jsonPath("$.data[0].status").doesNotExist());
+
+		// Streamed: the body is written after the async dispatch
+		MvcResult all = mvc.perform(get("/api/v1/students").param("fields", "sname")).andReturn();
+		mvc.perform(asyncDispatch(all)).andExpect(jsonPath("$.data[?(@.sname == 'Fields student')]").exists())
+				.andExpect(jsonPath("$.data[0].sid").doesNotExist());
+
+		mvc.perform(get("/api/v1/batches/" + batchId).param("fields", "batchCode,full"))
+				.andExpect(jsonPath("$.data.batchCode").value("FIELDS-1"))
+				.andExpect(jsonPath("$.data.full").value(false))
+				.andExpect(jsonPath("$.data.batchName").doesNotExist());
+
+		// Without the parameter nothing is filtered
+		mvc.perform(get("/api/v1/students/" + sid)).andExpect(jsonPath("$.data.email").hasJsonPath())
+				.andExpect(jsonPath("$.data.batchName").value("Fields batch"));
+	}
+
+	@Test
+	void unknownFieldIsABadRequest() throws Exception {
+		mvc.perform(get("/api/v1/students").param("fields", "sid,password")).andExpect(status().isBadRequest());
+		mvc.perform(get("/api/v1/batches").param("fields", "students")).andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void studentFieldsCoverEveryResponseProperty() {
+		List<String> properties = objectMapper.getSerializationConfig()
+				.introspect(objectMapper.constructType(StudentResponse.class)).findProperties().stream()
+				.map(BeanPropertyDefinition::getName).toList();
+		assertThat(Arrays.stream(StudentField.values()).map(StudentField::getProperty))
+				.containsExactlyInAnyOrderElementsOf(properties);
+	}
+}
@@ -0,0 +1,97 @@
+package com.nirmaan.version1.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nirmaan.version1.dto.BatchCreateRequest;
+import com.nirmaan.version1.dto.StudentCreateRequest;
+import com.nirmaan.version1.service.BatchService;
+import com.nirmaan.version1.service.StudentService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+class StudentQueryTest {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private BatchService batchService;
+
+	@Autowired
+	private StudentService studentService;
+
+	@Test
+	void combinesOnlyTheGivenCriteriaAndPagesByKeyset() throws Exception {
+		Integer batchId = batchService.createBatch(BatchCreateRequest.builder().batchName("Query batch")
+				.batchCode("QUERY-1").maxCount(20).build()).getBatchId();
+		List<Integer> sids = IntStream.range(0, 7).mapToObj(i -> studentService.createStudent(StudentCreateRequest
+				.builder().sname("Query student " + i).rollNumber("QUERY-" + i).batchId(batchId).build()).getSid())
+				.toList();
+		// Three on site, one of them already gone home
+		sids.subList(0, 3).forEach(studentService::checkIn);
+		studentService.checkOut(sids.get(2));
+
+		JsonNode onSite = query(get("/api/v1/students/query").param("batchId", batchId.toString())
+				.param("checkedIn", "true"));
+		assertThat(sids(onSite)).containsExactly(sids.get(0), sids.get(1));
+
+		JsonNode byName = query(get("/api/v1/students/query").param("namePrefix", "Query student 6"));
+		assertThat(sids(byName)).containsExactly(sids.get(6));
+		assertThat(byName.get("content").get(0).get("batchName").asText()).isEqualTo("Query batch");
+
+		// Without batch fields the batch is not fetched, but its ID is still there
+		JsonNode narrow = query(get("/api/v1/students/query").param("batchId", batchId.toString())
+				.param("fields", "sid,batchId"));
+		assertThat(narrow.get("content").get(0).get("batchId").asInt()).isEqualTo(batchId);
+		assertThat(narrow.get("content").get(0).has("batchName")).isFalse();
+
+		List<Integer> paged = new ArrayList<>();
+		String after = null;
+		do {
+			MockHttpServletRequestBuilder request = get("/api/v1/students/query")
+					.param("batchId", batchId.toString()).param("size", "3");
+			JsonNode page = query(after == null ? request : request.param("after", after));
+			assertThat(page.get("size").asInt()).isLessThanOrEqualTo(3);
+			paged.addAll(sids(page));
+			after = page.get("nextAfter").isNull() ? null : page.get("nextAfter").asText();
+		} while (after != null);
+		assertThat(paged).isEqualTo(sids);
+	}
+
+	@Test
+	void rejectsAnEmptyCheckInRange() throws Exception {
+		mvc.perform(get("/api/v1/students/query").param("checkedInFrom", "2025-01-06T09:30")
+				.param("checkedInTo", "2025-01-06T09:00")).andExpect(status().isBadRequest());
+	}
+
+	private JsonNode query(MockHttpServletRequestBuilder request) throws Exception {
+		String body = mvc.perform(request).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body).get("data");
+	}
+
+	private static List<Integer> sids(JsonNode page) {
+		List<Integer> sids = new ArrayList<>();
+		page.get("content").forEach(student -> sids.add(student.get("sid").asInt()));
+		return sids;
+	}
+}
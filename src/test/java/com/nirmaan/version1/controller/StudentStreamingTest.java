@@ -0,0 +1,69 @@
+package com.nirmaan.version1.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nirmaan.version1.dto.StudentCreateRequest;
+import com.nirmaan.version1.service.StudentService;
+
+// Chunk size far below the roster, so every response spans several flushes
+@SpringBootTest(properties = "sams.streaming.chunk-size=3")
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+class StudentStreamingTest {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private MappingJackson2CborHttpMessageConverter cbor;
+
+	@Autowired
+	private StudentService studentService;
+
+	@Test
+	void streamsTheWholeRosterInTheUsualEnvelope() throws Exception {
+		IntStream.range(0, 10).forEach(i -> studentService.createStudent(
+				StudentCreateRequest.builder().sname("Streamed student " + i).rollNumber("STREAM-" + i).build()));
+
+		JsonNode json = objectMapper.readTree(stream(MediaType.APPLICATION_JSON));
+		int students = json.get("data").size();
+		assertThat(students).isGreaterThanOrEqualTo(10);
+		assertThat(json.get("success").asBoolean()).isTrue();
+		assertThat(json.get("message").asText()).isEqualTo("Retrieved " + students + " students");
+		assertThat(json.get("data").get(0).has("batchName")).isTrue();
+		assertThat(json.get("timestamp").isTextual()).isTrue();
+
+		JsonNode decoded = cbor.getObjectMapper().readTree(stream(MediaType.APPLICATION_CBOR));
+		assertThat(decoded.get("data")).isEqualTo(json.get("data"));
+		assertThat(decoded.get("message")).isEqualTo(json.get("message"));
+	}
+
+	private byte[] stream(MediaType accept) throws Exception {
+		MvcResult started = mvc.perform(get("/api/v1/students").header(HttpHeaders.ACCEPT, accept))
+				.andExpect(request().asyncStarted()).andReturn();
+		MvcResult result = mvc.perform(asyncDispatch(started)).andReturn();
+		assertThat(result.getResponse().getContentType()).isEqualTo(accept.toString());
+		return result.getResponse().getContentAsByteArray();
+	}
+}
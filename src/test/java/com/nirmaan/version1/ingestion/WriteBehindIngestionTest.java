@@ -0,0 +1,248 @@
+package com.nirmaan.version1.ingestion;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import com.nirmaan.version1.dto.BatchCreateRequest;
+import com.nirmaan.version1.dto.StudentCreateRequest;
+import com.nirmaan.version1.dto.StudentResponse;
+import com.nirmaan.version1.entity.Student;
+import com.nirmaan.version1.entity.Student.AttendanceStatus;
+import com.nirmaan.version1.event.AttendanceChangedEvent;
+import com.nirmaan.version1.exception.InvalidOperationException;
+import com.nirmaan.version1.fields.StudentField;
+import com.nirmaan.version1.repository.StudentRepo;
+import com.nirmaan.version1.service.BatchService;
+import com.nirmaan.version1.service.StudentService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(properties = { "sams.ingestion.journal.enabled=true",
+		"sams.ingestion.journal.dir=target/journal-${random.uuid}" })
+class WriteBehindIngestionTest {
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private BatchService batchService;
+
+	@Autowired
+	private StudentRepo studentRepo;
+
+	@Autowired
+	private WriteBehindIngestion writeBehind;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	private RowAtEvent rowAtEvent;
+
+	@TempDir
+	private Path journalDir;
+
+	// Records the intime the database holds when each check-in event reaches after-commit listeners
+	static class RowAtEvent {
+
+		private final Map<Integer, LocalDateTime> intimes = new ConcurrentHashMap<>();
+
+		@Autowired
+		private JdbcTemplate jdbcTemplate;
+
+		@TransactionalEventListener
+		public void onAttendanceChanged(AttendanceChangedEvent event) {
+			if (event.getType() == AttendanceChangedEvent.Type.CHECKED_IN) {
+				intimes.put(event.getSid(), jdbcTemplate.queryForObject("SELECT intime FROM students WHERE sid = ?",
+						LocalDateTime.class, event.getSid()));
+			}
+		}
+	}
+
+	@TestConfiguration
+	static class Listeners {
+
+		@Bean
+		RowAtEvent rowAtEvent() {
+			return new RowAtEvent();
+		}
+	}
+
+	@Test
+	void checkInIsReadBackBeforeItIsWritten() {
+		Integer batchId = batchService.createBatch(BatchCreateRequest.builder().batchName("Journal batch")
+				.batchCode("JRN-1").maxCount(10).build()).getBatchId();
+		int sid = studentService.createStudent(StudentCreateRequest.builder().sname("Journal student")
+				.rollNumber("JRN-R1").batchId(batchId).build()).getSid();
+
+		StudentResponse checkedIn = studentService.checkIn(sid);
+		assertThat(checkedIn.isCheckedIn()).isTrue();
+		assertThat(studentService.getStudentById(sid).getIntime()).isEqualTo(checkedIn.getIntime());
+		assertThat(studentService.getStudentsByBatchId(batchId, EnumSet.of(StudentField.SID, StudentField.CHECKED_IN)))
+				.singleElement().extracting(StudentResponse::isCheckedIn).isEqualTo(true);
+		// Validated against the journaled state, not the row
+		assertThatThrownBy(() -> studentService.checkIn(sid)).isInstanceOf(InvalidOperationException.class);
+		StudentResponse checkedOut = studentService.checkOut(sid);
+
+		writeBehind.awaitDrained();
+		Student stored = studentRepo.findById(sid).orElseThrow();
+		assertThat(stored.getIntime()).isEqualTo(checkedIn.getIntime());
+		assertThat(stored.getOuttime()).isEqualTo(checkedOut.getOuttime());
+		assertThat(stored.getStatus().name()).isEqualTo(checkedIn.getStatus());
+		// Published by the writer, so listeners already read the written row
+		assertThat(rowAtEvent.intimes).containsEntry(sid, checkedIn.getIntime());
+	}
+
+	@Test
+	void startReplaysJournaledEntriesIntoTheDatabase() throws Exception {
+		int sid = studentService.createStudent(StudentCreateRequest.builder().sname("Replayed student")
+				.rollNumber("JRN-R2").build()).getSid();
+		LocalDateTime intime = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+		try (AttendanceJournal journal = new AttendanceJournal(journalDir, DataSize.ofMegabytes(1).toBytes(), true)) {
+			journal.append(new JournalEntry(0, JournalEntry.Type.CHECK_IN, sid, intime, AttendanceStatus.LATE));
+			journal.append(new JournalEntry(0, JournalEntry.Type.CHECK_OUT, sid, intime.plusHours(1), null));
+		}
+
+		// A restart with the mode switched off still writes what was journaled
+		WriteBehindIngestion restarted = new WriteBehindIngestion();
+		ReflectionTestUtils.setField(restarted, "jdbcTemplate", jdbcTemplate);
+		ReflectionTestUtils.setField(restarted, "transactionTemplate", transactionTemplate);
+		ReflectionTestUtils.setField(restarted, "meterRegistry", meterRegistry);
+		ReflectionTestUtils.setField(restarted, "eventPublisher", eventPublisher);
+		ReflectionTestUtils.setField(restarted, "dir", journalDir);
+		ReflectionTestUtils.setField(restarted, "segmentSize", DataSize.ofMegabytes(1));
+		ReflectionTestUtils.setField(restarted, "fsync", true);
+		ReflectionTestUtils.setField(restarted, "batchSize", 500);
+		restarted.start();
+		assertThat(restarted.isEnabled()).isFalse();
+
+		Student stored = studentRepo.findById(sid).orElseThrow();
+		assertThat(stored.getIntime()).isEqualTo(intime);
+		assertThat(stored.getOuttime()).isEqualTo(intime.plusHours(1));
+		assertThat(stored.getStatus()).isEqualTo(AttendanceStatus.LATE);
+		try (AttendanceJournal journal = new AttendanceJournal(journalDir, DataSize.ofMegabytes(1).toBytes(), true)) {
+			assertThat(journal.recovered()).isEmpty();
+		}
+	}
+
+	@Test
+	void concurrentChangesReachTheWriterInSequenceOrder() throws Exception {
+		// No writer thread: the queue is inspected directly
+		WriteBehindIngestion ingestion = new WriteBehindIngestion();
+		BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+		ReflectionTestUtils.setField(ingestion, "journal",
+				new AttendanceJournal(journalDir, DataSize.ofMegabytes(1).toBytes(), false));
+		ReflectionTestUtils.setField(ingestion, "queue", queue);
+
+		int threads = 16;
+		int perThread = 200;
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> done = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			int first = t * perThread + 1;
+			done.add(pool.submit(() -> {
+				start.await();
+				// Consecutive sids, so every thread crosses every stripe
+				for (int sid = first; sid < first + perThread; sid++) {
+					int id = sid;
+					ingestion.apply(id, () -> Student.builder().sid(id).status(AttendanceStatus.ABSENT).build(),
+							JournalEntry.Type.CHECK_IN, student -> {
+								student.setIntime(LocalDateTime.now());
+								student.setStatus(AttendanceStatus.PRESENT);
+							}, student -> StudentResponse.builder().sid(student.getSid()).build());
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> future : done) {
+			future.get(30, TimeUnit.SECONDS);
+		}
+		pool.shutdown();
+
+		// Whatever prefix the writer takes, checkpointing its last sequence covers only written entries
+		List<Long> sequences = queue.stream()
+				.map(queued -> ((JournalEntry) ReflectionTestUtils.invokeMethod(queued, "entry")).seq()).toList();
+		assertThat(sequences).hasSize(threads * perThread);
+		for (int i = 0; i < sequences.size(); i++) {
+			assertThat(sequences.get(i)).as("entry %d in the queue", i).isEqualTo(i + 1L);
+		}
+		assertThat(ReflectionTestUtils.getField(ingestion, "appendedSeq")).isEqualTo((long) threads * perThread);
+	}
+
+	@Test
+	void reopenedJournalReplaysEntriesAfterTheCheckpointUpToATornRecord() throws Exception {
+		LocalDateTime now = LocalDateTime.now();
+		// Two records per segment
+		try (AttendanceJournal journal = new AttendanceJournal(journalDir, 2 * JournalEntry.SIZE, true)) {
+			for (int sid = 1; sid <= 3; sid++) {
+				JournalEntry entry = journal.append(
+						new JournalEntry(0, JournalEntry.Type.CHECK_IN, sid, now, AttendanceStatus.PRESENT));
+				journal.sync(entry.seq());
+			}
+			journal.checkpoint(1);
+		}
+		// The third record, alone in the second segment, was only half written
+		try (RandomAccessFile torn = new RandomAccessFile(segments().get(1).toFile(), "rw")) {
+			torn.seek(20);
+			torn.writeInt(0);
+		}
+
+		try (AttendanceJournal journal = new AttendanceJournal(journalDir, 2 * JournalEntry.SIZE, true)) {
+			assertThat(journal.recovered()).containsExactly(
+					new JournalEntry(2, JournalEntry.Type.CHECK_IN, 2, now, AttendanceStatus.PRESENT));
+			assertThat(journal.append(new JournalEntry(0, JournalEntry.Type.CHECK_OUT, 2, now, null)).seq())
+					.isEqualTo(3);
+			journal.checkpoint(3);
+			assertThat(segments()).hasSize(1);
+		}
+	}
+
+	private List<Path> segments() throws Exception {
+		try (Stream<Path> files = Files.list(journalDir)) {
+			return files.filter(file -> file.getFileName().toString().endsWith(".log")).sorted().toList();
+		}
+	}
+}
@@ -0,0 +1,362 @@
+package com.nirmaan.version1.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nirmaan.version1.entity.Student;
+import com.nirmaan.version1.repository.StudentRepo;
+
+/**
+ * Replays the 9 AM check-in storm against the application on a random port.
+ *
+ * A pool of teachers logs in through the auth API, students are enrolled in a
+ * concurrent burst that deliberately overshoots batch capacity, and then an
+ * open-model load generator fires check-ins, check-outs and dashboard reads at
+ * a fixed arrival rate. Latency is measured from the intended send time so a
+ * stalled server is not hidden by coordinated omission.
+ *
+ * Run with {@code mvn test -Pload-test}; every knob is a {@code load.*} system
+ * property (see the constants below). Percentile distributions are printed and
+ * written as .hgrm files under {@code target/load-test}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.jpa.show-sql=false",
+		"logging.level.com.nirmaan=INFO",
+		"logging.level.org.springframework.security=INFO",
+		"logging.level.org.hibernate.SQL=WARN",
+		"logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN" })
+class CheckInStormLoadTest {
+
+	private static final int USERS = Integer.getInteger("load.users", 20);
+	private static final int BATCHES = Integer.getInteger("load.batches", 8);
+	private static final int STUDENTS_PER_BATCH = Integer.getInteger("load.studentsPerBatch", 50);
+	// Extra enrollment attempts per batch beyond capacity, all of which must be rejected
+	private static final int OVERBOOKING = Integer.getInteger("load.overbooking", 5);
+	private static final double ARRIVAL_RATE = Double.parseDouble(System.getProperty("load.arrivalRate", "50"));
+	private static final int DURATION_SECONDS = Integer.getInteger("load.durationSeconds", 10);
+	private static final double CHECKOUT_RATIO = Double.parseDouble(System.getProperty("load.checkoutRatio", "0.2"));
+	private static final double READ_RATIO = Double.parseDouble(System.getProperty("load.readRatio", "0.3"));
+	// Kiosk double taps: check-in requests re-sent for a student that was just submitted
+	private static final double DOUBLE_TAP_RATIO = Double.parseDouble(System.getProperty("load.doubleTapRatio", "0.05"));
+	private static final long P99_THRESHOLD_MS = Long.getLong("load.p99ThresholdMillis", 500L);
+	private static final double MAX_ERROR_RATE = Double.parseDouble(System.getProperty("load.maxErrorRate", "0.0"));
+
+	private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+	enum Operation {
+		CHECK_IN, CHECK_OUT, READ_CHECKED_IN, READ_BATCH_SUMMARY
+	}
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private StudentRepo studentRepo;
+
+	private final ObjectMapper mapper = new ObjectMapper();
+	private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+			.connectTimeout(Duration.ofSeconds(5)).build();
+
+	private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+	private final Map<Operation, AtomicLong> rejections = new EnumMap<>(Operation.class);
+	private final Map<Operation, AtomicLong> errors = new EnumMap<>(Operation.class);
+	private final Histogram overall = new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3);
+
+	private final Map<Integer, AtomicInteger> successfulCheckIns = new ConcurrentHashMap<>();
+	private final ConcurrentLinkedQueue<Integer> checkedIn = new ConcurrentLinkedQueue<>();
+	private final ConcurrentLinkedQueue<Integer> recentlyTapped = new ConcurrentLinkedQueue<>();
+
+	private List<String> tokens;
+	private List<Integer> batchIds;
+	private List<Integer> studentIds;
+
+	@Test
+	void checkInStormMeetsLatencyAndCorrectnessThresholds() throws Exception {
+		for (Operation op : Operation.values()) {
+			histograms.put(op, new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3));
+			rejections.put(op, new AtomicLong());
+			errors.put(op, new AtomicLong());
+		}
+
+		String runId = Long.toString(System.currentTimeMillis(), 36);
+		tokens = loginUserPool(runId);
+		batchIds = createBatches(runId);
+		studentIds = enrollStudents(runId);
+
+		long elapsedNanos = runStorm();
+
+		report(elapsedNanos);
+		assertCorrectness();
+		assertThresholds();
+	}
+
+	/**
+	 * Register and then log in the pool of teachers through the auth endpoints
+	 */
+	private List<String> loginUserPool(String runId) throws Exception {
+		List<CompletableFuture<String>> logins = new ArrayList<>();
+		for (int i = 0; i < USERS; i++) {
+			String username = "load-" + runId + "-" + i;
+			Map<String, Object> register = Map.of("username", username, "email", username + "@load.test",
+					"password", "storm-pass", "confirmPassword", "storm-pass", "role", "TEACHER");
+			logins.add(send("POST", "/api/v1/auth/register", null, register)
+					.thenCompose(r -> send("POST", "/api/v1/auth/login", null,
+							Map.of("username", username, "password", "storm-pass")))
+					.thenApply(r -> data(r, 200).get("token").asText()));
+		}
+		return join(logins);
+	}
+
+	private List<Integer> createBatches(String runId) throws Exception {
+		List<Integer> ids = new ArrayList<>();
+		for (int i = 0; i < BATCHES; i++) {
+			Map<String, Object> batch = Map.of("batchName", "Load batch " + i, "batchCode", "L" + runId + i,
+					"maxCount", STUDENTS_PER_BATCH);
+			ids.add(data(send("POST", "/api/v1/batches", token(), batch).get(), 201).get("batchId").asInt());
+		}
+		return ids;
+	}
+
+	/**
+	 * Enroll students in a concurrent burst that overshoots every batch by
+	 * OVERBOOKING attempts; the overshoot must be rejected, not admitted.
+	 */
+	private List<Integer> enrollStudents(String runId) throws Exception {
+		List<CompletableFuture<HttpResponse<String>>> requests = new ArrayList<>();
+		int perBatch = STUDENTS_PER_BATCH + OVERBOOKING;
+		for (int b = 0; b < batchIds.size(); b++) {
+			for (int i = 0; i < perBatch; i++) {
+				Map<String, Object> student = Map.of("sname", "Storm student " + b + "-" + i,
+						"rollNumber", "LT-" + runId + "-" + b + "-" + i, "batchId", batchIds.get(b));
+				requests.add(send("POST", "/api/v1/students", token(), student));
+			}
+		}
+
+		List<Integer> ids = new ArrayList<>();
+		for (HttpResponse<String> response : join(requests)) {
+			if (response.statusCode() == 201) {
+				ids.add(data(response, 201).get("sid").asInt());
+			} else {
+				assertThat(response.statusCode()).as("enrollment rejection status: %s", response.body())
+						.isEqualTo(400);
+			}
+		}
+		Collections.shuffle(ids);
+		return ids;
+	}
+
+	/**
+	 * Open-model generator: requests are released on a fixed schedule whether or
+	 * not earlier ones have completed, and latency counts from the scheduled time.
+	 */
+	private long runStorm() throws Exception {
+		long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ARRIVAL_RATE);
+		long total = (long) (ARRIVAL_RATE * DURATION_SECONDS);
+		AtomicInteger nextStudent = new AtomicInteger();
+		List<CompletableFuture<Void>> inFlight = new ArrayList<>();
+
+		long start = System.nanoTime();
+		for (long i = 0; i < total; i++) {
+			long intended = start + i * intervalNanos;
+			long wait = intended - System.nanoTime();
+			if (wait > 0) {
+				LockSupport.parkNanos(wait);
+			}
+			inFlight.add(fire(pickOperation(), intended, nextStudent));
+		}
+		CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).get(2, TimeUnit.MINUTES);
+		return System.nanoTime() - start;
+	}
+
+	private Operation pickOperation() {
+		double roll = ThreadLocalRandom.current().nextDouble();
+		if (roll < READ_RATIO) {
+			return roll < READ_RATIO / 2 ? Operation.READ_CHECKED_IN : Operation.READ_BATCH_SUMMARY;
+		}
+		if (roll < READ_RATIO + CHECKOUT_RATIO && !checkedIn.isEmpty()) {
+			return Operation.CHECK_OUT;
+		}
+		return Operation.CHECK_IN;
+	}
+
+	private CompletableFuture<Void> fire(Operation op, long intended, AtomicInteger nextStudent) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		Integer sid;
+		CompletableFuture<HttpResponse<String>> call;
+		switch (op) {
+		case CHECK_IN -> {
+			Integer retapped = random.nextDouble() < DOUBLE_TAP_RATIO ? recentlyTapped.peek() : null;
+			int next = retapped == null ? nextStudent.getAndIncrement() : -1;
+			sid = retapped != null ? retapped : studentIds.get(next % studentIds.size());
+			recentlyTapped.add(sid);
+			if (recentlyTapped.size() > 32) {
+				recentlyTapped.poll();
+			}
+			call = send("PATCH", "/api/v1/students/" + sid + "/checkin", token(), null);
+		}
+		case CHECK_OUT -> {
+			sid = checkedIn.poll();
+			call = sid == null ? send("GET", "/api/v1/students/checked-in", token(), null)
+					: send("PATCH", "/api/v1/students/" + sid + "/checkout", token(), null);
+		}
+		case READ_CHECKED_IN -> {
+			sid = null;
+			call = send("GET", "/api/v1/students/checked-in", token(), null);
+		}
+		default -> {
+			sid = null;
+			call = send("GET", "/api/v1/batches/" + batchIds.get(random.nextInt(batchIds.size())) + "/summary",
+					token(), null);
+		}
+		}
+
+		return call.handle((response, failure) -> {
+			long latency = Math.min(System.nanoTime() - intended, HIGHEST_TRACKABLE_NANOS);
+			histograms.get(op).recordValue(latency);
+			overall.recordValue(latency);
+			if (failure != null || response.statusCode() >= 500) {
+				errors.get(op).incrementAndGet();
+			} else if (response.statusCode() >= 400) {
+				rejections.get(op).incrementAndGet();
+			} else if (op == Operation.CHECK_IN) {
+				successfulCheckIns.computeIfAbsent(sid, k -> new AtomicInteger()).incrementAndGet();
+				checkedIn.add(sid);
+			}
+			return null;
+		});
+	}
+
+	private void report(long elapsedNanos) throws IOException {
+		Path dir = Path.of("target", "load-test");
+		Files.createDirectories(dir);
+		PrintStream out = System.out;
+		double seconds = elapsedNanos / 1e9;
+
+		out.println();
+		out.println("=== 9 AM check-in storm: " + ARRIVAL_RATE + " req/s for " + DURATION_SECONDS + "s ===");
+		out.printf("%-20s %8s %10s %10s %10s %10s %8s %8s%n", "operation", "count", "p50(ms)", "p99(ms)",
+				"p999(ms)", "max(ms)", "4xx", "errors");
+		for (Operation op : Operation.values()) {
+			printRow(out, op.name(), histograms.get(op), rejections.get(op).get(), errors.get(op).get());
+			try (PrintStream file = new PrintStream(dir.resolve(op.name().toLowerCase() + ".hgrm").toFile())) {
+				histograms.get(op).outputPercentileDistribution(file, 1_000_000.0);
+			}
+		}
+		printRow(out, "ALL", overall, totalOf(rejections), totalOf(errors));
+		out.printf("throughput: %.1f req/s over %.1fs%n", overall.getTotalCount() / seconds, seconds);
+
+		out.println("--- overall latency distribution (ms) ---");
+		overall.outputPercentileDistribution(out, 1_000_000.0);
+		try (PrintStream file = new PrintStream(dir.resolve("overall.hgrm").toFile())) {
+			overall.outputPercentileDistribution(file, 1_000_000.0);
+		}
+	}
+
+	private void printRow(PrintStream out, String name, Histogram h, long rejected, long failed) {
+		out.printf("%-20s %8d %10.2f %10.2f %10.2f %10.2f %8d %8d%n", name, h.getTotalCount(),
+				h.getValueAtPercentile(50) / 1e6, h.getValueAtPercentile(99) / 1e6,
+				h.getValueAtPercentile(99.9) / 1e6, h.getMaxValue() / 1e6, rejected, failed);
+	}
+
+	private void assertCorrectness() throws Exception {
+		successfulCheckIns.forEach((sid, count) -> assertThat(count.get())
+				.as("successful check-ins for student %d", sid).isEqualTo(1));
+
+		for (Integer batchId : batchIds) {
+			JsonNode batch = data(send("GET", "/api/v1/batches/" + batchId, token(), null).get(), 200);
+			int enrolled = data(send("GET", "/api/v1/students/batch/" + batchId, token(), null).get(), 200).size();
+			assertThat(enrolled).as("students enrolled in batch %d", batchId)
+					.isLessThanOrEqualTo(batch.get("maxCount").asInt())
+					.isEqualTo(batch.get("currentCount").asInt());
+		}
+
+		// The in-memory occupancy board must agree with the database once the storm is over
+		JsonNode board = data(send("GET", "/api/v1/students/checked-in", token(), null).get(), 200);
+		assertThat(StreamSupport.stream(board.spliterator(), false).map(s -> s.get("sid").asInt())
+				.collect(Collectors.toSet())).as("checked-in students on the occupancy board")
+				.isEqualTo(studentRepo.findCurrentlyCheckedIn().stream().map(Student::getSid)
+						.collect(Collectors.toSet()));
+	}
+
+	private void assertThresholds() {
+		long requests = overall.getTotalCount();
+		assertThat(totalOf(errors)).as("server errors").isLessThanOrEqualTo((long) (requests * MAX_ERROR_RATE));
+		for (Operation op : List.of(Operation.CHECK_IN, Operation.CHECK_OUT)) {
+			double p99 = histograms.get(op).getValueAtPercentile(99) / 1e6;
+			assertThat(p99).as("%s p99 latency (ms)", op).isLessThanOrEqualTo(P99_THRESHOLD_MS);
+		}
+	}
+
+	private CompletableFuture<HttpResponse<String>> send(String method, String path, String token, Object body) {
+		try {
+			HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/sams" + path))
+					.timeout(Duration.ofSeconds(30)).header("Content-Type", "application/json");
+			if (token != null) {
+				request.header("Authorization", "Bearer " + token);
+			}
+			request.method(method, body == null ? HttpRequest.BodyPublishers.noBody()
+					: HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body)));
+			return client.sendAsync(request.build(), HttpResponse.BodyHandlers.ofString());
+		} catch (IOException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+
+	private JsonNode data(HttpResponse<String> response, int expectedStatus) {
+		assertThat(response.statusCode()).as("%s %s: %s", response.request().method(), response.uri(),
+				response.body()).isEqualTo(expectedStatus);
+		try {
+			return mapper.readTree(response.body()).get("data");
+		} catch (IOException e) {
+			throw new IllegalStateException("Unreadable response from " + response.uri(), e);
+		}
+	}
+
+	private String token() {
+		return tokens.get(ThreadLocalRandom.current().nextInt(tokens.size()));
+	}
+
+	private static <T> List<T> join(List<CompletableFuture<T>> futures) throws Exception {
+		CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(2, TimeUnit.MINUTES);
+		return futures.stream().map(CompletableFuture::join).toList();
+	}
+
+	private static long totalOf(Map<Operation, AtomicLong> counters) {
+		return counters.values().stream().mapToLong(AtomicLong::get).sum();
+	}
+}
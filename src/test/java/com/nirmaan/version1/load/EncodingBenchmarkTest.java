@@ -0,0 +1,171 @@
+package com.nirmaan.version1.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nirmaan.version1.dto.ApiResponse;
+import com.nirmaan.version1.dto.StudentResponse;
+import com.nirmaan.version1.entity.Batch.BatchStatus;
+import com.nirmaan.version1.entity.Student.AttendanceStatus;
+import com.nirmaan.version1.service.StudentService;
+
+/**
+ * Bytes on the wire and serialization CPU of GET /api/v1/students with 50k
+ * students, for each negotiable encoding, raw and gzipped (as Tomcat's
+ * compression would send it). Encode and decode times are thread CPU time for
+ * the whole ApiResponse with the application's own converters, median of
+ * encoding.runs runs after a warm-up.
+ *
+ * Run with {@code mvn test -Pencoding-benchmark}; results are printed and
+ * written to {@code target/encoding-benchmark/results.txt}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = { "spring.jpa.show-sql=false", "logging.level.org.hibernate.SQL=WARN",
+		"logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN", "logging.level.com.nirmaan=INFO" })
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+class EncodingBenchmarkTest {
+
+	private static final int STUDENTS = Integer.getInteger("encoding.students", 50_000);
+	private static final int BATCHES = 100;
+	private static final int RUNS = Integer.getInteger("encoding.runs", 15);
+	private static final int WARMUP = 5;
+	private static final Path OUTPUT = Path.of("target", "encoding-benchmark");
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private MappingJackson2HttpMessageConverter json;
+
+	@Autowired
+	private MappingJackson2CborHttpMessageConverter cbor;
+
+	@Autowired
+	private MappingJackson2SmileHttpMessageConverter smile;
+
+	private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+	@Test
+	void comparesEncodingsForAllStudents() throws Exception {
+		seed();
+		Map<MediaType, ObjectMapper> encodings = new LinkedHashMap<>();
+		encodings.put(MediaType.APPLICATION_JSON, json.getObjectMapper());
+		encodings.put(MediaType.APPLICATION_CBOR, cbor.getObjectMapper());
+		encodings.put(new MediaType("application", "x-jackson-smile"), smile.getObjectMapper());
+
+		List<StudentResponse> students = new ArrayList<>();
+		studentService.streamAllStudents(Set.of(), students::add);
+		ApiResponse<List<StudentResponse>> body = ApiResponse.success("All students", students);
+		StringBuilder report = new StringBuilder(String.format("%-28s %12s %12s %10s %10s%n", "encoding", "bytes",
+				"gzip bytes", "encode ms", "decode ms"));
+		for (Map.Entry<MediaType, ObjectMapper> encoding : encodings.entrySet()) {
+			MvcResult streamed = mvc.perform(get("/api/v1/students").header(HttpHeaders.ACCEPT, encoding.getKey()))
+					.andReturn();
+			byte[] wire = mvc.perform(asyncDispatch(streamed)).andReturn().getResponse().getContentAsByteArray();
+			ObjectMapper mapper = encoding.getValue();
+			JavaType type = mapper.getTypeFactory().constructParametricType(ApiResponse.class,
+					mapper.getTypeFactory().constructCollectionType(List.class, StudentResponse.class));
+			ApiResponse<List<StudentResponse>> decoded = mapper.readValue(wire, type);
+			assertThat(decoded.getData()).hasSize(body.getData().size());
+
+			byte[] encoded = mapper.writeValueAsBytes(body);
+			long encodeNanos = medianCpuNanos(() -> mapper.writeValueAsBytes(body));
+			long decodeNanos = medianCpuNanos(() -> mapper.readValue(encoded, type));
+			report.append(String.format("%-28s %12d %12d %10.1f %10.1f%n", encoding.getKey(), wire.length,
+					gzip(wire).length, encodeNanos / 1e6, decodeNanos / 1e6));
+		}
+
+		System.out.println("GET /api/v1/students with " + body.getData().size() + " students");
+		System.out.print(report);
+		Files.createDirectories(OUTPUT);
+		Files.writeString(OUTPUT.resolve("results.txt"), report);
+	}
+
+	private void seed() {
+		LocalDateTime now = LocalDateTime.now();
+		jdbcTemplate.batchUpdate(
+				"INSERT INTO batches (batch_name, batch_code, max_count, status, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)",
+				IntStream.range(0, BATCHES).mapToObj(i -> new Object[] { "Encoding batch " + i, "ENC-" + i, STUDENTS,
+						BatchStatus.ACTIVE.name(), now, now }).toList());
+		List<Integer> batchIds = jdbcTemplate.queryForList(
+				"SELECT batch_id FROM batches WHERE batch_code LIKE 'ENC-%' ORDER BY batch_id", Integer.class);
+		// A fifth checked in, the rest absent, like a morning roster
+		jdbcTemplate.batchUpdate(
+				"INSERT INTO students (sname, email, phone, roll_number, status, batch_id, intime, created_at, updated_at) "
+						+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+				IntStream.range(0, STUDENTS).mapToObj(i -> {
+					boolean present = i % 5 == 0;
+					return new Object[] { "Encoding student " + i, "student" + i + "@example.com",
+							String.format("98%08d", i), "ENC-R" + i,
+							present ? AttendanceStatus.PRESENT.name() : AttendanceStatus.ABSENT.name(),
+							batchIds.get(i % BATCHES), present ? now.minusMinutes(i % 90) : null, now.minusDays(30),
+							now };
+				}).toList());
+	}
+
+	private long medianCpuNanos(ThrowingRunnable work) throws Exception {
+		List<Long> samples = new ArrayList<>();
+		for (int run = 0; run < WARMUP + RUNS; run++) {
+			long started = threads.getCurrentThreadCpuTime();
+			work.run();
+			long elapsed = threads.getCurrentThreadCpuTime() - started;
+			if (run >= WARMUP) {
+				samples.add(elapsed);
+			}
+		}
+		return samples.stream().sorted().toList().get(samples.size() / 2);
+	}
+
+	private static byte[] gzip(byte[] data) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(data);
+		}
+		return out.toByteArray();
+	}
+
+	@FunctionalInterface
+	private interface ThrowingRunnable {
+		void run() throws Exception;
+	}
+}
@@ -0,0 +1,140 @@
+package com.nirmaan.version1.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Time from JVM launch to the first 200 from POST /api/v1/auth/login, for
+ * each way of starting the application:
+ * <ul>
+ * <li>baseline: test classpath, every bean created eagerly</li>
+ * <li>lazy: test classpath, spring.main.lazy-initialization=true</li>
+ * <li>aot+cds: the jar built by {@code mvn -Pfast-startup package}, with the
+ * AOT-generated context and the CDS archive (skipped when it has not been
+ * built)</li>
+ * </ul>
+ *
+ * Run with {@code mvn test -Pstartup-benchmark [-Dstartup.runs=5]}. Each mode
+ * is started startup.runs times in a fresh JVM against its own in-memory
+ * database; medians are printed and written to
+ * {@code target/startup-benchmark/results.txt}.
+ */
+@Tag("benchmark")
+class StartupBenchmarkTest {
+
+	private static final int RUNS = Integer.getInteger("startup.runs", 3);
+	private static final Duration TIMEOUT = Duration.ofSeconds(Long.getLong("startup.timeoutSeconds", 180L));
+
+	private static final Path OUTPUT = Path.of("target", "startup-benchmark");
+	private static final Path APPLICATION = Path.of("target", "application");
+	private static final String LOGIN = "{\"username\":\"benchmark\",\"password\":\"benchmark-secret\"}";
+
+	private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+	@Test
+	void recordsTimeToFirstSuccessfulLogin() throws Exception {
+		Files.createDirectories(OUTPUT);
+		String classpath = System.getProperty("surefire.test.class.path", System.getProperty("java.class.path"));
+
+		Map<String, List<String>> modes = new LinkedHashMap<>();
+		// DevTools is on the test classpath but not in the packaged jar; its restart classloader would skew the comparison
+		modes.put("baseline", List.of("-Dspring.devtools.restart.enabled=false", "-cp", classpath,
+				"com.nirmaan.version1.SamsApplication"));
+		modes.put("lazy", List.of("-Dspring.devtools.restart.enabled=false", "-cp", classpath,
+				"com.nirmaan.version1.SamsApplication", "--spring.main.lazy-initialization=true"));
+		Path jar = APPLICATION.resolve("SAMS-0.0.1-SNAPSHOT.jar");
+		Path archive = APPLICATION.resolve("application.jsa");
+		if (Files.exists(jar) && Files.exists(archive)) {
+			modes.put("aot+cds", List.of("-XX:SharedArchiveFile=" + archive.toAbsolutePath(), "-Xlog:cds=off",
+					"-Dspring.aot.enabled=true", "-jar", jar.toAbsolutePath().toString()));
+		} else {
+			System.out.println("No AOT/CDS build in " + APPLICATION + " (mvn -Pfast-startup package); skipping that mode");
+		}
+
+		StringBuilder report = new StringBuilder(String.format("%-10s %10s %10s %10s%n", "mode", "median ms",
+				"min ms", "max ms"));
+		for (Map.Entry<String, List<String>> mode : modes.entrySet()) {
+			List<Long> millis = new ArrayList<>();
+			for (int run = 0; run < RUNS; run++) {
+				millis.add(timeToFirstLogin(mode.getKey() + "-" + run, mode.getValue()));
+			}
+			List<Long> sorted = millis.stream().sorted().toList();
+			report.append(String.format("%-10s %10d %10d %10d%n", mode.getKey(), sorted.get(sorted.size() / 2),
+					sorted.get(0), sorted.get(sorted.size() - 1)));
+		}
+
+		System.out.println("Time to first 200 on /api/v1/auth/login (" + RUNS + " runs per mode)");
+		System.out.print(report);
+		Files.writeString(OUTPUT.resolve("results.txt"), report);
+	}
+
+	private long timeToFirstLogin(String name, List<String> launch) throws Exception {
+		int port = freePort();
+		List<String> command = new ArrayList<>();
+		command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+		command.addAll(launch);
+		command.addAll(List.of("--server.port=" + port,
+				"--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+				"--spring.flyway.locations=classpath:db/migration,classpath:db/seed,filesystem:"
+						+ Path.of("target", "test-classes", "db", "benchmark").toAbsolutePath(),
+				"--spring.jpa.show-sql=false",
+				"--logging.level.root=WARN",
+				"--logging.level.com.nirmaan=WARN",
+				"--logging.level.org.springframework.security=WARN",
+				"--logging.level.org.hibernate.SQL=WARN",
+				"--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+				"--logging.file.name=" + OUTPUT.resolve(name + ".log").toAbsolutePath()));
+
+		HttpRequest login = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/sams/api/v1/auth/login"))
+				.header("Content-Type", "application/json").timeout(Duration.ofSeconds(10))
+				.POST(HttpRequest.BodyPublishers.ofString(LOGIN)).build();
+
+		long started = System.nanoTime();
+		Process process = new ProcessBuilder(command).redirectErrorStream(true)
+				.redirectOutput(OUTPUT.resolve(name + ".out").toFile()).start();
+		try {
+			while (System.nanoTime() - started < TIMEOUT.toNanos()) {
+				assertThat(process.isAlive()).as("%s exited early, see %s", name, OUTPUT).isTrue();
+				try {
+					if (client.send(login, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+						return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+					}
+				} catch (ConnectException notListeningYet) {
+					// keep polling
+				}
+				Thread.sleep(20);
+			}
+			throw new AssertionError(name + " did not answer a login within " + TIMEOUT);
+		} finally {
+			process.destroy();
+			if (!process.waitFor(30, TimeUnit.SECONDS)) {
+				process.destroyForcibly();
+			}
+		}
+	}
+
+	private static int freePort() throws IOException {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+}
@@ -0,0 +1,128 @@
+package com.nirmaan.version1.occupancy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.nirmaan.version1.dto.StudentResponse;
+import com.nirmaan.version1.event.AttendanceChangedEvent;
+import com.nirmaan.version1.event.AttendanceChangedEvent.Type;
+
+class OccupancyBoardTest {
+
+	private final OccupancyBoard board = new OccupancyBoard();
+
+	@Test
+	void countersFollowCheckInCheckOutTransferAndRemoval() {
+		board.rebuild(LocalDate.now(), List::of);
+
+		board.onAttendanceChanged(event(Type.CHECKED_IN, student(1, 10, true)));
+		board.onAttendanceChanged(event(Type.CHECKED_IN, student(2, 10, true)));
+		// Replayed event must not double count
+		board.onAttendanceChanged(event(Type.CHECKED_IN, student(2, 10, true)));
+		board.onAttendanceChanged(event(Type.CHECKED_OUT, student(1, 10, false)));
+
+		assertThat(board.checkedIn()).extracting(StudentResponse::getSid).containsExactly(2);
+		assertThat(board.presentToday()).extracting(StudentResponse::getSid).containsExactly(1, 2);
+		assertThat(board.presentInBatch(10)).isEqualTo(2);
+		assertThat(board.checkedInInBatch(10)).isEqualTo(1);
+
+		board.onAttendanceChanged(new AttendanceChangedEvent(Type.UPDATED, student(2, 20, true), 10));
+		assertThat(board.presentInBatch(10)).isEqualTo(1);
+		assertThat(board.presentInBatch(20)).isEqualTo(1);
+		assertThat(board.checkedInInBatch(20)).isEqualTo(1);
+
+		board.onAttendanceChanged(event(Type.REMOVED, student(2, 20, true)));
+		assertThat(board.checkedInCount()).isZero();
+		assertThat(board.presentInBatch(20)).isZero();
+		assertThat(board.presentToday()).extracting(StudentResponse::getSid).containsExactly(1);
+	}
+
+	@Test
+	void rebuildKeepsCarriedOverSessionsAndDropsYesterdaysPresence() {
+		StudentResponse stillIn = student(1, 10, true);
+		stillIn.setIntime(LocalDateTime.now().minusDays(1));
+		StudentResponse leftYesterday = student(2, 10, false);
+		leftYesterday.setIntime(LocalDateTime.now().minusDays(1));
+
+		board.rebuild(LocalDate.now(), () -> List.of(stillIn, leftYesterday, student(3, 10, true)));
+
+		assertThat(board.checkedIn()).extracting(StudentResponse::getSid).containsExactly(1, 3);
+		assertThat(board.presentToday()).extracting(StudentResponse::getSid).containsExactly(3);
+		assertThat(board.isStale(LocalDate.now())).isFalse();
+		assertThat(board.isStale(LocalDate.now().plusDays(1))).isTrue();
+	}
+
+	@Test
+	void eventsPublishedDuringRebuildAreReplayedOntoTheNewBoard() {
+		board.rebuild(LocalDate.now(), () -> {
+			// Committed after the loader read the database
+			board.onAttendanceChanged(event(Type.CHECKED_IN, student(7, 10, true)));
+			return List.of(student(1, 10, true));
+		});
+
+		assertThat(board.checkedIn()).extracting(StudentResponse::getSid).containsExactly(1, 7);
+		assertThat(board.checkedInInBatch(10)).isEqualTo(2);
+	}
+
+	@Test
+	void concurrentSetAndClearKeepCardinalityExact() throws Exception {
+		ConcurrentBitSet bits = new ConcurrentBitSet();
+		int threads = 8;
+		int perThread = 20_000;
+		AtomicInteger flips = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		List<Runnable> tasks = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			tasks.add(() -> {
+				await(start);
+				// Every thread races on the same ids, spanning several segments
+				for (int i = 0; i < perThread; i++) {
+					if (bits.set(i * 7)) {
+						flips.incrementAndGet();
+					}
+				}
+			});
+		}
+		tasks.forEach(pool::execute);
+		start.countDown();
+		pool.shutdown();
+		assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+		assertThat(flips.get()).isEqualTo(perThread);
+		assertThat(bits.cardinality()).isEqualTo(perThread);
+		assertThat(bits.get(7 * 12_345)).isTrue();
+		assertThat(bits.get(7 * 12_345 + 1)).isFalse();
+		assertThat(bits.clear(7)).isTrue();
+		assertThat(bits.clear(7)).isFalse();
+		assertThat(bits.cardinality()).isEqualTo(perThread - 1);
+	}
+
+	private static AttendanceChangedEvent event(Type type, StudentResponse student) {
+		return new AttendanceChangedEvent(type, student);
+	}
+
+	private static StudentResponse student(int sid, int batchId, boolean checkedIn) {
+		return StudentResponse.builder().sid(sid).sname("Student " + sid).batchId(batchId)
+				.intime(LocalDateTime.now()).checkedIn(checkedIn).status("PRESENT").build();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
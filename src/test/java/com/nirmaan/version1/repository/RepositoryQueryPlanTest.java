@@ -0,0 +1,295 @@
+package com.nirmaan.version1.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.nirmaan.version1.dto.StudentQuery;
+import com.nirmaan.version1.entity.Batch.BatchStatus;
+import com.nirmaan.version1.entity.Student.AttendanceStatus;
+import com.nirmaan.version1.entity.User.UserRole;
+import com.nirmaan.version1.fields.StudentField;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Tuple;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+
+/**
+ * Runs every declared repository query against a seeded database, EXPLAINs
+ * the SQL it issued and fails when the plan scans a large table instead of
+ * using an index. Rolled back afterwards, so the seed never leaks into other
+ * tests sharing the context.
+ */
+@SpringBootTest
+@Transactional
+class RepositoryQueryPlanTest {
+
+	private static final int BATCHES = 50;
+	private static final int STUDENTS = 5000;
+
+	// Tables seeded past the point where a full scan matters
+	private static final Set<String> LARGE_TABLES = Set.of("STUDENTS", "ATTENDANCE_RECORDS");
+
+	// Queries that read the whole table by design
+	private static final Map<String, String> ALLOWED_SCANS = Map.of(
+			"StudentRepo.findBySnameContainingIgnoreCase", "infix LIKE cannot use a B-tree index");
+
+	private static final List<Class<?>> REPOSITORIES = List.of(StudentRepo.class, BatchRepo.class, UserRepo.class,
+			AttendanceRecordRepo.class, AttendanceBitmapRepo.class);
+
+	private static final Pattern TABLE_SCAN = Pattern.compile("/\\* PUBLIC\\.(\\w+)\\.tableScan \\*/");
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private StudentRepo studentRepo;
+
+	@Autowired
+	private BatchRepo batchRepo;
+
+	@Autowired
+	private UserRepo userRepo;
+
+	@Autowired
+	private AttendanceRecordRepo attendanceRecordRepo;
+
+	@Autowired
+	private AttendanceBitmapRepo attendanceBitmapRepo;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private final List<QueryInfo> captured = new ArrayList<>();
+
+	private final QueryExecutionListener capture = new QueryExecutionListener() {
+		@Override
+		public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		}
+
+		@Override
+		public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+			captured.addAll(queryInfoList);
+		}
+	};
+
+	private Integer batchId;
+	private Integer sid;
+
+	@BeforeEach
+	void seed() {
+		LocalDateTime now = LocalDateTime.now();
+		jdbcTemplate.batchUpdate(
+				"INSERT INTO batches (batch_name, batch_code, max_count, status, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)",
+				IntStream.range(0, BATCHES).mapToObj(i -> new Object[] { "Plan batch " + i, "PLAN-" + i, STUDENTS,
+						BatchStatus.ACTIVE.name(), now, now }).toList());
+		List<Integer> batchIds = jdbcTemplate.queryForList(
+				"SELECT batch_id FROM batches WHERE batch_code LIKE 'PLAN-%' ORDER BY batch_id", Integer.class);
+
+		// A tenth checked in today and still on site, a tenth checked out, the rest absent
+		jdbcTemplate.batchUpdate(
+				"INSERT INTO students (sname, roll_number, status, batch_id, intime, outtime, created_at, updated_at) "
+						+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+				IntStream.range(0, STUDENTS).mapToObj(i -> {
+					LocalDateTime intime = i % 10 < 2 ? now.minusMinutes(i % 60) : null;
+					LocalDateTime outtime = i % 10 == 1 ? now : null;
+					String status = intime == null ? AttendanceStatus.ABSENT.name() : AttendanceStatus.PRESENT.name();
+					return new Object[] { "Plan student " + i, "PLAN-R" + i, status, batchIds.get(i % BATCHES), intime,
+							outtime, now.minusDays(30), now };
+				}).toList());
+		jdbcTemplate.update("INSERT INTO attendance_records (sid, batch_id, attendance_date, status, auto_closed) "
+				+ "SELECT sid, batch_id, ?, ?, FALSE FROM students WHERE roll_number LIKE 'PLAN-R%'",
+				LocalDate.now().minusDays(1), AttendanceStatus.ABSENT.name());
+
+		batchId = batchIds.get(0);
+		sid = jdbcTemplate.queryForObject("SELECT MIN(sid) FROM students WHERE roll_number LIKE 'PLAN-R%'",
+				Integer.class);
+		((ProxyDataSource) dataSource).getProxyConfig().getQueryListener().addListener(capture);
+	}
+
+	@AfterEach
+	void stopCapture() {
+		((ProxyDataSource) dataSource).getProxyConfig().getQueryListener().getListeners().remove(capture);
+		// The seed is rolled back; nothing loaded from it may stay in the second-level cache
+		entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+	}
+
+	@Test
+	void everyRepositoryQueryIsCovered() {
+		Set<String> invoked = queries().keySet();
+		List<String> missing = REPOSITORIES.stream()
+				.flatMap(repo -> Arrays.stream(repo.getDeclaredMethods())
+						.filter(method -> !method.isSynthetic() && !method.isDefault())
+						.map(Method::getName).map(name -> repo.getSimpleName() + "." + name))
+				.filter(name -> !invoked.contains(name)).distinct().toList();
+		assertThat(missing).as("repository queries without a plan check").isEmpty();
+	}
+
+	@Test
+	void noQueryScansALargeTable() throws Exception {
+		List<String> violations = new ArrayList<>();
+		for (Map.Entry<String, Runnable> query : queries().entrySet()) {
+			// Every query must reach the database, not the persistence context or the second-level cache
+			entityManager.clear();
+			entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+			captured.clear();
+			query.getValue().run();
+			List<QueryInfo> statements = List.copyOf(captured);
+			assertThat(statements).as("SQL issued by %s", query.getKey()).isNotEmpty();
+
+			for (QueryInfo statement : statements) {
+				String plan = explain(statement);
+				Matcher scan = TABLE_SCAN.matcher(plan);
+				while (scan.find()) {
+					if (LARGE_TABLES.contains(scan.group(1)) && !ALLOWED_SCANS.containsKey(query.getKey())) {
+						violations.add(query.getKey() + " scans " + scan.group(1) + ":\n" + plan);
+					}
+				}
+			}
+		}
+		assertThat(violations).as("queries scanning a large table").isEmpty();
+	}
+
+	// One call per declared query, keyed Repo.method
+	private Map<String, Runnable> queries() {
+		LocalDate today = LocalDate.now();
+		LocalDateTime dayStart = today.atStartOfDay();
+		LocalDateTime dayEnd = today.plusDays(1).atStartOfDay();
+		LocalDateTime now = LocalDateTime.now();
+
+		Map<String, Runnable> queries = new LinkedHashMap<>();
+		queries.put("StudentRepo.findByRollNumber", () -> studentRepo.findByRollNumber("PLAN-R42"));
+		queries.put("StudentRepo.findBySnameContainingIgnoreCase", () -> studentRepo.findBySnameContainingIgnoreCase("42"));
+		queries.put("StudentRepo.findCurrentlyCheckedIn", () -> studentRepo.findCurrentlyCheckedIn());
+		queries.put("StudentRepo.findCheckedInBetween", () -> studentRepo.findCheckedInBetween(dayStart, dayEnd));
+		queries.put("StudentRepo.existsByRollNumber", () -> studentRepo.existsByRollNumber("PLAN-R42"));
+		queries.put("StudentRepo.findByBatch_BatchId", () -> studentRepo.findByBatch_BatchId(batchId));
+		queries.put("StudentRepo.findWithBatchBySid", () -> studentRepo.findWithBatchBySid(sid));
+		queries.put("StudentRepo.findByIdForUpdate", () -> studentRepo.findByIdForUpdate(sid));
+		queries.put("StudentRepo.findMinSid", () -> studentRepo.findMinSid());
+		queries.put("StudentRepo.findMaxSid", () -> studentRepo.findMaxSid());
+		queries.put("StudentRepo.closeOpenSessions",
+				() -> studentRepo.closeOpenSessions(sid, sid + 100, dayStart, dayEnd, now, now));
+		queries.put("StudentRepo.closeStaleSessions",
+				() -> studentRepo.closeStaleSessions(sid, sid + 100, dayStart, now));
+		queries.put("StudentRepo.resetStatus",
+				() -> studentRepo.resetStatus(sid, sid + 100, AttendanceStatus.ABSENT, now));
+		queries.put("StudentRepo.findFields", () -> studentRepo.findFields(
+				EnumSet.of(StudentField.SID, StudentField.STATUS, StudentField.BATCH_NAME), batchId));
+		// Specification queries behind GET /students/query, one keyset page each
+		queries.put("StudentRepo.findBy(status, batchId)", () -> page(StudentQuery.builder()
+				.status(AttendanceStatus.PRESENT).batchIds(List.of(batchId)).build()));
+		queries.put("StudentRepo.findBy(checkedInFrom, checkedInTo)", () -> page(StudentQuery.builder()
+				.checkedInFrom(now.minusMinutes(30)).checkedInTo(now.minusMinutes(20)).build()));
+		queries.put("StudentRepo.findBy(checkedIn)", () -> page(StudentQuery.builder().checkedIn(true).build()));
+		queries.put("StudentRepo.findBy(namePrefix)",
+				() -> page(StudentQuery.builder().namePrefix("Plan student 42").build()));
+		queries.put("StudentRepo.streamFields", () -> {
+			try (Stream<Tuple> rows = studentRepo.streamFields(EnumSet.allOf(StudentField.class), batchId, 100)) {
+				rows.forEach(row -> { });
+			}
+		});
+
+		queries.put("BatchRepo.findByBatchCode", () -> batchRepo.findByBatchCode("PLAN-7"));
+		queries.put("BatchRepo.existsByBatchCode", () -> batchRepo.existsByBatchCode("PLAN-7"));
+		queries.put("BatchRepo.findByBatchNameContainingIgnoreCase",
+				() -> batchRepo.findByBatchNameContainingIgnoreCase("7"));
+		queries.put("BatchRepo.findByStatus", () -> batchRepo.findByStatus(BatchStatus.ACTIVE));
+		queries.put("BatchRepo.findActiveBatches", () -> batchRepo.findActiveBatches());
+		queries.put("BatchRepo.findBatchesWithAvailableSlots", () -> batchRepo.findBatchesWithAvailableSlots());
+		queries.put("BatchRepo.findFullBatches", () -> batchRepo.findFullBatches());
+		queries.put("BatchRepo.countByStatus", () -> batchRepo.countByStatus(BatchStatus.ACTIVE));
+		queries.put("BatchRepo.findByIdWithStudents", () -> batchRepo.findByIdWithStudents(batchId));
+		queries.put("BatchRepo.findByIdForUpdate", () -> batchRepo.findByIdForUpdate(batchId));
+		queries.put("BatchRepo.findAllWithStudents", () -> batchRepo.findAllWithStudents());
+		queries.put("BatchRepo.getStudentCountInBatch", () -> batchRepo.getStudentCountInBatch(batchId));
+		queries.put("BatchRepo.getStudentCountsInBatches",
+				() -> batchRepo.getStudentCountsInBatches(List.of(batchId, batchId + 1)));
+
+		queries.put("UserRepo.findByUsername", () -> userRepo.findByUsername("admin"));
+		queries.put("UserRepo.findByEmail", () -> userRepo.findByEmail("admin@sams.com"));
+		queries.put("UserRepo.existsByUsername", () -> userRepo.existsByUsername("admin"));
+		queries.put("UserRepo.existsByEmail", () -> userRepo.existsByEmail("admin@sams.com"));
+		queries.put("UserRepo.countByRole", () -> userRepo.countByRole(UserRole.ADMIN));
+
+		queries.put("AttendanceRecordRepo.getAttendanceSummary", () -> attendanceRecordRepo.getAttendanceSummary(sid));
+		queries.put("AttendanceRecordRepo.archivePresent", () -> attendanceRecordRepo.archivePresent(sid, sid + 100,
+				today, dayStart, dayEnd, today.atTime(18, 0)));
+		queries.put("AttendanceRecordRepo.archiveAbsent", () -> attendanceRecordRepo.archiveAbsent(sid, sid + 100,
+				today, dayStart, dayEnd, AttendanceStatus.ABSENT));
+
+		queries.put("AttendanceBitmapRepo.findByBatchIdAndAttendanceDate",
+				() -> attendanceBitmapRepo.findByBatchIdAndAttendanceDate(batchId, today));
+		queries.put("AttendanceBitmapRepo.findByBatchIdAndAttendanceDateBetweenOrderByAttendanceDate",
+				() -> attendanceBitmapRepo.findByBatchIdAndAttendanceDateBetweenOrderByAttendanceDate(batchId,
+						today.minusDays(30), today));
+		queries.put("AttendanceBitmapRepo.deleteByBatchId", () -> attendanceBitmapRepo.deleteByBatchId(batchId));
+		return queries;
+	}
+
+	private void page(StudentQuery query) {
+		studentRepo.findBy(StudentSpecifications.matching(query).and(StudentSpecifications.fetchBatch()),
+				q -> q.sortBy(Sort.by("sid")).limit(50).scroll(ScrollPosition.keyset()));
+	}
+
+	// Plan of a captured statement, with the parameters it was executed with
+	private String explain(QueryInfo statement) throws Exception {
+		captured.clear();
+		Connection connection = DataSourceUtils.getConnection(dataSource);
+		try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + statement.getQuery())) {
+			if (!statement.getParametersList().isEmpty()) {
+				for (ParameterSetOperation parameter : statement.getParametersList().get(0)) {
+					parameter.getMethod().invoke(explain, parameter.getArgs());
+				}
+			}
+			try (ResultSet plan = explain.executeQuery()) {
+				if (!plan.next()) {
+					throw new SQLException("No plan for " + statement.getQuery());
+				}
+				return plan.getString(1);
+			}
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package com.nirmaan.version1.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.nirmaan.version1.dto.BatchCreateRequest;
+import com.nirmaan.version1.entity.Batch;
+import com.nirmaan.version1.service.BatchService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Not transactional: every repository call gets its own session, as in a request
+@SpringBootTest
+class SecondLevelCacheTest {
+
+	@Autowired
+	private UserRepo userRepo;
+
+	@Autowired
+	private BatchRepo batchRepo;
+
+	@Autowired
+	private BatchService batchService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void resetCache() {
+		SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+		sessionFactory.getCache().evictAllRegions();
+		statistics = sessionFactory.getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void repeatedUsernameLookupsSkipTheDatabase() {
+		assertThat(userRepo.findByUsername("john.doe")).isPresent();
+		long firstLookup = statistics.getPrepareStatementCount();
+		assertThat(firstLookup).isPositive();
+
+		for (int i = 0; i < 5; i++) {
+			assertThat(userRepo.findByUsername("john.doe")).isPresent();
+		}
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(firstLookup);
+		assertThat(statistics.getNaturalIdCacheHitCount()).isEqualTo(5);
+		assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(5);
+	}
+
+	@Test
+	void batchCodeChangesMoveTheCachedNaturalId() {
+		Integer batchId = batchService.createBatch(BatchCreateRequest.builder().batchName("L2 batch")
+				.batchCode("L2-OLD").maxCount(5).build()).getBatchId();
+		assertThat(batchRepo.findByBatchCode("L2-OLD")).map(Batch::getBatchId).contains(batchId);
+
+		batchService.updateBatch(batchId, BatchCreateRequest.builder().batchName("L2 batch renamed")
+				.batchCode("L2-NEW").maxCount(5).build());
+
+		assertThat(batchRepo.findByBatchCode("L2-OLD")).isEmpty();
+		assertThat(batchRepo.findByBatchCode("L2-NEW")).map(Batch::getBatchName).contains("L2 batch renamed");
+		assertThat(batchRepo.findById(batchId)).map(Batch::getBatchCode).contains("L2-NEW");
+	}
+}
@@ -0,0 +1,127 @@
+package com.nirmaan.version1.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.nirmaan.version1.dto.AbsenteeResponse;
+import com.nirmaan.version1.dto.BatchAttendanceDay;
+import com.nirmaan.version1.dto.BatchCreateRequest;
+import com.nirmaan.version1.dto.StudentCreateRequest;
+import com.nirmaan.version1.dto.StudentResponse;
+import com.nirmaan.version1.entity.AttendanceBitmap;
+import com.nirmaan.version1.repository.AttendanceBitmapRepo;
+
+@SpringBootTest
+class AttendanceBitmapServiceTest {
+
+	@Autowired
+	private AttendanceBitmapService attendanceBitmapService;
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private BatchService batchService;
+
+	@Autowired
+	private AttendanceBitmapRepo bitmapRepo;
+
+	@Test
+	void reportsCombineStoredDaysWithTodaysCheckIns() {
+		Integer batchId = batchService.createBatch(BatchCreateRequest.builder().batchName("Bitmap batch")
+				.batchCode("BMP-1").maxCount(10).build()).getBatchId();
+		int alice = enroll(batchId, "BMP-A");
+		int bob = enroll(batchId, "BMP-B");
+		int carol = enroll(batchId, "BMP-C");
+
+		// Two earlier sessions: everyone came to the first, only Alice to the second
+		LocalDate today = LocalDate.now();
+		store(batchId, today.minusDays(2), alice, bob, carol);
+		store(batchId, today.minusDays(1), alice);
+		studentService.checkIn(alice);
+		studentService.checkIn(carol);
+
+		List<BatchAttendanceDay> trend = attendanceBitmapService.getBatchTrend(batchId, 3);
+		assertThat(trend).extracting(BatchAttendanceDay::getPresent).containsExactly(3, 1, 2);
+		assertThat(trend.get(2).getAttendancePercentage()).isCloseTo(66.67, offset(0.01));
+
+		// Check-ins are persisted by the write-behind flush
+		attendanceBitmapService.flush();
+		AttendanceBitmap row = bitmapRepo.findByBatchIdAndAttendanceDate(batchId, today).orElseThrow();
+		assertThat(row.getPresentCount()).isEqualTo(2);
+		assertThat(deserialize(row.getPresentSids()).contains(carol)).isTrue();
+
+		List<StudentResponse> presentThenAbsent = attendanceBitmapService.compareDays(batchId,
+				List.of(today.minusDays(2)), List.of(today.minusDays(1)));
+		assertThat(presentThenAbsent).extracting(StudentResponse::getSid).containsExactlyInAnyOrder(bob, carol);
+		assertThat(attendanceBitmapService.compareDays(batchId, List.of(today), List.of(today.minusDays(1))))
+				.extracting(StudentResponse::getSid).containsExactly(carol);
+	}
+
+	@Test
+	void absenteesCountOnlySessionsAfterEnrollment() {
+		Integer batchId = batchService.createBatch(BatchCreateRequest.builder().batchName("Absentee batch")
+				.batchCode("BMP-2").maxCount(10).build()).getBatchId();
+		int present = enroll(batchId, "BMP-D");
+		int absent = enroll(batchId, "BMP-E");
+
+		// Sessions before today predate both enrollments and are skipped
+		LocalDate today = LocalDate.now();
+		store(batchId, today.minusDays(3), present);
+		studentService.checkIn(present);
+
+		List<AbsenteeResponse> absentees = attendanceBitmapService.getAbsentees(batchId, today.minusDays(6), today, 1);
+		assertThat(absentees).singleElement().satisfies(a -> {
+			assertThat(a.getSid()).isEqualTo(absent);
+			assertThat(a.getSessionsHeld()).isEqualTo(1);
+			assertThat(a.getDaysMissed()).isEqualTo(1);
+			assertThat(a.getLongestAbsenceStreak()).isEqualTo(1);
+		});
+	}
+
+	@Test
+	void deletingABatchRemovesItsBitmaps() {
+		Integer batchId = batchService.createBatch(BatchCreateRequest.builder().batchName("Deleted batch")
+				.batchCode("BMP-3").maxCount(10).build()).getBatchId();
+		LocalDate yesterday = LocalDate.now().minusDays(1);
+		store(batchId, yesterday, 1);
+
+		batchService.deleteBatch(batchId);
+
+		assertThat(bitmapRepo.findByBatchIdAndAttendanceDate(batchId, yesterday)).isEmpty();
+	}
+
+	private int enroll(Integer batchId, String rollNumber) {
+		return studentService.createStudent(StudentCreateRequest.builder().sname("Student " + rollNumber)
+				.rollNumber(rollNumber).batchId(batchId).build()).getSid();
+	}
+
+	private void store(Integer batchId, LocalDate date, int... sids) {
+		RoaringBitmap bitmap = RoaringBitmap.bitmapOf(sids);
+		byte[] bytes = new byte[bitmap.serializedSizeInBytes()];
+		bitmap.serialize(ByteBuffer.wrap(bytes));
+		bitmapRepo.save(AttendanceBitmap.builder().batchId(batchId).attendanceDate(date).presentSids(bytes)
+				.presentCount(sids.length).build());
+	}
+
+	private static RoaringBitmap deserialize(byte[] bytes) {
+		RoaringBitmap bitmap = new RoaringBitmap();
+		try {
+			bitmap.deserialize(ByteBuffer.wrap(bytes));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return bitmap;
+	}
+}
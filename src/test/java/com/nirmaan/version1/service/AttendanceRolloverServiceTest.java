@@ -0,0 +1,87 @@
+package com.nirmaan.version1.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.nirmaan.version1.dto.BatchCreateRequest;
+import com.nirmaan.version1.dto.StudentCreateRequest;
+import com.nirmaan.version1.dto.StudentResponse;
+import com.nirmaan.version1.entity.AttendanceRecord;
+import com.nirmaan.version1.entity.Student;
+import com.nirmaan.version1.entity.Student.AttendanceStatus;
+import com.nirmaan.version1.repository.AttendanceRecordRepo;
+import com.nirmaan.version1.repository.StudentRepo;
+
+// Chunks of two so three students span several transactions
+@SpringBootTest(properties = { "sams.rollover.chunk-size=2", "sams.rollover.close-at=18:00" })
+class AttendanceRolloverServiceTest {
+
+	@Autowired
+	private AttendanceRolloverService rolloverService;
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private BatchService batchService;
+
+	@Autowired
+	private StudentRepo studentRepo;
+
+	@Autowired
+	private AttendanceRecordRepo attendanceRecordRepo;
+
+	@Test
+	void archivesClosesAndResetsInChunks() {
+		Integer batchId = batchService.createBatch(BatchCreateRequest.builder().batchName("Rollover batch")
+				.batchCode("ROL-1").maxCount(10).build()).getBatchId();
+		int left = enroll(batchId, "ROL-A");
+		int stayed = enroll(batchId, "ROL-B");
+		int absent = enroll(batchId, "ROL-C");
+		studentService.checkIn(left);
+		studentService.checkOut(left);
+		studentService.checkIn(stayed);
+
+		LocalDate today = LocalDate.now();
+		rolloverService.rollover(today);
+
+		Map<Integer, AttendanceRecord> records = attendanceRecordRepo.findAll().stream()
+				.filter(r -> r.getBatchId() != null && r.getBatchId().equals(batchId))
+				.collect(Collectors.toMap(AttendanceRecord::getSid, Function.identity()));
+		assertThat(records).containsOnlyKeys(left, stayed, absent);
+		assertThat(records.get(left).isAutoClosed()).isFalse();
+		assertThat(records.get(absent).getStatus()).isEqualTo(AttendanceStatus.ABSENT);
+
+		AttendanceRecord open = records.get(stayed);
+		LocalDateTime policyClose = today.atTime(LocalTime.of(18, 0));
+		assertThat(open.isAutoClosed()).isTrue();
+		assertThat(open.getOuttime())
+				.isEqualTo(open.getIntime().isAfter(policyClose) ? open.getIntime() : policyClose);
+
+		for (int sid : new int[] { left, stayed, absent }) {
+			Student student = studentRepo.findById(sid).orElseThrow();
+			assertThat(student.getStatus()).isEqualTo(AttendanceStatus.ABSENT);
+			assertThat(student.isCheckedIn()).isFalse();
+		}
+		assertThat(studentService.getCurrentlyCheckedIn()).extracting(StudentResponse::getSid).doesNotContain(stayed);
+		assertThat(studentService.getAttendanceSummary(stayed).getTotalDaysPresent()).isEqualTo(1);
+
+		// A rerun for the same day changes nothing
+		assertThat(rolloverService.rollover(today)).isZero();
+	}
+
+	private int enroll(Integer batchId, String rollNumber) {
+		return studentService.createStudent(StudentCreateRequest.builder().sname("Student " + rollNumber)
+				.rollNumber(rollNumber).batchId(batchId).build()).getSid();
+	}
+}
@@ -0,0 +1,64 @@
+package com.nirmaan.version1.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.nirmaan.version1.config.CacheConfig;
+import com.nirmaan.version1.dto.BatchCreateRequest;
+import com.nirmaan.version1.dto.BatchResponse;
+import com.nirmaan.version1.dto.BatchSummary;
+import com.nirmaan.version1.dto.StudentCreateRequest;
+import com.nirmaan.version1.entity.Batch.BatchStatus;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest
+class BatchServiceCacheTest {
+
+	@Autowired
+	private BatchService batchService;
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void servesRepeatedReadsFromCacheAndEvictsOnChanges() {
+		Integer batchId = batchService.createBatch(BatchCreateRequest.builder().batchName("Cache batch")
+				.batchCode("CACHE-1").maxCount(10).build()).getBatchId();
+
+		BatchResponse batch = batchService.getBatchById(batchId);
+		assertThat(batchService.getBatchById(batchId)).isSameAs(batch);
+		BatchSummary summary = batchService.getBatchSummary(batchId);
+		assertThat(batchService.getBatchSummary(batchId)).isSameAs(summary);
+		assertThat(batchService.getAllBatches()).extracting(BatchResponse::getBatchId).contains(batchId);
+
+		// Enrollment changes the counts on the batch, the lists and the summary
+		int sid = studentService.createStudent(StudentCreateRequest.builder().sname("Cached student")
+				.rollNumber("CACHE-A").batchId(batchId).build()).getSid();
+		assertThat(batchService.getBatchById(batchId).getCurrentCount()).isEqualTo(1);
+		assertThat(batchService.getAllBatches()).filteredOn(b -> b.getBatchId().equals(batchId))
+				.extracting(BatchResponse::getCurrentCount).containsExactly(1);
+		assertThat(batchService.getBatchSummary(batchId).getCurrentCount()).isEqualTo(1);
+
+		// Check-in only touches the summary
+		BatchResponse beforeCheckIn = batchService.getBatchById(batchId);
+		studentService.checkIn(sid);
+		assertThat(batchService.getBatchById(batchId)).isSameAs(beforeCheckIn);
+		assertThat(batchService.getBatchSummary(batchId).getCurrentlyCheckedIn()).isEqualTo(1);
+
+		batchService.updateBatchStatus(batchId, BatchStatus.INACTIVE);
+		assertThat(batchService.getBatchById(batchId).getStatus()).isEqualTo("INACTIVE");
+		assertThat(batchService.getActiveBatches()).extracting(BatchResponse::getBatchId).doesNotContain(batchId);
+
+		assertThat(meterRegistry.get("cache.gets").tag("cache", CacheConfig.BATCHES).tag("result", "hit")
+				.functionCounter().count()).isPositive();
+		assertThat(meterRegistry.get("cache.gets").tag("cache", CacheConfig.BATCH_SUMMARIES).tag("result", "miss")
+				.functionCounter().count()).isPositive();
+	}
+}
@@ -0,0 +1,101 @@
+package com.nirmaan.version1.singleflight;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SingleFlightAspectTest {
+
+	private final SingleFlightAspect aspect = new SingleFlightAspect();
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final ExecutorService executor = Executors.newFixedThreadPool(8);
+	private final Reads target = new Reads();
+
+	@AfterEach
+	void shutdown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void concurrentCallsShareOneExecutionAndFreshResult() throws Exception {
+		Reads reads = proxy(Duration.ofMinutes(1));
+		List<Future<String>> results = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			results.add(executor.submit(() -> reads.summary(7)));
+		}
+		// Let every caller reach the aspect before the leader returns
+		Thread.sleep(200);
+		target.release.countDown();
+		for (Future<String> result : results) {
+			assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("summary 7 #1");
+		}
+		assertThat(reads.summary(7)).isEqualTo("summary 7 #1");
+		assertThat(reads.summary(8)).isEqualTo("summary 8 #2");
+		assertThat(meterRegistry.counter("sams.single_flight.shared", "class", "Reads", "method", "summary").count())
+				.isEqualTo(8);
+
+		// A committed change drops the fresh result
+		aspect.onAttendanceChanged(null);
+		assertThat(reads.summary(7)).isEqualTo("summary 7 #3");
+	}
+
+	@Test
+	void failuresAreNotReused() throws Exception {
+		Reads reads = proxy(Duration.ofMinutes(1));
+		target.release.countDown();
+		target.fail = true;
+		assertThatThrownBy(() -> reads.summary(1)).isInstanceOf(IllegalStateException.class);
+		target.fail = false;
+		assertThat(reads.summary(1)).isEqualTo("summary 1 #2");
+	}
+
+	@Test
+	void zeroFreshnessOnlySharesRunningCalls() throws Exception {
+		Reads reads = proxy(Duration.ZERO);
+		target.release.countDown();
+		assertThat(reads.summary(1)).isEqualTo("summary 1 #1");
+		assertThat(reads.summary(1)).isEqualTo("summary 1 #2");
+	}
+
+	private Reads proxy(Duration freshness) {
+		ReflectionTestUtils.setField(aspect, "meterRegistry", meterRegistry);
+		ReflectionTestUtils.setField(aspect, "freshness", freshness);
+		AspectJProxyFactory factory = new AspectJProxyFactory(target);
+		factory.setProxyTargetClass(true);
+		factory.addAspect(aspect);
+		return factory.getProxy();
+	}
+
+	static class Reads {
+
+		private final AtomicInteger executions = new AtomicInteger();
+		final CountDownLatch release = new CountDownLatch(1);
+		volatile boolean fail;
+
+		@SingleFlight
+		public String summary(Integer batchId) throws InterruptedException {
+			int execution = executions.incrementAndGet();
+			release.await(5, TimeUnit.SECONDS);
+			if (fail) {
+				throw new IllegalStateException("failed");
+			}
+			return "summary " + batchId + " #" + execution;
+		}
+	}
+}
@@ -0,0 +1,3 @@
+-- Known login for StartupBenchmarkTest (password: benchmark-secret)
+INSERT INTO users (username, password, email, enabled, account_non_expired, account_non_locked, credentials_non_expired, role)
+VALUES ('benchmark', '$2a$10$J8lJFKOy0X/1WqfQohFW9Onk/oVXlvgzbkfuTt9ir4gVj6lEwbIMm', 'benchmark@example.com', true, true, true, true, 'ADMIN');